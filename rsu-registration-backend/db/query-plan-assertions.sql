@@ -0,0 +1,237 @@
+-- ============================================================
+-- RSU Student Registration System - Query Plan Assertions
+-- ============================================================
+-- Synthetic data and index-plan assertions for the hot repository
+-- queries. Plain SQL (no psql meta-commands) so it can be run by
+-- db/query-plan-check.sql through psql and by the E2E harness
+-- (rsu-registration-benchmarks, QueryPlanCheck) over JDBC.
+--
+-- Expects an empty scratch schema on the search_path that already
+-- holds the tables and indexes of schema.sql. Any sequential scan
+-- (or a plan that stops using the expected index) raises an error.
+--
+-- Add an assertion here with every new repository query that runs
+-- on a hot path.
+-- ============================================================
+
+-- ------------------------------------------------------------
+-- Synthetic data
+-- ------------------------------------------------------------
+-- RetryStatus ordinals: 0 PENDING_RETRY, 1 RETRYING, 2 RETRY_SUCCESS,
+-- 3 MOVED_TO_DLQ, 4 AWAITING_MANUAL_RETRY, 5 MANUAL_RETRY_SUCCESS, 6 FAILED
+-- Most failed messages are resolved, a small tail is pending or in the DLQ.
+INSERT INTO failed_messages
+    (student_id, student_name, email, failure_stage, error_category, error_message,
+     status, retry_attempts, max_retry_attempts, failed_at, next_retry_at,
+     moved_to_dlq_at, in_dead_letter_queue, user_notified)
+SELECT 'RSU' || lpad(i::text, 7, '0'),
+       'Student ' || i,
+       'student' || i || '@rsu.edu',
+       CASE WHEN i % 2 = 0 THEN 'REGISTRATION_PROCESSING' ELSE 'REGISTRATION_SUBMISSION' END,
+       i % 9,
+       'Synthetic failure ' || i,
+       CASE WHEN i % 100 = 0 THEN 0
+            WHEN i % 50 = 1 THEN 4
+            WHEN i % 10 = 2 THEN 5
+            ELSE 2 END,
+       CASE WHEN i % 50 = 1 THEN 3 ELSE i % 3 END,
+       3,
+       now() - (i % 90) * interval '1 day',
+       now() - interval '1 hour' + (i % 7200) * interval '1 second',
+       CASE WHEN i % 50 = 1 THEN now() - (i % 90) * interval '1 day' END,
+       i % 50 = 1,
+       false
+FROM generate_series(1, 200000) AS i;
+
+-- Errors spread over the last 90 days, about 1% unresolved
+INSERT INTO error_logs
+    (student_id, student_name, error_stage, error_category, error_message,
+     error_timestamp, severity, resolved, resolved_at, resolved_by)
+SELECT 'RSU' || lpad((i % 200000)::text, 7, '0'),
+       'Student ' || i,
+       CASE WHEN i % 2 = 0 THEN 'REGISTRATION_PROCESSING' ELSE 'REGISTRATION_SUBMISSION' END,
+       i % 9,
+       'Synthetic error ' || i,
+       now() - (i % 129600) * interval '1 minute',
+       'ERROR',
+       i % 100 <> 0,
+       CASE WHEN i % 100 <> 0 THEN now() END,
+       CASE WHEN i % 100 <> 0 THEN 'SYSTEM' END
+FROM generate_series(1, 500000) AS i;
+
+-- Saved registrations, a small tail still PROFILE_PARTIAL
+INSERT INTO student_registrations
+    (student_name, student_id, email, program, year_level, registration_timestamp, status)
+SELECT 'Student ' || i,
+       'RSU' || lpad(i::text, 7, '0'),
+       'student' || i || '@rsu.edu',
+       'Computer Science',
+       CASE WHEN i % 4 = 0 THEN 'First Year' ELSE 'Second Year' END,
+       now() - (i % 129600) * interval '1 minute',
+       CASE WHEN i % 100 = 0 THEN 'PROFILE_PARTIAL' ELSE 'PROFILE_COMPLETE' END
+FROM generate_series(1, 200000) AS i;
+
+-- Outbox: almost everything already sent, a small pending tail
+INSERT INTO registration_outbox
+    (message_id, student_id, exchange, routing_key, payload, status, attempts, created_at, sent_at)
+SELECT 'msg-' || i,
+       'RSU' || lpad(i::text, 7, '0'),
+       'student.registration.exchange',
+       'student.registration.submit',
+       '{}',
+       CASE WHEN i > 199000 THEN 0 ELSE 1 END,
+       0,
+       now() - (200000 - i) * interval '1 second',
+       CASE WHEN i <= 199000 THEN now() - (200000 - i) * interval '1 second' END
+FROM generate_series(1, 200000) AS i;
+
+-- Idempotent consumer store
+INSERT INTO processed_messages (message_id, student_id, processed_at, expires_at)
+SELECT 'msg-' || i,
+       'RSU' || lpad(i::text, 7, '0'),
+       now() - (i % 86400) * interval '1 second',
+       now() + interval '7 days' - (i % 86400) * interval '1 second'
+FROM generate_series(1, 200000) AS i;
+
+-- Retry history, about three attempts per failed message
+INSERT INTO retry_attempts
+    (id, failed_message_id, student_id, attempt_number, outcome, attempted_at)
+SELECT i,
+       (i + 2) / 3,
+       'RSU' || lpad(((i + 2) / 3)::text, 7, '0'),
+       (i - 1) % 3 + 1,
+       i % 3,
+       now() - (i % 86400) * interval '1 second'
+FROM generate_series(1, 600000) AS i;
+
+ANALYZE failed_messages;
+ANALYZE error_logs;
+ANALYZE student_registrations;
+ANALYZE registration_outbox;
+ANALYZE processed_messages;
+ANALYZE retry_attempts;
+
+-- ------------------------------------------------------------
+-- Assertion helper
+-- ------------------------------------------------------------
+CREATE FUNCTION assert_index_plan(label TEXT, query TEXT, expected_index TEXT)
+RETURNS VOID AS $$
+DECLARE
+    plan TEXT := '';
+    line TEXT;
+BEGIN
+    FOR line IN EXECUTE 'EXPLAIN ' || query LOOP
+        plan := plan || line || E'\n';
+    END LOOP;
+
+    IF plan LIKE '%Seq Scan%' THEN
+        RAISE EXCEPTION '% regressed to a sequential scan:%', label, E'\n' || plan;
+    END IF;
+    IF position(expected_index IN plan) = 0 THEN
+        RAISE EXCEPTION '% does not use %:%', label, expected_index, E'\n' || plan;
+    END IF;
+
+    RAISE NOTICE 'OK  % -> %', label, expected_index;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ------------------------------------------------------------
+-- FailedMessageRepository (SQL as generated by Hibernate)
+-- ------------------------------------------------------------
+SELECT assert_index_plan(
+    'findMessagesReadyForRetry',
+    $q$SELECT * FROM failed_messages fm
+       WHERE fm.status = 0
+         AND fm.next_retry_at <= now()
+         AND fm.retry_attempts < fm.max_retry_attempts
+       ORDER BY fm.next_retry_at
+       LIMIT 100$q$,
+    'idx_failed_messages_retry_due');
+
+SELECT assert_index_plan(
+    'findByInDeadLetterQueueTrue',
+    $q$SELECT * FROM failed_messages fm WHERE fm.in_dead_letter_queue = true$q$,
+    'idx_failed_messages_dlq');
+
+SELECT assert_index_plan(
+    'countByInDeadLetterQueueTrue',
+    $q$SELECT count(fm.id) FROM failed_messages fm WHERE fm.in_dead_letter_queue = true$q$,
+    'idx_failed_messages_dlq');
+
+SELECT assert_index_plan(
+    'findByStudentId',
+    $q$SELECT * FROM failed_messages fm WHERE fm.student_id = 'RSU0123456'$q$,
+    'idx_failed_messages_student_id');
+
+SELECT assert_index_plan(
+    'findFirstByStudentIdOrderByFailedAtDesc',
+    $q$SELECT * FROM failed_messages fm WHERE fm.student_id = 'RSU0123456'
+       ORDER BY fm.failed_at DESC LIMIT 1$q$,
+    'idx_failed_messages_student_id');
+
+-- ------------------------------------------------------------
+-- ErrorLogRepository (SQL as generated by Hibernate)
+-- ------------------------------------------------------------
+SELECT assert_index_plan(
+    'findRecentErrors',
+    $q$SELECT * FROM error_logs el
+       WHERE el.error_timestamp >= now() - interval '24 hours'
+       ORDER BY el.error_timestamp DESC$q$,
+    'idx_error_logs_timestamp');
+
+SELECT assert_index_plan(
+    'findByResolvedFalseOrderByErrorTimestampDesc',
+    $q$SELECT * FROM error_logs el WHERE el.resolved = false
+       ORDER BY el.error_timestamp DESC$q$,
+    'idx_error_logs_unresolved');
+
+SELECT assert_index_plan(
+    'countByResolvedFalse',
+    $q$SELECT count(el.id) FROM error_logs el WHERE el.resolved = false$q$,
+    'idx_error_logs_unresolved');
+
+-- ------------------------------------------------------------
+-- StudentRegistrationRepository
+-- ------------------------------------------------------------
+SELECT assert_index_plan(
+    'findByStudentId (registrations)',
+    $q$SELECT * FROM student_registrations sr WHERE sr.student_id = 'RSU0123456'$q$,
+    'idx_student_id');
+
+-- ------------------------------------------------------------
+-- OutboxMessageRepository
+-- ------------------------------------------------------------
+SELECT assert_index_plan(
+    'lockPendingBatch',
+    $q$SELECT * FROM registration_outbox WHERE status = 0
+       ORDER BY id LIMIT 100 FOR UPDATE SKIP LOCKED$q$,
+    'idx_registration_outbox_pending');
+
+SELECT assert_index_plan(
+    'deleteSentBefore',
+    $q$SELECT id FROM registration_outbox om
+       WHERE om.status = 1 AND om.sent_at < now() - interval '1 day'$q$,
+    'idx_registration_outbox_sent_at');
+
+-- ------------------------------------------------------------
+-- ProcessedMessageRepository
+-- ------------------------------------------------------------
+SELECT assert_index_plan(
+    'existsByMessageIdOrStudentId',
+    $q$SELECT pm.message_id FROM processed_messages pm
+       WHERE pm.message_id = 'msg-123456' OR pm.student_id = 'RSU0123456' LIMIT 1$q$,
+    'idx_processed_messages_student_id');
+
+SELECT assert_index_plan(
+    'deleteExpired',
+    $q$SELECT message_id FROM processed_messages pm WHERE pm.expires_at < now()$q$,
+    'idx_processed_messages_expires_at');
+
+-- ------------------------------------------------------------
+-- RetryAttemptRepository
+-- ------------------------------------------------------------
+SELECT assert_index_plan(
+    'findByFailedMessageIdOrderByAttemptedAtAscIdAsc',
+    $q$SELECT * FROM retry_attempts ra WHERE ra.failed_message_id = 12345
+       ORDER BY ra.attempted_at, ra.id$q$,
+    'idx_retry_attempts_message');
@@ -0,0 +1,41 @@
+-- ============================================================
+-- RSU Student Registration System - Query Plan Regression Check
+-- ============================================================
+-- Loads synthetic data into a scratch schema built from
+-- schema.sql and asserts that the hot repository queries are
+-- answered by index scans (query-plan-assertions.sql). Any
+-- sequential scan (or a plan that stops using the expected index)
+-- aborts the script with an error.
+--
+-- The E2E harness runs the same assertions against its embedded
+-- PostgreSQL before every load run (see the benchmarks module).
+--
+-- Run from the rsu-registration-backend directory against a local
+-- PostgreSQL (the docker-compose database works):
+--
+--   psql -h localhost -U rsu_user -d rsu_registration \
+--        -v ON_ERROR_STOP=1 -f db/query-plan-check.sql
+--
+-- The scratch schema is dropped at the end, application tables
+-- in "public" are never touched.
+-- ============================================================
+
+\set ON_ERROR_STOP 1
+
+DROP SCHEMA IF EXISTS plan_check CASCADE;
+CREATE SCHEMA plan_check;
+SET search_path TO plan_check;
+
+-- Same DDL and indexes as the application
+\ir ../src/main/resources/schema.sql
+
+-- Synthetic data and assertions (shared with the E2E harness)
+\ir query-plan-assertions.sql
+
+-- ------------------------------------------------------------
+-- Cleanup
+-- ------------------------------------------------------------
+RESET search_path;
+DROP SCHEMA plan_check CASCADE;
+
+\echo 'Query plan check passed: all hot repository queries use index scans'
@@ -0,0 +1,38 @@
+package com.rsu.registration.config;
+
+import com.rsu.registration.service.TracingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated thread pool for the (simulated) downstream system calls.
+ * Keeps blocking downstream work off the common ForkJoinPool and off
+ * the Tomcat request threads. Tasks run with the trace span of the thread
+ * that submitted them.
+ */
+@Configuration
+@Slf4j
+public class DownstreamExecutorConfig {
+
+    public static final String DOWNSTREAM_EXECUTOR = "downstreamExecutor";
+
+    @Bean(name = DOWNSTREAM_EXECUTOR)
+    public ThreadPoolTaskExecutor downstreamExecutor(
+            @Value("${app.downstream.executor.pool-size:64}") int poolSize,
+            @Value("${app.downstream.executor.queue-capacity:1000}") int queueCapacity,
+            TracingService tracingService) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("downstream-");
+        executor.setTaskDecorator(tracingService::wrap);
+        executor.initialize();
+
+        log.info("✅ Downstream executor configured with {} threads, queue capacity {}", poolSize, queueCapacity);
+        return executor;
+    }
+}
@@ -43,8 +43,8 @@ public class RabbitMQConfig {
         connectionFactory.setUsername(username);
         connectionFactory.setPassword(password);
         
-        // Important: Don't publish when connection is not confirmed
-        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
+        // Correlated publisher confirms: the outbox relay waits for the confirm of each message
+        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
         connectionFactory.setPublisherReturns(true);
         
         // Connection timeout
@@ -100,9 +100,12 @@ public class RabbitMQConfig {
 
     /**
      * JSON Message Converter
+     * Assigns a unique message ID to every outgoing message so consumers can deduplicate redeliveries
      */
     @Bean
     public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+        converter.setCreateMessageIds(true);
+        return converter;
     }
 }
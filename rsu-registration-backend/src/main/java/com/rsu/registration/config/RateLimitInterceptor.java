@@ -0,0 +1,78 @@
+package com.rsu.registration.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rsu.registration.service.RateLimitService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the per-client rate limits of {@link RateLimitService} to the registration API.
+ * Rejected requests get 429 with Retry-After before reaching the controller.
+ */
+@Component
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+    private final String apiKeyHeader;
+
+    public RateLimitInterceptor(RateLimitService rateLimitService,
+                                ObjectMapper objectMapper,
+                                @Value("${app.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader) {
+        this.rateLimitService = rateLimitService;
+        this.objectMapper = objectMapper;
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // Async re-dispatches (DeferredResult, SSE) belong to a request that was already counted
+        if (!rateLimitService.isEnabled() || !(handler instanceof HandlerMethod)
+                || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (rateLimitService.isExempt(apiKey)) {
+            return true;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern != null ? pattern.toString() : request.getRequestURI();
+        String client = rateLimitService.clientKey(apiKey, request.getRemoteAddr());
+
+        long waitNanos = rateLimitService.tryAcquire(client, endpoint);
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        log.debug("🚧 [RATE LIMIT] {} rejected for {} - retry after {}s", endpoint, client, retryAfterSeconds);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("message", "Too many requests. Please try again in " + retryAfterSeconds + " seconds.");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+        return false;
+    }
+}
@@ -1,14 +1,35 @@
 package com.rsu.registration.controller;
 
+import com.rsu.registration.dto.SimulationProfile;
+import com.rsu.registration.model.DownstreamSystem;
 import com.rsu.registration.model.ErrorCategory;
 import com.rsu.registration.model.ErrorLog;
 import com.rsu.registration.model.FailedMessage;
+import com.rsu.registration.model.RetryAttempt;
+import com.rsu.registration.model.RetryPolicy;
 import com.rsu.registration.model.RetryStatus;
+import com.rsu.registration.service.AdmissionControlService;
+import com.rsu.registration.service.CircuitBreakerService;
+import com.rsu.registration.service.DownstreamSimulatorService;
 import com.rsu.registration.service.ErrorLogService;
+import com.rsu.registration.service.FlightRecorderService;
+import com.rsu.registration.service.HedgingService;
+import com.rsu.registration.service.LatencyHistogramService;
+import com.rsu.registration.service.QueueMonitorService;
+import com.rsu.registration.service.RateLimitService;
+import com.rsu.registration.service.RegistrationStatusBroadcaster;
+import com.rsu.registration.service.RetryAttemptService;
+import com.rsu.registration.service.RetryBudgetService;
+import com.rsu.registration.service.RetryPolicyService;
 import com.rsu.registration.service.RetryService;
+import com.rsu.registration.service.TracingService;
 import com.rsu.registration.repository.FailedMessageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,7 +46,11 @@ import java.util.Map;
  * - View all error logs with filtering
  * - View failed registrations in error channel and DLQ
  * - Manual retry failed messages
+ * - View and change per-category retry policies
+ * - Change downstream latency models and inject faults
+ * - Record and download Java Flight Recorder recordings
  * - System health and error statistics
+ * - Rolling latency percentiles per downstream system
  * - Search and filter capabilities
  */
 @RestController
@@ -37,6 +62,19 @@ public class AdminController {
     
     private final RetryService retryService;
     private final ErrorLogService errorLogService;
+    private final RetryAttemptService retryAttemptService;
+    private final RetryPolicyService retryPolicyService;
+    private final RetryBudgetService retryBudgetService;
+    private final CircuitBreakerService circuitBreakerService;
+    private final HedgingService hedgingService;
+    private final DownstreamSimulatorService simulatorService;
+    private final RegistrationStatusBroadcaster statusBroadcaster;
+    private final TracingService tracingService;
+    private final FlightRecorderService flightRecorderService;
+    private final LatencyHistogramService latencyHistograms;
+    private final QueueMonitorService queueMonitor;
+    private final AdmissionControlService admissionControl;
+    private final RateLimitService rateLimitService;
     private final FailedMessageRepository failedMessageRepository;
     
     // ========== Error Logs Endpoints ==========
@@ -108,7 +146,7 @@ public class AdminController {
     public ResponseEntity<List<FailedMessage>> getAllFailedMessages() {
         log.info("📊 [ADMIN] Fetching all failed messages");
         List<FailedMessage> messages = failedMessageRepository.findAll();
-        return ResponseEntity.ok(messages);
+        return ResponseEntity.ok(retryAttemptService.attachRetryHistory(messages));
     }
     
     /**
@@ -118,7 +156,7 @@ public class AdminController {
     public ResponseEntity<List<FailedMessage>> getFailedMessagesByStatus(@PathVariable RetryStatus status) {
         log.info("📊 [ADMIN] Fetching failed messages with status: {}", status);
         List<FailedMessage> messages = retryService.getMessagesByStatus(status);
-        return ResponseEntity.ok(messages);
+        return ResponseEntity.ok(retryAttemptService.attachRetryHistory(messages));
     }
     
     /**
@@ -128,7 +166,7 @@ public class AdminController {
     public ResponseEntity<List<FailedMessage>> getDeadLetterQueue() {
         log.info("💀 [ADMIN] Fetching Dead-Letter Queue messages");
         List<FailedMessage> messages = retryService.getDeadLetterQueue();
-        return ResponseEntity.ok(messages);
+        return ResponseEntity.ok(retryAttemptService.attachRetryHistory(messages));
     }
     
     /**
@@ -138,7 +176,7 @@ public class AdminController {
     public ResponseEntity<List<FailedMessage>> getUnresolvedMessages() {
         log.info("📊 [ADMIN] Fetching unresolved failed messages");
         List<FailedMessage> messages = retryService.getUnresolvedMessages();
-        return ResponseEntity.ok(messages);
+        return ResponseEntity.ok(retryAttemptService.attachRetryHistory(messages));
     }
     
     /**
@@ -148,10 +186,20 @@ public class AdminController {
     public ResponseEntity<FailedMessage> getFailedMessageById(@PathVariable Long id) {
         log.info("📊 [ADMIN] Fetching failed message with ID: {}", id);
         return failedMessageRepository.findById(id)
+                .map(retryAttemptService::attachRetryHistory)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * Get the structured retry attempt history of a failed message
+     */
+    @GetMapping("/failed-messages/{id}/attempts")
+    public ResponseEntity<List<RetryAttempt>> getRetryAttempts(@PathVariable Long id) {
+        log.info("📊 [ADMIN] Fetching retry attempts for failed message ID: {}", id);
+        return ResponseEntity.ok(retryAttemptService.getAttempts(id));
+    }
+    
     /**
      * Get failed messages by student ID
      */
@@ -159,6 +207,7 @@ public class AdminController {
     public ResponseEntity<FailedMessage> getFailedMessageByStudentId(@PathVariable String studentId) {
         log.info("📊 [ADMIN] Fetching failed message for student: {}", studentId);
         return failedMessageRepository.findByStudentId(studentId)
+                .map(retryAttemptService::attachRetryHistory)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -245,6 +294,51 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
     
+    // ========== Retry Policies ==========
+    
+    /**
+     * Get the effective retry policy of every error category
+     */
+    @GetMapping("/retry-policies")
+    public ResponseEntity<List<RetryPolicy>> getRetryPolicies() {
+        log.info("📋 [ADMIN] Fetching retry policies");
+        return ResponseEntity.ok(retryPolicyService.getPolicies());
+    }
+    
+    /**
+     * Create or replace the retry policy of an error category
+     */
+    @PutMapping("/retry-policies/{category}")
+    public ResponseEntity<?> updateRetryPolicy(
+            @PathVariable ErrorCategory category,
+            @RequestParam String adminUser,
+            @RequestBody RetryPolicy policy) {
+        
+        log.info("📋 [ADMIN] Retry policy update for {} by: {}", category, adminUser);
+        
+        try {
+            return ResponseEntity.ok(retryPolicyService.updatePolicy(category, policy, adminUser));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+    
+    /**
+     * Reload retry policies from the database (after direct table edits)
+     */
+    @PostMapping("/retry-policies/reload")
+    public ResponseEntity<Map<String, Object>> reloadRetryPolicies() {
+        log.info("📋 [ADMIN] Reloading retry policies");
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("policiesLoaded", retryPolicyService.reload());
+        return ResponseEntity.ok(response);
+    }
+    
     // ========== Statistics and Metrics ==========
     
     /**
@@ -283,6 +377,22 @@ public class AdminController {
         }
         stats.put("failuresByCategory", failuresByCategory);
         
+        // Retry budget utilisation and in-flight retries per stage
+        stats.put("retryBudget", retryBudgetService.getStats());
+        
+        // Status stream subscribers and pushed events
+        stats.put("statusStream", statusBroadcaster.getStats());
+        stats.put("tracing", tracingService.getStats());
+        
+        // Registration queue depth, rates and consumer lag
+        stats.put("registrationQueue", queueMonitor.getStats());
+        
+        // Submit admission: adaptive concurrency limit and shed submissions
+        stats.put("admission", admissionControl.getStats());
+        
+        // Per-client rate limits on the registration API
+        stats.put("rateLimit", rateLimitService.getStats());
+        
         return ResponseEntity.ok(stats);
     }
     
@@ -336,16 +446,195 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
     
+    /**
+     * State and failure/slow-call rates of the downstream circuit breakers
+     */
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<Map<String, Object>> getCircuitBreakers() {
+        log.info("⚡ [ADMIN] Fetching circuit breaker status");
+        return ResponseEntity.ok(circuitBreakerService.getStatus());
+    }
+    
+    /**
+     * Hedge thresholds per system and hedge budget usage
+     */
+    @GetMapping("/hedging")
+    public ResponseEntity<Map<String, Object>> getHedgingStats() {
+        log.info("🪃 [ADMIN] Fetching hedging statistics");
+        return ResponseEntity.ok(hedgingService.getStats());
+    }
+    
+    /**
+     * p50/p90/p99/p99.9 latency per downstream system and for whole aggregations,
+     * over the last 1 minute, 5 minutes and 1 hour
+     */
+    @GetMapping("/latency")
+    public ResponseEntity<Map<String, Object>> getLatency() {
+        log.info("⏱️ [ADMIN] Fetching latency percentiles");
+        return ResponseEntity.ok(latencyHistograms.getLatency());
+    }
+    
+    // ========== Downstream Simulator ==========
+    
+    /**
+     * Latency model, brown-out state and injected fault counts per downstream system
+     */
+    @GetMapping("/simulator")
+    public ResponseEntity<Map<String, Object>> getSimulator() {
+        log.info("🧪 [ADMIN] Fetching downstream simulator status");
+        return ResponseEntity.ok(simulatorService.getStatus());
+    }
+    
+    /**
+     * Change the latency model or fault rates of a system (fields left out are unchanged)
+     */
+    @PutMapping("/simulator/{system}")
+    public ResponseEntity<?> updateSimulation(
+            @PathVariable DownstreamSystem system,
+            @RequestBody SimulationProfile profile) {
+        
+        log.info("🧪 [ADMIN] Simulator update for {}", system);
+        
+        try {
+            return ResponseEntity.ok(simulatorService.updateProfile(system, profile));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+    
+    /**
+     * Start a brown-out of a system (default length from its profile)
+     */
+    @PostMapping("/simulator/{system}/brownout")
+    public ResponseEntity<Map<String, Object>> startBrownout(
+            @PathVariable DownstreamSystem system,
+            @RequestParam(required = false) Long seconds) {
+        
+        log.info("🧪 [ADMIN] Brown-out requested for {} ({}s)", system, seconds);
+        
+        Map<String, Object> response = new HashMap<>();
+        try {
+            simulatorService.startBrownout(system, seconds);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
+    /**
+     * End a brown-out started from the admin API
+     */
+    @DeleteMapping("/simulator/{system}/brownout")
+    public ResponseEntity<Map<String, Object>> stopBrownout(@PathVariable DownstreamSystem system) {
+        log.info("🧪 [ADMIN] Stopping brown-out of {}", system);
+        simulatorService.stopBrownout(system);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Restore all systems to their configured profiles
+     */
+    @PostMapping("/simulator/reset")
+    public ResponseEntity<Map<String, Object>> resetSimulator() {
+        log.info("🧪 [ADMIN] Resetting downstream simulator");
+        simulatorService.reset();
+        return ResponseEntity.ok(simulatorService.getStatus());
+    }
+    
+    // ========== Flight Recorder ==========
+    
+    /**
+     * Start a time-boxed JFR recording (default length from app.jfr.default-duration-seconds)
+     */
+    @PostMapping("/jfr/recordings")
+    public ResponseEntity<Map<String, Object>> startRecording(@RequestParam(required = false) Long seconds) {
+        log.info("🎥 [ADMIN] JFR recording requested ({}s)", seconds);
+        
+        try {
+            return ResponseEntity.ok(flightRecorderService.startRecording(seconds));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        }
+    }
+    
+    /**
+     * Recordings available for download
+     */
+    @GetMapping("/jfr/recordings")
+    public ResponseEntity<List<Map<String, Object>>> getRecordings() {
+        log.info("🎥 [ADMIN] Fetching JFR recordings");
+        return ResponseEntity.ok(flightRecorderService.getRecordings());
+    }
+    
+    /**
+     * Stop a recording before its duration ends
+     */
+    @PostMapping("/jfr/recordings/{id}/stop")
+    public ResponseEntity<Map<String, Object>> stopRecording(@PathVariable long id) {
+        log.info("🎥 [ADMIN] Stopping JFR recording {}", id);
+        return flightRecorderService.stopRecording(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Download a finished recording (open with JDK Mission Control or "jfr print")
+     */
+    @GetMapping("/jfr/recordings/{id}")
+    public ResponseEntity<?> downloadRecording(@PathVariable long id) {
+        log.info("🎥 [ADMIN] Downloading JFR recording {}", id);
+        
+        try {
+            return flightRecorderService.getRecordingFile(id)
+                    .<ResponseEntity<?>>map(file -> ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                            .header(HttpHeaders.CONTENT_DISPOSITION,
+                                    "attachment; filename=\"" + file.getFileName() + "\"")
+                            .body(new FileSystemResource(file)))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        }
+    }
+    
     /**
      * Health check for admin dashboard
+     * DEGRADED when the retry scheduler stalled or the broker cannot be sampled
      */
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> adminHealth() {
+        Map<String, Object> retryScheduler = retryService.getSchedulerHealth();
+        Map<String, Object> registrationQueue = queueMonitor.getStats();
+        boolean degraded = "stalled".equals(retryScheduler.get("status"))
+                || (registrationQueue.get("sampledAt") != null
+                    && !Boolean.TRUE.equals(registrationQueue.get("brokerReachable")));
+        
         Map<String, Object> health = new HashMap<>();
-        health.put("status", "UP");
+        health.put("status", degraded ? "DEGRADED" : "UP");
         health.put("adminDashboard", "operational");
         health.put("errorTracking", "active");
-        health.put("retryScheduler", "running");
+        health.put("retryScheduler", retryScheduler);
+        health.put("registrationQueue", registrationQueue);
         return ResponseEntity.ok(health);
     }
 }
@@ -6,25 +6,36 @@ import com.rsu.registration.dto.AggregatedStudentProfile;
 import com.rsu.registration.dto.TranslationChainDTO;
 import com.rsu.registration.model.StudentRegistration;
 import com.rsu.registration.model.ErrorCategory;
+import com.rsu.registration.model.DownstreamSystem;
+import com.rsu.registration.service.AdmissionControlService;
+import com.rsu.registration.service.AdmissionRejectedException;
+import com.rsu.registration.service.DuplicateRegistrationService;
 import com.rsu.registration.service.StudentRegistrationService;
 import com.rsu.registration.service.StudentProfileAggregatorService;
 import com.rsu.registration.service.MessageTranslatorService;
+import com.rsu.registration.service.OutboxService;
+import com.rsu.registration.service.PipelineMetricsService;
+import com.rsu.registration.service.RegistrationStatusBroadcaster;
 import com.rsu.registration.service.RetryService;
+import com.rsu.registration.service.TracingService;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static com.rsu.registration.integration.RegistrationIntegrationConfig.*;
-
 /**
  * REST API Controller for Student Registration
  * API Gateway: Receives registration requests and sends them to message queue
@@ -32,6 +43,7 @@ import static com.rsu.registration.integration.RegistrationIntegrationConfig.*;
  * Implements Message Translator Pattern for format conversions
  * Implements Error Handling with retry logic and dead-letter queue
  * Provides aggregated student profile retrieval
+ * Pushes registration status changes over Server-Sent Events
  */
 @RestController
 @RequestMapping("/api/v1/registrations")
@@ -40,26 +52,81 @@ import static com.rsu.registration.integration.RegistrationIntegrationConfig.*;
 @CrossOrigin(originPatterns = "*", allowCredentials = "false", maxAge = 3600)
 public class RegistrationController {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
     private final StudentRegistrationService registrationService;
     private final StudentProfileAggregatorService aggregatorService;
     private final MessageTranslatorService translatorService;
     private final RetryService retryService;
+    private final DuplicateRegistrationService duplicateRegistrationService;
+    private final RegistrationStatusBroadcaster statusBroadcaster;
+    private final PipelineMetricsService pipelineMetrics;
+    private final TracingService tracingService;
+    private final AdmissionControlService admissionControl;
+
+    @Value("${app.profile.request-timeout-ms:35000}")
+    private long profileRequestTimeoutMs;
 
     /**
      * Submit a student registration
      * This is the API Gateway endpoint that receives registration data from the frontend
-     * and sends it to the message queue for asynchronous processing
+     * and records it in the transactional outbox; the outbox relay publishes it to the
+     * message queue for asynchronous processing
      * Returns routing information to show which systems will process this registration
+     * Duplicate student IDs are rejected with 409 before any translation or messaging
+     * Admission control sheds submissions with 503 and Retry-After while the registration
+     * queue is behind, the adaptive concurrency limit is reached or the database is overloaded
      */
     @PostMapping("/submit")
     public ResponseEntity<RegistrationResponseDTO> submitRegistration(
-            @Valid @RequestBody StudentRegistrationDTO registrationDTO) {
+            @Valid @RequestBody StudentRegistrationDTO registrationDTO,
+            @RequestHeader(name = TracingService.TRACEPARENT_HEADER, required = false) String traceparent) {
+        long startNanos = System.nanoTime();
+        // Root of the registration's trace (or a child of the caller's trace); stored with the outbox row
+        TracingService.Span span = tracingService.startSpan("POST /submit", TracingService.Span.SERVER, traceparent)
+                .tag("studentId", registrationDTO.getStudentId());
+        String status = "ERROR";
+        try (TracingService.Scope ignored = tracingService.activate(span)) {
+            ResponseEntity<RegistrationResponseDTO> response = submit(registrationDTO);
+            status = response.getBody().getStatus();
+            return response;
+        } finally {
+            span.tag("status", status).end();
+            pipelineMetrics.recordSubmit(System.nanoTime() - startNanos, status);
+        }
+    }
 
+    private ResponseEntity<RegistrationResponseDTO> submit(StudentRegistrationDTO registrationDTO) {
         log.info("📨 Received registration request for student: {} - Year: {}", 
                 registrationDTO.getStudentId(), registrationDTO.getYearLevel());
 
+        AdmissionControlService.Permit permit;
+        try {
+            permit = admissionControl.tryAcquire();
+        } catch (AdmissionRejectedException e) {
+            log.warn("🚦 Shedding submission for student: {} ({})", registrationDTO.getStudentId(), e.getReason());
+            return overloaded(e.getRetryAfterSeconds());
+        }
+
+        try (permit) {
+            return submitAdmitted(registrationDTO, permit);
+        }
+    }
+
+    private ResponseEntity<RegistrationResponseDTO> submitAdmitted(StudentRegistrationDTO registrationDTO,
+                                                                   AdmissionControlService.Permit permit) {
         try {
+            // Inside the try: a pool timeout here is an overload like any other
+            if (duplicateRegistrationService.isRegistered(registrationDTO.getStudentId())) {
+                log.warn("⚠️ Duplicate registration rejected for student: {}", registrationDTO.getStudentId());
+                permit.ignore();
+                RegistrationResponseDTO response = RegistrationResponseDTO.builder()
+                        .success(false)
+                        .message("Student ID " + registrationDTO.getStudentId() + " is already registered")
+                        .status("DUPLICATE")
+                        .build();
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
+
             // Execute translation chain (Message Translator Pattern)
             log.info("🔄 Executing message translation chain...");
             TranslationChainDTO translationChain = translatorService.executeTranslationChain(registrationDTO);
@@ -83,20 +150,12 @@ public class RegistrationController {
             log.info("🔀 Routing decision: {} will be routed to: {}", 
                     registrationDTO.getStudentName(), routedTo);
 
-            // Send message to RabbitMQ queue (EIP Pattern: Message Channel)
-            try {
-                rabbitTemplate.convertAndSend(
-                        REGISTRATION_EXCHANGE,
-                        "student.registration.submit",
-                        registrationDTO
-                );
+            // Record the message in the outbox (EIP Pattern: Transactional Outbox)
+            // The outbox relay publishes it to RabbitMQ, so a broker outage does not fail the submission
+            outboxService.enqueue(registrationDTO);
 
-                log.info("✅ Registration message sent to queue for student: {}", 
-                        registrationDTO.getStudentId());
-            } catch (Exception rabbitException) {
-                log.error("❌ RabbitMQ connection failed: {}", rabbitException.getMessage());
-                throw rabbitException; // Re-throw to be caught by outer try-catch
-            }
+            log.info("✅ Registration message stored for delivery to queue for student: {}", 
+                    registrationDTO.getStudentId());
 
             RegistrationResponseDTO response = RegistrationResponseDTO.builder()
                     .success(true)
@@ -111,14 +170,22 @@ public class RegistrationController {
             return ResponseEntity.accepted().body(response);
 
         } catch (Exception e) {
+            if (AdmissionControlService.isOverloadFailure(e)) {
+                // Capturing the failure would add another write to an overloaded database
+                log.warn("🚦 Database overloaded - shedding submission for student: {}: {}",
+                        registrationDTO.getStudentId(), e.getMessage());
+                permit.overloaded();
+                return overloaded(admissionControl.getRetryAfterSeconds());
+            }
             log.error("❌ Error submitting registration: {}", e.getMessage(), e);
+            permit.ignore();
 
             // Capture failed message to error channel for retry
             ErrorCategory errorCategory = determineErrorCategory(e);
             try {
                 retryService.captureFailedMessage(
                         registrationDTO,
-                        "REGISTRATION_SUBMISSION",
+                        RetryService.SUBMISSION_STAGE,
                         errorCategory,
                         e
                 );
@@ -136,6 +203,20 @@ public class RegistrationController {
             return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
         }
     }
+
+    /**
+     * 503 with Retry-After for a shed submission
+     */
+    private ResponseEntity<RegistrationResponseDTO> overloaded(long retryAfterSeconds) {
+        RegistrationResponseDTO response = RegistrationResponseDTO.builder()
+                .success(false)
+                .message("Registration is busy. Please try again in " + retryAfterSeconds + " seconds.")
+                .status("OVERLOADED")
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
+    }
     
     /**
      * Helper method to determine if student is first year
@@ -234,7 +315,41 @@ public class RegistrationController {
     @GetMapping("/status/{studentId}")
     public ResponseEntity<Map<String, Object>> getRegistrationStatus(@PathVariable String studentId) {
         log.info("Fetching status for student ID: {}", studentId);
+        return ResponseEntity.ok(buildRegistrationStatus(studentId));
+    }
+    
+    /**
+     * Subscribe to registration status changes (Server-Sent Events)
+     * Endpoint: GET /api/v1/registrations/status/{studentId}/stream
+     * 
+     * Sends the current status right away, then a "status" event whenever the
+     * registration or its retry status changes. Replaces polling /status/{studentId}.
+     * Responds 503 if this node already holds the maximum number of subscribers.
+     */
+    @GetMapping(value = "/status/{studentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRegistrationStatus(@PathVariable String studentId) {
+        SseEmitter emitter;
+        try {
+            emitter = statusBroadcaster.subscribe(studentId);
+        } catch (IllegalStateException e) {
+            log.warn("⚠️ Status stream subscription rejected for {}: {}", studentId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
         
+        try {
+            statusBroadcaster.send(studentId, emitter, "snapshot", buildRegistrationStatus(studentId));
+        } catch (RuntimeException e) {
+            // Not returned yet, so nothing else would free its subscriber slot
+            statusBroadcaster.cancel(studentId, emitter);
+            throw e;
+        }
+        return ResponseEntity.ok(emitter);
+    }
+    
+    /**
+     * Combined status from registration and latest failed message (if any)
+     */
+    private Map<String, Object> buildRegistrationStatus(String studentId) {
         Map<String, Object> status = new HashMap<>();
         
         // Check main registration
@@ -252,9 +367,7 @@ public class RegistrationController {
         
         // Check for failed messages / retry status
         try {
-            var failedMessage = retryService.getMessagesByStatus(null).stream()
-                    .filter(msg -> msg.getStudentId().equals(studentId))
-                    .findFirst();
+            var failedMessage = retryService.getLatestMessageForStudent(studentId);
             
             if (failedMessage.isPresent()) {
                 var msg = failedMessage.get();
@@ -279,7 +392,7 @@ public class RegistrationController {
             status.put("hasError", false);
         }
         
-        return ResponseEntity.ok(status);
+        return status;
     }
     
     /**
@@ -321,18 +434,26 @@ public class RegistrationController {
     /**
      * Get aggregated student profile
      * Returns complete profile with responses from all systems
+     * 
+     * Asynchronous: the request thread is released while the downstream calls are
+     * in flight, and the response is written when the aggregation completes.
+     * Responds 504 if the profile is not ready within the request timeout.
      */
     @GetMapping("/profile/{studentId}")
-    public ResponseEntity<AggregatedStudentProfile> getStudentProfile(@PathVariable String studentId) {
+    public DeferredResult<ResponseEntity<AggregatedStudentProfile>> getStudentProfile(@PathVariable String studentId) {
         log.info("Fetching aggregated profile for student ID: {}", studentId);
 
+        DeferredResult<ResponseEntity<AggregatedStudentProfile>> result = new DeferredResult<>(
+                profileRequestTimeoutMs, ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build());
+
         try {
             // First, get the registration from database
             StudentRegistration registration = registrationService.getRegistrationByStudentId(studentId);
 
             if (registration == null) {
                 log.warn("Registration not found for student ID: {}", studentId);
-                return ResponseEntity.notFound().build();
+                result.setResult(ResponseEntity.notFound().build());
+                return result;
             }
 
             // Convert to DTO
@@ -345,13 +466,108 @@ public class RegistrationController {
                     .build();
 
             // Get fresh aggregated profile
-            AggregatedStudentProfile profile = aggregatorService.aggregateStudentProfile(dto);
-
-            return ResponseEntity.ok(profile);
+            aggregatorService.aggregateStudentProfileAsync(dto).whenComplete((profile, e) -> {
+                if (e != null) {
+                    log.error("Error fetching student profile: {}", e.getMessage(), e);
+                    result.setResult(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                } else {
+                    result.setResult(ResponseEntity.ok(profile));
+                }
+            });
 
         } catch (Exception e) {
             log.error("Error fetching student profile: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            result.setResult(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        }
+
+        return result;
+    }
+
+    /**
+     * Stream aggregated student profile
+     * Endpoint: GET /api/v1/registrations/profile/{studentId}/stream (Server-Sent Events)
+     * 
+     * Sends each system's response the moment it arrives:
+     * - "academic", "housing", "billing", "library" with that system's response
+     * - "skipped" with {system, status, reason} when a system failed, its circuit is open
+     *   or it had not answered when the aggregation timeout fired (reason failure, circuit_open or timeout)
+     * - "complete" with the full aggregated profile, then the stream closes
+     * - "failed" with {message} if the registration does not exist or aggregation failed
+     */
+    @GetMapping(value = "/profile/{studentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStudentProfile(@PathVariable String studentId) {
+        log.info("📡 Streaming aggregated profile for student ID: {}", studentId);
+
+        SseEmitter emitter = new SseEmitter(profileRequestTimeoutMs);
+
+        try {
+            StudentRegistration registration = registrationService.getRegistrationByStudentId(studentId);
+
+            if (registration == null) {
+                log.warn("Registration not found for student ID: {}", studentId);
+                sendEvent(emitter, "failed", Map.of("message", "Registration not found for student ID: " + studentId));
+                emitter.complete();
+                return emitter;
+            }
+
+            StudentRegistrationDTO dto = StudentRegistrationDTO.builder()
+                    .studentId(registration.getStudentId())
+                    .studentName(registration.getStudentName())
+                    .email(registration.getEmail())
+                    .program(registration.getProgram())
+                    .yearLevel(registration.getYearLevel())
+                    .build();
+
+            aggregatorService.aggregateStudentProfileAsync(dto, new StudentProfileAggregatorService.ProfilePartListener() {
+                @Override
+                public void onPart(DownstreamSystem system, Object response) {
+                    sendEvent(emitter, profileEventName(system), response);
+                }
+
+                @Override
+                public void onSkipped(DownstreamSystem system, String reason) {
+                    sendEvent(emitter, "skipped", Map.of(
+                            "system", system.getDisplayName(), "status", "SKIPPED", "reason", reason));
+                }
+            }).whenComplete((profile, e) -> {
+                if (e != null) {
+                    log.error("Error streaming student profile: {}", e.getMessage(), e);
+                    sendEvent(emitter, "failed", Map.of("message", "Failed to aggregate student profile"));
+                } else {
+                    sendEvent(emitter, "complete", profile);
+                }
+                emitter.complete();
+            });
+
+        } catch (Exception e) {
+            log.error("Error streaming student profile: {}", e.getMessage(), e);
+            emitter.completeWithError(e);
+        }
+
+        return emitter;
+    }
+
+    private String profileEventName(DownstreamSystem system) {
+        switch (system) {
+            case ACADEMIC_RECORDS:
+                return "academic";
+            case HOUSING:
+                return "housing";
+            case BILLING:
+                return "billing";
+            default:
+                return "library";
+        }
+    }
+
+    /**
+     * Send one SSE event; a client that already disconnected is not an error
+     */
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Profile stream client gone, dropping '{}' event: {}", name, e.getMessage());
         }
     }
 
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Aggregated Student Profile
@@ -43,6 +44,9 @@ public class AggregatedStudentProfile {
     private Long aggregationTimeMs;
     private String aggregationStatus; // COMPLETE, PARTIAL, TIMEOUT
     
+    // Systems without a response (failed, timed out or circuit open), filled later by the backfill task
+    private List<String> skippedSystems;
+    
     /**
      * Check if all expected responses are received
      */
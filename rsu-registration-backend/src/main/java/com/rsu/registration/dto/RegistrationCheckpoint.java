@@ -0,0 +1,73 @@
+package com.rsu.registration.dto;
+
+import com.rsu.registration.model.RegistrationStage;
+import com.rsu.registration.service.ContentBasedRouterService;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Results of the pipeline stages completed so far for one registration.
+ * Stored as JSON with a failed message so a retry resumes at the failed stage
+ * without repeating the downstream calls already paid for.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RegistrationCheckpoint {
+    
+    /**
+     * Last stage that completed successfully (null if none)
+     */
+    private RegistrationStage completedStage;
+    
+    /**
+     * AMQP message ID of the original delivery (null for retries of submissions)
+     */
+    private String messageId;
+    
+    // ROUTING result
+    private ContentBasedRouterService.RoutingResult routingResult;
+    
+    // AGGREGATION result
+    private AggregatedStudentProfile aggregatedProfile;
+    
+    // PERSISTENCE result
+    private Long registrationId;
+    
+    /**
+     * When the last stage completed
+     */
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Check whether a stage completed and its result is available
+     */
+    public boolean hasResult(RegistrationStage stage) {
+        if (completedStage == null || completedStage.compareTo(stage) < 0) {
+            return false;
+        }
+        switch (stage) {
+            case ROUTING:
+                return routingResult != null;
+            case AGGREGATION:
+                return aggregatedProfile != null;
+            case PERSISTENCE:
+                return registrationId != null;
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Record a completed stage
+     */
+    public void complete(RegistrationStage stage) {
+        this.completedStage = stage;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
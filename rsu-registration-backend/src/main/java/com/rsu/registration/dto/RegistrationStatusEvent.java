@@ -0,0 +1,64 @@
+package com.rsu.registration.dto;
+
+import com.rsu.registration.model.ErrorCategory;
+import com.rsu.registration.model.FailedMessage;
+import com.rsu.registration.model.RetryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change of a student's registration or retry status.
+ * Published on the application event bus and pushed to status stream subscribers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RegistrationStatusEvent {
+
+    private String studentId;
+
+    // Registration status (PROFILE_COMPLETE, PROFILE_PARTIAL), null for retry updates
+    private String registrationStatus;
+
+    // Retry status of the failed message, null for registration updates
+    private RetryStatus retryStatus;
+    private Integer retryAttempts;
+    private Integer maxRetryAttempts;
+    private LocalDateTime nextRetryAt;
+    private ErrorCategory errorCategory;
+    private Boolean inDeadLetterQueue;
+
+    private LocalDateTime timestamp;
+
+    /**
+     * Registration saved with a new status
+     */
+    public static RegistrationStatusEvent registration(String studentId, String registrationStatus) {
+        return RegistrationStatusEvent.builder()
+                .studentId(studentId)
+                .registrationStatus(registrationStatus)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Failed message saved with a new retry status
+     */
+    public static RegistrationStatusEvent retry(FailedMessage failedMessage) {
+        return RegistrationStatusEvent.builder()
+                .studentId(failedMessage.getStudentId())
+                .retryStatus(failedMessage.getStatus())
+                .retryAttempts(failedMessage.getRetryAttempts())
+                .maxRetryAttempts(failedMessage.getMaxRetryAttempts())
+                .nextRetryAt(failedMessage.getNextRetryAt())
+                .errorCategory(failedMessage.getErrorCategory())
+                .inDeadLetterQueue(failedMessage.isInDeadLetterQueue())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
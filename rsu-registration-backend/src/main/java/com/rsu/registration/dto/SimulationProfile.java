@@ -0,0 +1,48 @@
+package com.rsu.registration.dto;
+
+import com.rsu.registration.model.LatencyModel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latency model and injected faults of one simulated downstream system.
+ * In admin updates, fields left null keep their current value.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationProfile {
+    
+    private LatencyModel latencyModel;
+    
+    // FIXED
+    private Long fixedMs;
+    
+    // UNIFORM
+    private Long minMs;
+    private Long maxMs;
+    
+    // LOG_NORMAL
+    private Long medianMs;
+    private Double sigma;
+    
+    // HISTOGRAM: classpath:... or file:... location of an .hgrm file
+    private String histogram;
+    
+    // Share of calls (0-1) that fail after their latency
+    private Double errorRate;
+    
+    // Share of calls (0-1) that hang for timeoutMs and then fail
+    private Double timeoutRate;
+    private Long timeoutMs;
+    
+    // Brown-out: slower and more failures, every brownoutEverySeconds for brownoutDurationSeconds
+    // (0 = only when started from the admin API)
+    private Double brownoutLatencyMultiplier;
+    private Double brownoutErrorRate;
+    private Long brownoutEverySeconds;
+    private Long brownoutDurationSeconds;
+}
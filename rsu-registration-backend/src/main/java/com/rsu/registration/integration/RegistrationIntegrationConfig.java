@@ -1,12 +1,16 @@
 package com.rsu.registration.integration;
 
+import com.rsu.registration.dto.RegistrationCheckpoint;
 import com.rsu.registration.dto.StudentRegistrationDTO;
-import com.rsu.registration.dto.AggregatedStudentProfile;
 import com.rsu.registration.model.ErrorCategory;
-import com.rsu.registration.service.StudentRegistrationService;
-import com.rsu.registration.service.ContentBasedRouterService;
-import com.rsu.registration.service.StudentProfileAggregatorService;
+import com.rsu.registration.service.IdempotencyService;
+import com.rsu.registration.service.PipelineMetricsService;
+import com.rsu.registration.service.QueueMonitorService;
+import com.rsu.registration.service.RegistrationProcessingException;
+import com.rsu.registration.service.RegistrationProcessingService;
+import com.rsu.registration.service.RetryBudgetService;
 import com.rsu.registration.service.RetryService;
+import com.rsu.registration.service.TracingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Binding;
@@ -16,18 +20,23 @@ import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.integration.amqp.inbound.AmqpInboundChannelAdapter;
 import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 
+import java.util.Date;
+
 /**
  * Spring Integration Configuration for Student Registration
  * Sets up message channels and integration flows using RabbitMQ
- * Implements Content-Based Routing and Aggregator EIP Patterns
+ * Implements Content-Based Routing, Aggregator and Idempotent Receiver EIP Patterns
  */
 @Configuration
 @RequiredArgsConstructor
@@ -40,10 +49,16 @@ public class RegistrationIntegrationConfig {
     public static final String REGISTRATION_INPUT_CHANNEL = "registrationInputChannel";
     public static final String REGISTRATION_SERVICE_CHANNEL = "registrationServiceChannel";
 
-    private final StudentRegistrationService registrationService;
-    private final ContentBasedRouterService contentBasedRouterService;
-    private final StudentProfileAggregatorService aggregatorService;
+    private final RegistrationProcessingService processingService;
     private final RetryService retryService;
+    private final IdempotencyService idempotencyService;
+    private final RetryBudgetService retryBudgetService;
+    private final PipelineMetricsService pipelineMetrics;
+    private final TracingService tracingService;
+    private final QueueMonitorService queueMonitor;
+
+    @Value("${app.registration.listener.prefetch:10}")
+    private int prefetchCount;
 
     /**
      * Declare the queue for student registrations
@@ -106,6 +121,9 @@ public class RegistrationIntegrationConfig {
         // Failed messages are captured in the error channel instead
         container.setDefaultRequeueRejected(false);
         
+        // A small prefetch keeps the backlog in the queue, where the queue monitor can see it
+        container.setPrefetchCount(prefetchCount);
+        
         AmqpInboundChannelAdapter adapter = new AmqpInboundChannelAdapter(container);
         adapter.setOutputChannel(registrationInputChannel());
         return adapter;
@@ -116,122 +134,83 @@ public class RegistrationIntegrationConfig {
      * Implements Content-Based Router and Aggregator EIP Patterns
      * 
      * Flow:
+     * 0. Skip redelivered messages (Idempotent Receiver)
      * 1. Route to appropriate systems (Content-Based Router)
      * 2. Aggregate responses from all systems (Aggregator)
      * 3. Save complete profile to database
+     * 4. Record the message as processed (Idempotent Receiver)
+     * 
+     * Steps 1-4 run in {@link RegistrationProcessingService}; a failure is captured
+     * with the failed stage and its checkpoint so the retry resumes there.
+     * Processing runs in a span continuing the trace from the traceparent header.
+     * The delivery is tracked by the queue monitor until the listener returns (and acks).
      */
     @ServiceActivator(inputChannel = REGISTRATION_INPUT_CHANNEL, outputChannel = REGISTRATION_SERVICE_CHANNEL)
-    public void processRegistration(@Payload StudentRegistrationDTO registrationDTO) {
+    public void processRegistration(@Payload StudentRegistrationDTO registrationDTO,
+                                    @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId,
+                                    @Header(name = TracingService.TRACEPARENT_HEADER, required = false) String traceparent,
+                                    @Header(name = AmqpHeaders.TIMESTAMP, required = false) Date publishedAt) {
+        long startNanos = System.nanoTime();
+        long deliveryToken = queueMonitor.beginDelivery(publishedAt);
+        String outcome = "failed";
+        TracingService.Span span = tracingService.startSpan("process registration", TracingService.Span.CONSUMER,
+                traceparent)
+                .tag("studentId", registrationDTO.getStudentId())
+                .tag("messageId", messageId);
+        TracingService.Scope scope = tracingService.activate(span);
         try {
             log.info("📨 Processing registration for student: {}", registrationDTO.getStudentId());
 
-            // Step 1: Route to appropriate systems based on content (year level)
-            // EIP Pattern: Content-Based Router
-            log.info("🔀 Applying Content-Based Routing for year level: {}", registrationDTO.getYearLevel());
-            ContentBasedRouterService.RoutingResult routingResult = 
-                    contentBasedRouterService.routeRegistration(registrationDTO);
-
-            // Step 2: Aggregate responses from all systems
-            // EIP Pattern: Aggregator - Combine multiple system responses
-            log.info("🔄 Starting aggregation of system responses...");
-            AggregatedStudentProfile aggregatedProfile = 
-                    aggregatorService.aggregateStudentProfile(registrationDTO);
-
-            // Step 3: Save to database with routing and aggregation information
-            log.info("💾 Saving registration to database with complete profile");
-            var savedRegistration = registrationService.saveRegistration(registrationDTO);
-
-            // Step 4: Update status with complete profile information
-            String profileMessage = buildProfileMessage(routingResult, aggregatedProfile);
-            String status = aggregatedProfile.getAggregationStatus().equals("COMPLETE") ? 
-                           "PROFILE_COMPLETE" : "PROFILE_PARTIAL";
-            
-            registrationService.updateRegistrationStatus(
-                    savedRegistration.getId(), 
-                    status, 
-                    profileMessage
-            );
-
-            log.info("✅ Successfully processed registration with ID: {}", savedRegistration.getId());
-            log.info("📊 Aggregation Summary: {} - Status: {}, Time: {}ms, Responses: {}/{}",
-                    aggregatedProfile.getStudentName(),
-                    aggregatedProfile.getAggregationStatus(),
-                    aggregatedProfile.getAggregationTimeMs(),
-                    aggregatedProfile.getResponsesReceived(),
-                    aggregatedProfile.getResponsesExpected());
+            // Step 0: Idempotent Receiver - ignore broker redeliveries before doing any work
+            if (idempotencyService.isDuplicate(messageId, registrationDTO.getStudentId())) {
+                log.warn("♻️ Duplicate delivery of message {} for student {} - skipping",
+                        messageId, registrationDTO.getStudentId());
+                outcome = "duplicate";
+                return;
+            }
+
+            // Live traffic funds the retry budget
+            retryBudgetService.recordRequest();
+
+            // Steps 1-4: Routing, aggregation, persistence and processed-message record
+            Long registrationId = processingService.process(registrationDTO, messageId);
+
+            log.info("✅ Successfully processed registration with ID: {}", registrationId);
+            outcome = "processed";
 
+        } catch (RegistrationProcessingException e) {
+            log.error("❌ Error processing registration at stage {}: {}", e.getStage(), e.getMessage(), e);
+            span.tag("failedStage", e.getStage()).error(e);
+            captureFailure(registrationDTO, e.getStage().name(), e.getStage().getErrorCategory(), e,
+                    e.getCheckpoint());
         } catch (Exception e) {
             log.error("❌ Error processing registration: {}", e.getMessage(), e);
-            
-            // Capture the failed message to error channel
-            log.warn("⚠️ Failed message captured to error channel - Will retry automatically");
-            try {
-                retryService.captureFailedMessage(
-                        registrationDTO, 
-                        "REGISTRATION_PROCESSING",
-                        ErrorCategory.DATABASE_ERROR,
-                        e
-                );
-                log.info("✅ Failed message successfully saved to error channel");
-            } catch (Exception captureError) {
-                log.error("❌ Failed to capture error message: {}", captureError.getMessage());
-            }
-            
-            // DO NOT re-throw the exception to prevent RabbitMQ from requeuing
-            // The message is already captured in the failed_messages table
-            // and will be retried by the retry scheduler
-            log.warn("⚠️ Message processing failed but will not be requeued. Check failed_messages table.");
+            span.error(e);
+            captureFailure(registrationDTO, "REGISTRATION_PROCESSING", ErrorCategory.DATABASE_ERROR, e, null);
+        } finally {
+            queueMonitor.endDelivery(deliveryToken);
+            pipelineMetrics.recordListener(System.nanoTime() - startNanos, outcome);
+            span.tag("outcome", outcome).end();
+            scope.close();
         }
     }
 
     /**
-     * Build a comprehensive profile message from routing and aggregation results
+     * Capture the failed message to the error channel
      */
-    private String buildProfileMessage(ContentBasedRouterService.RoutingResult routingResult,
-                                       AggregatedStudentProfile profile) {
-        StringBuilder message = new StringBuilder();
-        
-        // Routing info
-        message.append("Routed to: ").append(String.join(", ", routingResult.getRoutedTo()));
-        message.append(" | ");
-        
-        // Aggregation info
-        message.append("Profile Status: ").append(profile.getAggregationStatus());
-        message.append(" (").append(profile.getResponsesReceived()).append("/3 systems responded)");
-        message.append(" | ");
-        
-        // Academic info
-        if (profile.getAcademicRecords() != null) {
-            message.append("Academic: Enrolled in ")
-                   .append(profile.getAcademicRecords().getProgram())
-                   .append(", Advisor: ")
-                   .append(profile.getAcademicRecords().getAdvisorName());
-            message.append(" | ");
-        }
-        
-        // Housing or Billing info
-        if (profile.getHousing() != null) {
-            message.append("Housing: ")
-                   .append(profile.getHousing().getDormitoryBuilding())
-                   .append(", Room: ")
-                   .append(profile.getHousing().getRoomAssignment());
-            message.append(" | ");
-        } else if (profile.getBilling() != null) {
-            message.append("Billing: Total ₱")
-                   .append(profile.getBilling().getTotalFeeAmount())
-                   .append(", Due: ")
-                   .append(profile.getBilling().getPaymentDeadline());
-            message.append(" | ");
-        }
-        
-        // Library info
-        if (profile.getLibrary() != null) {
-            message.append("Library: Card #")
-                   .append(profile.getLibrary().getLibraryCardNumber())
-                   .append(", Max Books: ")
-                   .append(profile.getLibrary().getMaxBooksAllowed());
+    private void captureFailure(StudentRegistrationDTO registrationDTO, String failureStage,
+                                ErrorCategory errorCategory, Exception e, RegistrationCheckpoint checkpoint) {
+        log.warn("⚠️ Failed message captured to error channel - Will retry automatically");
+        try {
+            retryService.captureFailedMessage(registrationDTO, failureStage, errorCategory, e, checkpoint);
+            log.info("✅ Failed message successfully saved to error channel");
+        } catch (Exception captureError) {
+            log.error("❌ Failed to capture error message: {}", captureError.getMessage());
         }
-        
-        return message.toString();
+
+        // DO NOT re-throw the exception to prevent RabbitMQ from requeuing
+        // The message is already captured in the failed_messages table
+        // and will be retried by the retry scheduler
+        log.warn("⚠️ Message processing failed but will not be requeued. Check failed_messages table.");
     }
 }
@@ -0,0 +1,54 @@
+package com.rsu.registration.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one downstream system call made by the aggregator, from the
+ * call until its (possibly hedged) response, including circuit breaker rejections.
+ * Begins on the listener thread and is committed on the thread completing the call.
+ */
+@Name("com.rsu.registration.DownstreamCall")
+@Label("Downstream System Call")
+@Description("Call to a downstream system during profile aggregation")
+@Category({"RSU Registration", "Aggregation"})
+@StackTrace(false)
+public class DownstreamCallEvent extends Event {
+
+    @Label("Student ID")
+    String studentId;
+
+    @Label("System")
+    String system;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Start timing a call
+     */
+    public static DownstreamCallEvent start() {
+        DownstreamCallEvent event = new DownstreamCallEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the call; the fields are only filled in when a recording takes the event
+     *
+     * @param outcome success, failure or circuit_open
+     */
+    public void finish(String studentId, String system, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.studentId = studentId;
+            this.system = system;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.rsu.registration.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one stage of the registration pipeline (ROUTING, AGGREGATION,
+ * PERSISTENCE, COMPLETION). Stages skipped because the checkpoint already holds
+ * their result are recorded with outcome "skipped".
+ */
+@Name("com.rsu.registration.PipelineStage")
+@Label("Registration Pipeline Stage")
+@Description("One stage of the registration processing pipeline")
+@Category({"RSU Registration", "Pipeline"})
+@StackTrace(false)
+public class RegistrationStageEvent extends Event {
+
+    @Label("Student ID")
+    String studentId;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Message ID")
+    String messageId;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Start timing a stage
+     */
+    public static RegistrationStageEvent start() {
+        RegistrationStageEvent event = new RegistrationStageEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the stage; the fields are only filled in when a recording takes the event
+     *
+     * @param outcome completed, skipped or failed
+     */
+    public void finish(String studentId, String stage, String messageId, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.studentId = studentId;
+            this.stage = stage;
+            this.messageId = messageId;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
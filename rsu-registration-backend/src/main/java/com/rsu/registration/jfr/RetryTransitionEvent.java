@@ -0,0 +1,60 @@
+package com.rsu.registration.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for a failed message changing retry status (captured, claimed,
+ * rescheduled, resolved or moved to the DLQ). Transitions that end a retry
+ * attempt carry the attempt duration.
+ */
+@Name("com.rsu.registration.RetryTransition")
+@Label("Retry Status Transition")
+@Description("Retry status change of a failed registration message")
+@Category({"RSU Registration", "Retry"})
+@StackTrace(false)
+public class RetryTransitionEvent extends Event {
+
+    @Label("Student ID")
+    String studentId;
+
+    @Label("Failed Message ID")
+    long failedMessageId;
+
+    @Label("Failure Stage")
+    String stage;
+
+    @Label("Status")
+    String status;
+
+    @Label("Retry Attempts")
+    int attempts;
+
+    @Label("Attempt Duration")
+    @Timespan(Timespan.MILLISECONDS)
+    long attemptDuration;
+
+    /**
+     * Commit an instant event if a recording takes it
+     *
+     * @param attemptMillis duration of the retry attempt that caused the transition, or null
+     */
+    public static void emit(String studentId, Long failedMessageId, String stage, String status,
+                            int attempts, Long attemptMillis) {
+        RetryTransitionEvent event = new RetryTransitionEvent();
+        if (event.shouldCommit()) {
+            event.studentId = studentId;
+            event.failedMessageId = failedMessageId != null ? failedMessageId : 0;
+            event.stage = stage;
+            event.status = status;
+            event.attempts = attempts;
+            event.attemptDuration = attemptMillis != null ? attemptMillis : 0;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.rsu.registration.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one step of the message translation chain (json_to_xml,
+ * xml_to_json, xml_to_csv).
+ */
+@Name("com.rsu.registration.TranslationStep")
+@Label("Translation Step")
+@Description("One step of the JSON/XML/CSV message translation chain")
+@Category({"RSU Registration", "Translation"})
+@StackTrace(false)
+public class TranslationStepEvent extends Event {
+
+    @Label("Student ID")
+    String studentId;
+
+    @Label("Step")
+    String step;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * Start timing a step
+     */
+    public static TranslationStepEvent start() {
+        TranslationStepEvent event = new TranslationStepEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the step; the fields are only filled in when a recording takes the event
+     */
+    public void finish(String studentId, String step, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.studentId = studentId;
+            this.step = step;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
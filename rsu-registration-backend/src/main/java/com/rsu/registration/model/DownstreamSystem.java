@@ -0,0 +1,21 @@
+package com.rsu.registration.model;
+
+/**
+ * Downstream systems called by the Aggregator, each behind its own circuit breaker.
+ */
+public enum DownstreamSystem {
+    ACADEMIC_RECORDS("Academic Records System"),
+    HOUSING("Housing System"),
+    BILLING("Billing System"),
+    LIBRARY("Library System");
+    
+    private final String displayName;
+    
+    DownstreamSystem(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -108,6 +108,12 @@ public class FailedMessage {
      */
     private LocalDateTime lastRetryAt;
     
+    /**
+     * When a retry worker claimed the message (status RETRYING); stale claims
+     * are released back to PENDING_RETRY by the retry scheduler
+     */
+    private LocalDateTime claimedAt;
+    
     /**
      * When message was moved to dead-letter queue
      */
@@ -129,9 +135,17 @@ public class FailedMessage {
     private String adminNotes;
     
     /**
-     * History of all retry attempts with timestamps
+     * JSON checkpoint of the pipeline stages completed before the failure
+     * (see RegistrationCheckpoint), used to resume retries at the failed stage
      */
-    @Column(length = 2000)
+    @Column(length = 8000)
+    private String checkpoint;
+    
+    /**
+     * Display-only history of all retry attempts with timestamps.
+     * Rendered from the retry_attempts table, never persisted on this row.
+     */
+    @Transient
     private String retryHistory;
     
     /**
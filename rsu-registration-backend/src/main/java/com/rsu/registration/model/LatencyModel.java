@@ -0,0 +1,26 @@
+package com.rsu.registration.model;
+
+/**
+ * How the downstream simulator draws the latency of each call.
+ */
+public enum LatencyModel {
+    /**
+     * Always fixedMs
+     */
+    FIXED,
+    
+    /**
+     * Evenly spread between minMs and maxMs
+     */
+    UNIFORM,
+    
+    /**
+     * Log-normal around medianMs with shape sigma (long right tail, like real services)
+     */
+    LOG_NORMAL,
+    
+    /**
+     * Replayed from a recorded HdrHistogram percentile distribution (.hgrm, values in ms)
+     */
+    HISTOGRAM
+}
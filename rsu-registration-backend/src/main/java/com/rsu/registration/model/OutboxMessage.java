@@ -0,0 +1,104 @@
+package com.rsu.registration.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Registration intent written by the submit endpoint in its local transaction.
+ * The outbox relay publishes pending rows to RabbitMQ and marks them sent once
+ * the broker confirms them.
+ * 
+ * EIP Pattern: Transactional Outbox (Guaranteed Delivery)
+ */
+@Entity
+@Table(name = "registration_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * AMQP message ID used for publisher confirms and consumer deduplication
+     */
+    @Column(nullable = false, unique = true)
+    private String messageId;
+    
+    /**
+     * Student ID of the registration
+     */
+    @Column(nullable = false)
+    private String studentId;
+    
+    /**
+     * Target exchange
+     */
+    @Column(nullable = false)
+    private String exchange;
+    
+    /**
+     * Routing key
+     */
+    @Column(nullable = false)
+    private String routingKey;
+    
+    /**
+     * Registration data as JSON
+     */
+    @Column(length = 2000, nullable = false)
+    private String payload;
+    
+    /**
+     * Delivery status
+     */
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false)
+    private OutboxStatus status;
+    
+    /**
+     * Number of publish attempts
+     */
+    private int attempts;
+    
+    /**
+     * Last publish error (if any)
+     */
+    @Column(length = 1000)
+    private String lastError;
+    
+    /**
+     * W3C trace context of the submit request, sent as the AMQP traceparent header
+     */
+    @Column(length = 55)
+    private String traceparent;
+    
+    /**
+     * When the row was written by the submit transaction
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    /**
+     * When the broker confirmed the message
+     */
+    private LocalDateTime sentAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (status == null) {
+            status = OutboxStatus.PENDING;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.rsu.registration.model;
+
+/**
+ * Delivery status of a registration outbox row.
+ */
+public enum OutboxStatus {
+    /**
+     * Written by the submit transaction, not yet confirmed by the broker
+     */
+    PENDING,
+    
+    /**
+     * Published and confirmed by the broker
+     */
+    SENT
+}
@@ -0,0 +1,47 @@
+package com.rsu.registration.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Deduplication record for a registration message that was fully processed.
+ * Used by the idempotent consumer to skip broker redeliveries.
+ * Rows expire after a TTL and are removed by a scheduled cleanup.
+ */
+@Entity
+@Table(name = "processed_messages")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedMessage {
+    
+    /**
+     * AMQP message ID (falls back to the student ID when the message has none)
+     */
+    @Id
+    private String messageId;
+    
+    /**
+     * Student ID carried by the message
+     */
+    @Column(nullable = false)
+    private String studentId;
+    
+    /**
+     * When processing completed
+     */
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+    
+    /**
+     * When this record may be removed
+     */
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
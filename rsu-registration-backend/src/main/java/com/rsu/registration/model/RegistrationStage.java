@@ -0,0 +1,41 @@
+package com.rsu.registration.model;
+
+/**
+ * Stages of the registration processing pipeline, in execution order.
+ * Recorded as the failure stage of a failed message; retries resume at the
+ * first stage without a result in the stored checkpoint.
+ */
+public enum RegistrationStage {
+    /**
+     * Content-Based Router (housing/billing and library allocation)
+     */
+    ROUTING(ErrorCategory.ROUTING_ERROR),
+    
+    /**
+     * Aggregator (academic, housing/billing and library system calls)
+     */
+    AGGREGATION(ErrorCategory.AGGREGATION_ERROR),
+    
+    /**
+     * Registration upsert with the final profile status
+     */
+    PERSISTENCE(ErrorCategory.DATABASE_ERROR),
+    
+    /**
+     * Idempotent Receiver record of the processed message
+     */
+    COMPLETION(ErrorCategory.DATABASE_ERROR);
+    
+    private final ErrorCategory errorCategory;
+    
+    RegistrationStage(ErrorCategory errorCategory) {
+        this.errorCategory = errorCategory;
+    }
+    
+    /**
+     * Error category recorded when this stage fails
+     */
+    public ErrorCategory getErrorCategory() {
+        return errorCategory;
+    }
+}
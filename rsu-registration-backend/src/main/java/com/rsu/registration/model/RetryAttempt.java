@@ -0,0 +1,76 @@
+package com.rsu.registration.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of one retry transition of a failed message.
+ * Replaces the concatenated retry history string on FailedMessage so that
+ * attempt history is queryable (outcome, duration, node) and failed message
+ * updates stay small.
+ * 
+ * Uses a pooled sequence instead of IDENTITY so Hibernate can batch inserts.
+ */
+@Entity
+@Table(name = "retry_attempts")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetryAttempt {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "retry_attempts_seq")
+    @SequenceGenerator(name = "retry_attempts_seq", sequenceName = "retry_attempts_seq", allocationSize = 50)
+    private Long id;
+    
+    /**
+     * ID of the failed message this attempt belongs to
+     */
+    @Column(nullable = false)
+    private Long failedMessageId;
+    
+    /**
+     * Student ID for filtering without a join
+     */
+    private String studentId;
+    
+    /**
+     * Attempt number (0 = initial failure)
+     */
+    private int attemptNumber;
+    
+    /**
+     * Result of this attempt
+     */
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false)
+    private RetryOutcome outcome;
+    
+    /**
+     * Details of the attempt (error message, admin notes, schedule)
+     */
+    @Column(length = 1000)
+    private String details;
+    
+    /**
+     * Time spent reprocessing in milliseconds (null when nothing was reprocessed)
+     */
+    private Long durationMs;
+    
+    /**
+     * Host that executed the attempt
+     */
+    private String node;
+    
+    /**
+     * When the attempt was made
+     */
+    @Column(nullable = false)
+    private LocalDateTime attemptedAt;
+}
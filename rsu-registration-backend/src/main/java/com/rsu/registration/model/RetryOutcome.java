@@ -0,0 +1,42 @@
+package com.rsu.registration.model;
+
+/**
+ * Outcome of a single entry in the retry history of a failed message.
+ * Stored with each {@link RetryAttempt} row.
+ */
+public enum RetryOutcome {
+    /**
+     * Message was captured to the error channel
+     */
+    INITIAL_FAILURE,
+    
+    /**
+     * Automatic retry processed the message successfully
+     */
+    SUCCESS,
+    
+    /**
+     * Automatic retry failed
+     */
+    FAILED,
+    
+    /**
+     * Message was moved to the dead-letter queue
+     */
+    MOVED_TO_DLQ,
+    
+    /**
+     * Manual retry by an admin succeeded
+     */
+    MANUAL_SUCCESS,
+    
+    /**
+     * Manual retry by an admin failed
+     */
+    MANUAL_FAILED,
+    
+    /**
+     * Entry migrated from the retry history text of failed_messages
+     */
+    LEGACY
+}
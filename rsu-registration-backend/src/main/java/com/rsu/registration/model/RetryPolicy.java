@@ -0,0 +1,72 @@
+package com.rsu.registration.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Retry policy for one error category.
+ * 
+ * Delay before retry n = min(maxDelayMs, baseDelayMs * 2^(n-1)).
+ * With full jitter the actual delay is uniform in [0, delay], so messages
+ * that failed together do not retry together.
+ */
+@Entity
+@Table(name = "retry_policies")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetryPolicy {
+    
+    /**
+     * Error category this policy applies to
+     */
+    @Id
+    @Enumerated(EnumType.ORDINAL)
+    private ErrorCategory errorCategory;
+    
+    /**
+     * Maximum automatic retry attempts before moving to DLQ
+     */
+    @Column(nullable = false)
+    private int maxAttempts;
+    
+    /**
+     * Delay before the first retry (milliseconds)
+     */
+    @Column(nullable = false)
+    private long baseDelayMs;
+    
+    /**
+     * Upper bound of the exponential delay (milliseconds)
+     */
+    @Column(nullable = false)
+    private long maxDelayMs;
+    
+    /**
+     * Randomize each delay uniformly between zero and the exponential delay
+     */
+    @Column(nullable = false)
+    private boolean fullJitter;
+    
+    /**
+     * Non-retryable categories go straight to the DLQ
+     */
+    @Column(nullable = false)
+    private boolean retryable;
+    
+    /**
+     * Last change (null for seeded policies)
+     */
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Admin who last changed the policy
+     */
+    private String updatedBy;
+}
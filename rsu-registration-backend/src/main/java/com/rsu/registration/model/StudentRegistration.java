@@ -48,6 +48,23 @@ public class StudentRegistration {
     @Column(length = 500)
     private String message;
 
+    /**
+     * Last status change (also set by the registration upsert)
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * JSON of the aggregated profile while the status is PROFILE_PARTIAL, so the
+     * backfill task only calls the systems that did not answer
+     */
+    @Column(length = 8000)
+    private String partialProfile;
+
+    /**
+     * Last backfill attempt; the backfill task takes the least recently tried first
+     */
+    private LocalDateTime backfillAttemptedAt;
+
     @PrePersist
     protected void onCreate() {
         if (registrationTimestamp == null) {
@@ -56,5 +73,11 @@ public class StudentRegistration {
         if (status == null) {
             status = "PENDING";
         }
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 }
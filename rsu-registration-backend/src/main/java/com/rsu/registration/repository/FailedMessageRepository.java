@@ -3,7 +3,9 @@ package com.rsu.registration.repository;
 import com.rsu.registration.model.ErrorCategory;
 import com.rsu.registration.model.FailedMessage;
 import com.rsu.registration.model.RetryStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -24,6 +26,11 @@ public interface FailedMessageRepository extends JpaRepository<FailedMessage, Lo
      */
     Optional<FailedMessage> findByStudentId(String studentId);
     
+    /**
+     * Find the most recent failed message of a student
+     */
+    Optional<FailedMessage> findFirstByStudentIdOrderByFailedAtDesc(String studentId);
+    
     /**
      * Find all messages by status
      */
@@ -40,13 +47,16 @@ public interface FailedMessageRepository extends JpaRepository<FailedMessage, Lo
     List<FailedMessage> findByErrorCategory(ErrorCategory errorCategory);
     
     /**
-     * Find messages that need retry (pending retry and scheduled time has passed)
+     * Find messages that need retry (pending retry and scheduled time has passed),
+     * oldest due first, one page at a time
      */
     @Query("SELECT fm FROM FailedMessage fm WHERE fm.status = :status " +
            "AND fm.nextRetryAt <= :currentTime " +
-           "AND fm.retryAttempts < fm.maxRetryAttempts")
+           "AND fm.retryAttempts < fm.maxRetryAttempts " +
+           "ORDER BY fm.nextRetryAt")
     List<FailedMessage> findMessagesReadyForRetry(@Param("status") RetryStatus status,
-                                                   @Param("currentTime") LocalDateTime currentTime);
+                                                   @Param("currentTime") LocalDateTime currentTime,
+                                                   Pageable pageable);
     
     /**
      * Find messages that should be moved to DLQ (exhausted retries)
@@ -56,6 +66,30 @@ public interface FailedMessageRepository extends JpaRepository<FailedMessage, Lo
            "AND fm.inDeadLetterQueue = false")
     List<FailedMessage> findMessagesForDeadLetterQueue(@Param("status") RetryStatus status);
     
+    /**
+     * Claim a message for a retry worker. Conditional on the status, so of two
+     * scheduler runs or nodes racing for the same message only one gets 1.
+     */
+    @Modifying
+    @Query("UPDATE FailedMessage fm SET fm.status = :claimed, fm.claimedAt = :claimedAt " +
+           "WHERE fm.id = :id AND fm.status = :pending")
+    int claim(@Param("id") Long id,
+              @Param("pending") RetryStatus pending,
+              @Param("claimed") RetryStatus claimed,
+              @Param("claimedAt") LocalDateTime claimedAt);
+    
+    /**
+     * Release claims of retry workers that never finished (crash, restart,
+     * rolled back transaction): claimed before the cutoff, or claimed by a
+     * version without claim timestamps
+     */
+    @Modifying
+    @Query("UPDATE FailedMessage fm SET fm.status = :pending, fm.claimedAt = NULL " +
+           "WHERE fm.status = :claimed AND (fm.claimedAt IS NULL OR fm.claimedAt < :cutoff)")
+    int releaseStaleClaims(@Param("claimed") RetryStatus claimed,
+                           @Param("pending") RetryStatus pending,
+                           @Param("cutoff") LocalDateTime cutoff);
+    
     /**
      * Find recent failed messages (last 24 hours)
      */
@@ -0,0 +1,59 @@
+package com.rsu.registration.repository;
+
+import com.rsu.registration.model.OutboxMessage;
+import com.rsu.registration.model.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the registration outbox.
+ */
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    
+    /**
+     * Lock the oldest pending rows for publishing.
+     * SKIP LOCKED lets several relay instances work on disjoint batches.
+     * (status 0 = OutboxStatus.PENDING)
+     */
+    @Query(value = "SELECT * FROM registration_outbox WHERE status = 0 " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxMessage> lockPendingBatch(@Param("limit") int limit);
+    
+    /**
+     * Mark confirmed rows as sent
+     */
+    @Modifying
+    @Query("UPDATE OutboxMessage om SET om.status = :status, om.sentAt = :sentAt, " +
+           "om.attempts = om.attempts + 1, om.lastError = NULL WHERE om.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("status") OutboxStatus status,
+                 @Param("sentAt") LocalDateTime sentAt);
+    
+    /**
+     * Record a failed publish attempt
+     */
+    @Modifying
+    @Query("UPDATE OutboxMessage om SET om.attempts = om.attempts + 1, om.lastError = :error " +
+           "WHERE om.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("error") String error);
+    
+    /**
+     * Count rows by status
+     */
+    long countByStatus(OutboxStatus status);
+    
+    /**
+     * Delete sent rows older than the retention period
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxMessage om WHERE om.status = :status AND om.sentAt < :before")
+    int deleteSentBefore(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,48 @@
+package com.rsu.registration.repository;
+
+import com.rsu.registration.model.ProcessedMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the idempotent consumer deduplication store.
+ */
+@Repository
+public interface ProcessedMessageRepository extends JpaRepository<ProcessedMessage, String> {
+    
+    /**
+     * Check whether a message ID or a student ID was already processed
+     */
+    boolean existsByMessageIdOrStudentId(String messageId, String studentId);
+    
+    /**
+     * Insert a deduplication record, ignoring concurrent duplicates (single statement)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processed_messages (message_id, student_id, processed_at, expires_at) " +
+                   "VALUES (:messageId, :studentId, :processedAt, :expiresAt) " +
+                   "ON CONFLICT (message_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("messageId") String messageId,
+                       @Param("studentId") String studentId,
+                       @Param("processedAt") LocalDateTime processedAt,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * All live keys, used to rebuild the in-memory Bloom filter
+     */
+    @Query("SELECT pm.messageId, pm.studentId FROM ProcessedMessage pm")
+    List<Object[]> findAllKeys();
+    
+    /**
+     * Delete records whose TTL has passed
+     */
+    @Modifying
+    @Query("DELETE FROM ProcessedMessage pm WHERE pm.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
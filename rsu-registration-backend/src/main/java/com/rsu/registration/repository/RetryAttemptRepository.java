@@ -0,0 +1,25 @@
+package com.rsu.registration.repository;
+
+import com.rsu.registration.model.RetryAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the append-only retry attempt history.
+ */
+@Repository
+public interface RetryAttemptRepository extends JpaRepository<RetryAttempt, Long> {
+    
+    /**
+     * Find the history of one failed message in chronological order
+     */
+    List<RetryAttempt> findByFailedMessageIdOrderByAttemptedAtAscIdAsc(Long failedMessageId);
+    
+    /**
+     * Find the histories of several failed messages in chronological order
+     */
+    List<RetryAttempt> findByFailedMessageIdInOrderByAttemptedAtAscIdAsc(Collection<Long> failedMessageIds);
+}
@@ -0,0 +1,13 @@
+package com.rsu.registration.repository;
+
+import com.rsu.registration.model.ErrorCategory;
+import com.rsu.registration.model.RetryPolicy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for per-category retry policies.
+ */
+@Repository
+public interface RetryPolicyRepository extends JpaRepository<RetryPolicy, ErrorCategory> {
+}
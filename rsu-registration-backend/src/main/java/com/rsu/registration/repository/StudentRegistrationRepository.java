@@ -1,19 +1,44 @@
 package com.rsu.registration.repository;
 
 import com.rsu.registration.model.StudentRegistration;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository for StudentRegistration entity
+ * Single-statement upserts are provided by {@link StudentRegistrationRepositoryCustom}
  */
 @Repository
-public interface StudentRegistrationRepository extends JpaRepository<StudentRegistration, Long> {
+public interface StudentRegistrationRepository extends JpaRepository<StudentRegistration, Long>,
+        StudentRegistrationRepositoryCustom {
 
     /**
      * Find a registration by student ID
      */
     Optional<StudentRegistration> findByStudentId(String studentId);
+
+    /**
+     * Check whether a student ID is registered (uses the student_id index)
+     */
+    boolean existsByStudentId(String studentId);
+
+    /**
+     * All registered student IDs, used to build the duplicate-check Bloom filter
+     */
+    @Query("SELECT sr.studentId FROM StudentRegistration sr")
+    List<String> findAllStudentIds();
+
+    /**
+     * Find registrations with the given status for the backfill task (uses the status
+     * index): never tried first in registration order, then the least recently tried
+     */
+    @Query("SELECT sr FROM StudentRegistration sr WHERE sr.status = :status " +
+           "ORDER BY COALESCE(sr.backfillAttemptedAt, sr.registrationTimestamp), sr.id")
+    List<StudentRegistration> findBackfillCandidates(@Param("status") String status, Pageable pageable);
 }
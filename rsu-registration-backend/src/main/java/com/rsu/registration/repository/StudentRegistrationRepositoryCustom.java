@@ -0,0 +1,28 @@
+package com.rsu.registration.repository;
+
+import com.rsu.registration.model.StudentRegistration;
+
+import java.util.List;
+
+/**
+ * Custom StudentRegistration operations that JPA cannot express in one statement
+ */
+public interface StudentRegistrationRepositoryCustom {
+
+    /**
+     * Insert a registration, or update the status and message of the existing row
+     * with the same student ID, in a single INSERT ... ON CONFLICT (student_id)
+     * DO UPDATE statement. A PROFILE_COMPLETE row is left unchanged.
+     *
+     * @return ID of the inserted or existing row
+     */
+    Long upsert(StudentRegistration registration);
+
+    /**
+     * Batch form of {@link #upsert(StudentRegistration)}: the same statement for every
+     * registration in one JDBC batch, with the same never-downgrade rule
+     *
+     * @return IDs of the inserted or existing rows, in the order of the registrations
+     */
+    List<Long> upsertAll(List<StudentRegistration> registrations);
+}
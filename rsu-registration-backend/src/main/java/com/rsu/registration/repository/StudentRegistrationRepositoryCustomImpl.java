@@ -0,0 +1,91 @@
+package com.rsu.registration.repository;
+
+import com.rsu.registration.model.StudentRegistration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC implementation of the registration upsert (PostgreSQL ON CONFLICT).
+ * An existing row keeps its student details and registration timestamp; only
+ * its status and message change, and a PROFILE_COMPLETE row is never downgraded.
+ */
+@RequiredArgsConstructor
+public class StudentRegistrationRepositoryCustomImpl implements StudentRegistrationRepositoryCustom {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO student_registrations " +
+            "(student_name, student_id, email, program, year_level, registration_timestamp, status, message, " +
+            "partial_profile, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (student_id) DO UPDATE SET " +
+            "status = EXCLUDED.status, " +
+            "message = EXCLUDED.message, " +
+            "partial_profile = EXCLUDED.partial_profile, " +
+            "updated_at = now() " +
+            "WHERE student_registrations.status <> 'PROFILE_COMPLETE'";
+
+    private static final String FIND_ID_SQL = "SELECT id FROM student_registrations WHERE student_id = ?";
+
+    private static final String FIND_IDS_SQL =
+            "SELECT student_id, id FROM student_registrations WHERE student_id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Long upsert(StudentRegistration registration) {
+        Long id = jdbcTemplate.query(UPSERT_SQL + " RETURNING id",
+                ps -> bind(ps, registration),
+                rs -> rs.next() ? rs.getLong(1) : null);
+        if (id != null) {
+            return id;
+        }
+        // Already PROFILE_COMPLETE: the row was left as it is
+        return jdbcTemplate.queryForObject(FIND_ID_SQL, Long.class, registration.getStudentId());
+    }
+
+    @Override
+    public List<Long> upsertAll(List<StudentRegistration> registrations) {
+        if (registrations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, registrations, registrations.size(), this::bind);
+
+        // A batch returns no rows, and a PROFILE_COMPLETE row is not touched: read the IDs back
+        Object[] studentIds = registrations.stream().map(StudentRegistration::getStudentId).distinct().toArray();
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(FIND_IDS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", studentIds)),
+                rs -> {
+                    ids.put(rs.getString(1), rs.getLong(2));
+                });
+        return registrations.stream()
+                .map(registration -> ids.get(registration.getStudentId()))
+                .collect(Collectors.toList());
+    }
+
+    private void bind(PreparedStatement ps, StudentRegistration registration) throws SQLException {
+        LocalDateTime timestamp = registration.getRegistrationTimestamp() != null
+                ? registration.getRegistrationTimestamp()
+                : LocalDateTime.now();
+
+        ps.setString(1, registration.getStudentName());
+        ps.setString(2, registration.getStudentId());
+        ps.setString(3, registration.getEmail());
+        ps.setString(4, registration.getProgram());
+        ps.setString(5, registration.getYearLevel());
+        ps.setTimestamp(6, Timestamp.valueOf(timestamp));
+        ps.setString(7, registration.getStatus() != null ? registration.getStatus() : "PENDING");
+        ps.setString(8, registration.getMessage());
+        ps.setString(9, registration.getPartialProfile());
+    }
+}
@@ -1,14 +1,18 @@
 package com.rsu.registration.service;
 
+import com.rsu.registration.config.DownstreamExecutorConfig;
 import com.rsu.registration.dto.AcademicRecordsResponse;
 import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.model.DownstreamSystem;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Academic Records System Service
@@ -22,6 +26,14 @@ public class AcademicRecordsSystemService {
     
     private final Random random = new Random();
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final Executor downstreamExecutor;
+    private final DownstreamSimulatorService simulator;
+    
+    public AcademicRecordsSystemService(@Qualifier(DownstreamExecutorConfig.DOWNSTREAM_EXECUTOR) Executor downstreamExecutor,
+                                        DownstreamSimulatorService simulator) {
+        this.downstreamExecutor = downstreamExecutor;
+        this.simulator = simulator;
+    }
     
     /**
      * Process student enrollment and return academic records
@@ -30,9 +42,8 @@ public class AcademicRecordsSystemService {
     public CompletableFuture<AcademicRecordsResponse> processEnrollment(StudentRegistrationDTO registration) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                // Simulate processing time (500ms - 2000ms)
-                int processingTime = 500 + random.nextInt(1500);
-                Thread.sleep(processingTime);
+                // Latency and injected faults come from the downstream simulator
+                long processingTime = simulator.simulateCall(DownstreamSystem.ACADEMIC_RECORDS);
                 
                 log.info("📚 ACADEMIC RECORDS SYSTEM: Processing enrollment for {} (took {}ms)", 
                         registration.getStudentName(), processingTime);
@@ -60,7 +71,7 @@ public class AcademicRecordsSystemService {
                 Thread.currentThread().interrupt();
                 throw new RuntimeException("Academic Records processing failed", e);
             }
-        });
+        }, downstreamExecutor);
     }
     
     /**
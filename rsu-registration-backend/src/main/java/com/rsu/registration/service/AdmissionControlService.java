@@ -0,0 +1,293 @@
+package com.rsu.registration.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTransientException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for POST /submit: sheds submissions before they reach the
+ * database or the broker when the service is behind.
+ *
+ * - Queue: while {@link QueueMonitorService} reports the registration queue behind,
+ *   every submission is shed with its drain-time Retry-After
+ * - Concurrency: submissions in flight are capped by an adaptive limit (TCP Vegas
+ *   style). Per sample window the limit estimates the requests queued inside the
+ *   service as limit * (1 - noLoadRtt / avgRtt) and grows while that is small,
+ *   shrinks while it is large, and backs off by app.admission.backoff-ratio when a
+ *   submission failed because the database was overloaded
+ * - The no-load RTT is the lowest window minimum, re-probed every
+ *   app.admission.probe-windows windows so it follows a slower baseline
+ *
+ * Windows where less than half the limit was used do not change it, so a quiet
+ * period does not inflate the limit.
+ */
+@Service
+@Slf4j
+public class AdmissionControlService {
+
+    public static final String REASON_QUEUE = "queue";
+    public static final String REASON_CONCURRENCY = "concurrency";
+    public static final String REASON_OVERLOAD = "overload";
+
+    private final QueueMonitorService queueMonitor;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final int probeWindows;
+    private final long retryAfterSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejectedByQueue = new AtomicLong();
+    private final AtomicLong rejectedByConcurrency = new AtomicLong();
+    private final AtomicLong overloadFailures = new AtomicLong();
+    private final Counter queueRejections;
+    private final Counter concurrencyRejections;
+    private final Counter overloadRejections;
+
+    private volatile int limit;
+    private volatile long noLoadRttNanos;
+    private volatile long lastAvgRttNanos;
+
+    // Current sample window, guarded by this
+    private double estimatedLimit;
+    private long windowStartNanos = System.nanoTime();
+    private int windowSamples;
+    private long windowRttSum;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowMaxInFlight;
+    private boolean windowOverloaded;
+    private int windowsSinceProbe;
+
+    public AdmissionControlService(QueueMonitorService queueMonitor,
+                                   MeterRegistry registry,
+                                   @Value("${app.admission.initial-limit:20}") int initialLimit,
+                                   @Value("${app.admission.min-limit:4}") int minLimit,
+                                   @Value("${app.admission.max-limit:200}") int maxLimit,
+                                   @Value("${app.admission.backoff-ratio:0.9}") double backoffRatio,
+                                   @Value("${app.admission.window-ms:1000}") long windowMs,
+                                   @Value("${app.admission.min-window-samples:10}") int minWindowSamples,
+                                   @Value("${app.admission.probe-windows:60}") int probeWindows,
+                                   @Value("${app.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("app.admission limits must satisfy 1 <= min-limit <= max-limit");
+        }
+        this.queueMonitor = queueMonitor;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.minWindowSamples = Math.max(1, minWindowSamples);
+        this.probeWindows = Math.max(1, probeWindows);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+
+        Gauge.builder("registration.admission.limit", () -> limit)
+                .description("Adaptive concurrency limit of POST /submit")
+                .register(registry);
+        Gauge.builder("registration.admission.in.flight", inFlight, AtomicInteger::get)
+                .description("Submissions currently admitted")
+                .register(registry);
+        queueRejections = rejectionCounter(registry, REASON_QUEUE);
+        concurrencyRejections = rejectionCounter(registry, REASON_CONCURRENCY);
+        overloadRejections = rejectionCounter(registry, REASON_OVERLOAD);
+
+        log.info("🚦 [ADMISSION] Concurrency limit {} (min {}, max {}), {}ms windows",
+                 limit, minLimit, maxLimit, windowMs);
+    }
+
+    /**
+     * Admit a submission; the permit must be closed when the submission is done
+     *
+     * @throws AdmissionRejectedException if the queue is behind or the concurrency limit is reached
+     */
+    public Permit tryAcquire() {
+        if (queueMonitor.isOverloaded()) {
+            rejectedByQueue.incrementAndGet();
+            queueRejections.increment();
+            throw new AdmissionRejectedException(REASON_QUEUE, queueMonitor.getRetryAfterSeconds());
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejectedByConcurrency.incrementAndGet();
+                concurrencyRejections.increment();
+                throw new AdmissionRejectedException(REASON_CONCURRENCY, retryAfterSeconds);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.incrementAndGet();
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    /**
+     * Whether a submission failure means the database is overloaded (no connection
+     * within the pool timeout, query timeout, lock timeout) rather than a bad request
+     */
+    public static boolean isOverloadFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CannotCreateTransactionException
+                    || cause instanceof TransientDataAccessException
+                    || cause instanceof SQLTransientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retry-After for submissions shed by the concurrency limit or an overload failure
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Limit, in-flight submissions and shed counts for the admin dashboard
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("limit", limit);
+        stats.put("inFlight", inFlight.get());
+        stats.put("minLimit", minLimit);
+        stats.put("maxLimit", maxLimit);
+        stats.put("noLoadRttMs", noLoadRttNanos / 1_000_000.0);
+        stats.put("lastAvgRttMs", lastAvgRttNanos / 1_000_000.0);
+        stats.put("admitted", admitted.get());
+        stats.put("rejectedByQueue", rejectedByQueue.get());
+        stats.put("rejectedByConcurrency", rejectedByConcurrency.get());
+        stats.put("overloadFailures", overloadFailures.get());
+        return stats;
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("registration.admission.rejected")
+                .description("Submissions shed by admission control")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart, boolean overloaded) {
+        long now = System.nanoTime();
+        windowSamples++;
+        windowRttSum += rttNanos;
+        windowMinRtt = Math.min(windowMinRtt, rttNanos);
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        windowOverloaded |= overloaded;
+
+        if (now - windowStartNanos < windowNanos || (windowSamples < minWindowSamples && !windowOverloaded)) {
+            return;
+        }
+        updateLimit();
+
+        windowStartNanos = now;
+        windowSamples = 0;
+        windowRttSum = 0;
+        windowMinRtt = Long.MAX_VALUE;
+        windowMaxInFlight = 0;
+        windowOverloaded = false;
+    }
+
+    private void updateLimit() {
+        long avgRtt = Math.max(1, windowRttSum / windowSamples);
+        lastAvgRttNanos = avgRtt;
+        if (noLoadRttNanos == 0 || ++windowsSinceProbe >= probeWindows) {
+            noLoadRttNanos = windowMinRtt;
+            windowsSinceProbe = 0;
+        } else {
+            noLoadRttNanos = Math.min(noLoadRttNanos, windowMinRtt);
+        }
+
+        double current = estimatedLimit;
+        double next;
+        if (windowOverloaded) {
+            next = current * backoffRatio;
+        } else if (windowMaxInFlight * 2 < current) {
+            return;
+        } else {
+            double queued = Math.ceil(current * (1 - (double) noLoadRttNanos / avgRtt));
+            double log = Math.max(1, Math.log10(current));
+            if (queued <= log) {
+                next = current + 6 * log;
+            } else if (queued < 3 * log) {
+                next = current + log;
+            } else if (queued > 6 * log) {
+                next = current - log;
+            } else {
+                return;
+            }
+        }
+        next = Math.max(minLimit, Math.min(maxLimit, next));
+
+        int previous = limit;
+        estimatedLimit = next;
+        limit = (int) next;
+        if (windowOverloaded) {
+            log.warn("🚦 [ADMISSION] Database overloaded - concurrency limit {} -> {}", previous, limit);
+        } else if (limit != previous) {
+            log.debug("🚦 [ADMISSION] Concurrency limit {} -> {} (avg RTT {}ms, no-load RTT {}ms)",
+                      previous, limit, avgRtt / 1_000_000.0, noLoadRttNanos / 1_000_000.0);
+        }
+    }
+
+    /**
+     * An admitted submission. Closing it frees its slot and feeds its latency to
+     * the limit, unless it was marked {@link #ignore() ignored}.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean overloaded;
+        private boolean ignored;
+        private boolean closed;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The submission failed because the database is overloaded: back off the limit
+         */
+        public void overloaded() {
+            overloaded = true;
+            overloadFailures.incrementAndGet();
+            overloadRejections.increment();
+        }
+
+        /**
+         * The submission ended early (e.g. duplicate) and says nothing about the load
+         */
+        public void ignore() {
+            ignored = true;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            inFlight.decrementAndGet();
+            if (!ignored || overloaded) {
+                onSample(System.nanoTime() - startNanos, inFlightAtStart, overloaded);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.rsu.registration.service;
+
+/**
+ * Thrown when admission control sheds a submission.
+ * Carries the reason and the suggested Retry-After; no stack trace, since it is
+ * thrown on every shed request while the service is overloaded.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final String reason;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String reason, long retryAfterSeconds) {
+        super("Submission shed: " + reason, null, false, false);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
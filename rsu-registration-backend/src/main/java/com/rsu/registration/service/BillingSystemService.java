@@ -1,15 +1,18 @@
 package com.rsu.registration.service;
 
+import com.rsu.registration.config.DownstreamExecutorConfig;
 import com.rsu.registration.dto.BillingResponse;
 import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.model.DownstreamSystem;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Billing System Service
@@ -19,8 +22,15 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class BillingSystemService {
     
-    private final Random random = new Random();
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final Executor downstreamExecutor;
+    private final DownstreamSimulatorService simulator;
+    
+    public BillingSystemService(@Qualifier(DownstreamExecutorConfig.DOWNSTREAM_EXECUTOR) Executor downstreamExecutor,
+                                DownstreamSimulatorService simulator) {
+        this.downstreamExecutor = downstreamExecutor;
+        this.simulator = simulator;
+    }
     
     /**
      * Process billing and fee calculation for returning students
@@ -29,9 +39,8 @@ public class BillingSystemService {
     public CompletableFuture<BillingResponse> processBillingSetup(StudentRegistrationDTO registration) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                // Simulate processing time (600ms - 2200ms)
-                int processingTime = 600 + random.nextInt(1600);
-                Thread.sleep(processingTime);
+                // Latency and injected faults come from the downstream simulator
+                long processingTime = simulator.simulateCall(DownstreamSystem.BILLING);
                 
                 log.info("💰 BILLING SYSTEM: Processing billing for {} (took {}ms)", 
                         registration.getStudentName(), processingTime);
@@ -63,7 +72,7 @@ public class BillingSystemService {
                 Thread.currentThread().interrupt();
                 throw new RuntimeException("Billing processing failed", e);
             }
-        });
+        }, downstreamExecutor);
     }
     
     private BigDecimal calculateTuition(String yearLevel) {
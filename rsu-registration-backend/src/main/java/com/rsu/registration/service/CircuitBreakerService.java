@@ -0,0 +1,96 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.model.DownstreamSystem;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Per-system circuit breakers for the downstream systems called by the Aggregator.
+ * 
+ * - Count-based sliding window of the last calls per system
+ * - Opens when the failure rate or the slow-call rate crosses its threshold
+ * - While open, calls fail fast with CallNotPermittedException
+ * - After the open duration a few half-open probe calls decide whether to close again
+ */
+@Service
+@Slf4j
+public class CircuitBreakerService {
+    
+    private final Map<DownstreamSystem, CircuitBreaker> circuitBreakers = new EnumMap<>(DownstreamSystem.class);
+    
+    public CircuitBreakerService(@Value("${app.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                                 @Value("${app.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                 @Value("${app.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                                 @Value("${app.circuit-breaker.slow-call-duration-ms:3000}") long slowCallDurationMs,
+                                 @Value("${app.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+                                 @Value("${app.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+                                 @Value("${app.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .waitDurationInOpenState(Duration.ofMillis(openDurationMs))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        
+        for (DownstreamSystem system : DownstreamSystem.values()) {
+            CircuitBreaker circuitBreaker = registry.circuitBreaker(system.name());
+            circuitBreaker.getEventPublisher().onStateTransition(event ->
+                    log.warn("⚡ [CIRCUIT BREAKER] {}: {}", system.getDisplayName(), event.getStateTransition()));
+            circuitBreakers.put(system, circuitBreaker);
+        }
+    }
+    
+    /**
+     * Call a downstream system through its circuit breaker.
+     * The returned future fails with CallNotPermittedException while the circuit is open.
+     */
+    public <T> CompletableFuture<T> call(DownstreamSystem system, Supplier<CompletableFuture<T>> call) {
+        return CircuitBreaker.decorateCompletionStage(circuitBreakers.get(system), () -> call.get())
+                .get()
+                .toCompletableFuture();
+    }
+    
+    /**
+     * Check whether every circuit is closed (all downstream systems healthy)
+     */
+    public boolean allClosed() {
+        return circuitBreakers.values().stream()
+                .allMatch(circuitBreaker -> circuitBreaker.getState() == CircuitBreaker.State.CLOSED);
+    }
+    
+    /**
+     * State and sliding-window metrics of every circuit breaker
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        circuitBreakers.forEach((system, circuitBreaker) -> {
+            CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("state", circuitBreaker.getState().name());
+            details.put("failureRate", metrics.getFailureRate());
+            details.put("slowCallRate", metrics.getSlowCallRate());
+            details.put("bufferedCalls", metrics.getNumberOfBufferedCalls());
+            details.put("failedCalls", metrics.getNumberOfFailedCalls());
+            details.put("slowCalls", metrics.getNumberOfSlowCalls());
+            details.put("notPermittedCalls", metrics.getNumberOfNotPermittedCalls());
+            status.put(system.name(), details);
+        });
+        return status;
+    }
+}
@@ -81,6 +81,17 @@ public class ContentBasedRouterService {
         return result;
     }
     
+    /**
+     * Systems a registration is routed to, without calling them
+     * (used to rebuild profile messages outside the routing stage)
+     */
+    public List<String> routedSystems(String yearLevel) {
+        List<String> routedTo = new ArrayList<>();
+        routedTo.add(isFirstYearStudent(yearLevel) ? "Housing System" : "Billing System");
+        routedTo.add("Library System");
+        return routedTo;
+    }
+    
     /**
      * Determine if student is a first-year student
      */
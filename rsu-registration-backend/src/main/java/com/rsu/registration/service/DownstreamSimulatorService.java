@@ -0,0 +1,413 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.dto.SimulationProfile;
+import com.rsu.registration.model.DownstreamSystem;
+import com.rsu.registration.model.LatencyModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and failure simulator for the downstream systems.
+ *
+ * - Each system draws its call latency from a FIXED, UNIFORM, LOG_NORMAL or
+ *   recorded HISTOGRAM model (see {@link LatencyModel})
+ * - Injected faults: error rate, timeouts (the call hangs for timeoutMs, then fails)
+ *   and brown-outs (latency multiplied and error rate raised for a while)
+ * - Profiles start from app.simulator.* properties (per system, e.g.
+ *   app.simulator.housing.error-rate, falling back to app.simulator.error-rate)
+ *   and can be changed at runtime from the admin API
+ * - HISTOGRAM distributions are read from the classpath or, by file name, from
+ *   app.simulator.histogram-dir; no other location is opened, since the admin
+ *   API can set the histogram
+ *
+ * The defaults reproduce the former fixed uniform ranges with no faults.
+ */
+@Service
+@Slf4j
+public class DownstreamSimulatorService {
+
+    private static final String PREFIX = "app.simulator.";
+    private static final long MAX_LATENCY_MS = 300_000;
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private final Environment environment;
+    private final Path histogramDir;
+    private final Map<DownstreamSystem, SystemSimulation> simulations = new EnumMap<>(DownstreamSystem.class);
+
+    public DownstreamSimulatorService(Environment environment) {
+        this.environment = environment;
+        String dir = environment.getProperty(PREFIX + "histogram-dir", "");
+        this.histogramDir = StringUtils.hasText(dir) ? Paths.get(dir).toAbsolutePath().normalize() : null;
+        for (DownstreamSystem system : DownstreamSystem.values()) {
+            SystemSimulation simulation = new SystemSimulation();
+            simulation.sampler = new LatencySampler(configuredProfile(system), histogramDir);
+            simulations.put(system, simulation);
+            log.info("🧪 [SIMULATOR] {}: {}", system.getDisplayName(), describe(simulation.sampler.profile));
+        }
+    }
+
+    /**
+     * Simulate one call: sleep for the drawn latency, or fail as configured
+     *
+     * @return Simulated latency in milliseconds
+     * @throws SimulatedDownstreamException for an injected error or timeout
+     */
+    public long simulateCall(DownstreamSystem system) throws InterruptedException {
+        SystemSimulation simulation = simulations.get(system);
+        LatencySampler sampler = simulation.sampler;
+        SimulationProfile profile = sampler.profile;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean brownout = isBrownout(simulation, System.currentTimeMillis());
+        simulation.calls.incrementAndGet();
+        if (brownout) {
+            simulation.brownoutCalls.incrementAndGet();
+        }
+
+        if (random.nextDouble() < profile.getTimeoutRate()) {
+            simulation.injectedTimeouts.incrementAndGet();
+            Thread.sleep(profile.getTimeoutMs());
+            throw new SimulatedDownstreamException(system.getDisplayName() + " timed out after "
+                    + profile.getTimeoutMs() + "ms (simulated)");
+        }
+
+        long latencyMs = sampler.sample(random);
+        if (brownout) {
+            latencyMs = Math.min(MAX_LATENCY_MS, Math.round(latencyMs * profile.getBrownoutLatencyMultiplier()));
+        }
+        Thread.sleep(latencyMs);
+
+        double errorRate = brownout
+                ? Math.max(profile.getErrorRate(), profile.getBrownoutErrorRate())
+                : profile.getErrorRate();
+        if (random.nextDouble() < errorRate) {
+            simulation.injectedErrors.incrementAndGet();
+            throw new SimulatedDownstreamException(system.getDisplayName() + " unavailable"
+                    + (brownout ? " during brown-out" : "") + " (simulated)");
+        }
+        return latencyMs;
+    }
+
+    /**
+     * Change the profile of a system; null fields keep their current value
+     *
+     * @throws IllegalArgumentException if the resulting profile is invalid
+     */
+    public SimulationProfile updateProfile(DownstreamSystem system, SimulationProfile changes) {
+        SystemSimulation simulation = simulations.get(system);
+        synchronized (simulation) {
+            SimulationProfile profile = merge(simulation.sampler.profile, changes);
+            simulation.sampler = new LatencySampler(profile, histogramDir);
+            log.warn("🧪 [SIMULATOR] {} updated: {}", system.getDisplayName(), describe(profile));
+            return profile;
+        }
+    }
+
+    /**
+     * Start a brown-out of a system now
+     *
+     * @param seconds Length of the brown-out, or null for the profile's brownoutDurationSeconds
+     */
+    public void startBrownout(DownstreamSystem system, Long seconds) {
+        SystemSimulation simulation = simulations.get(system);
+        long durationSeconds = seconds != null ? seconds : simulation.sampler.profile.getBrownoutDurationSeconds();
+        if (durationSeconds <= 0) {
+            throw new IllegalArgumentException("Brown-out length must be positive");
+        }
+        simulation.brownoutUntil = System.currentTimeMillis() + durationSeconds * 1000;
+        log.warn("🧪 [SIMULATOR] {} brown-out started for {}s", system.getDisplayName(), durationSeconds);
+    }
+
+    /**
+     * End a brown-out started from the admin API (scheduled brown-outs keep running)
+     */
+    public void stopBrownout(DownstreamSystem system) {
+        simulations.get(system).brownoutUntil = 0;
+        log.info("🧪 [SIMULATOR] {} brown-out stopped", system.getDisplayName());
+    }
+
+    /**
+     * Restore every system to its configured profile and stop brown-outs
+     */
+    public void reset() {
+        for (DownstreamSystem system : DownstreamSystem.values()) {
+            SystemSimulation simulation = simulations.get(system);
+            synchronized (simulation) {
+                simulation.sampler = new LatencySampler(configuredProfile(system), histogramDir);
+                simulation.brownoutUntil = 0;
+            }
+        }
+        log.info("🧪 [SIMULATOR] All systems reset to their configured profiles");
+    }
+
+    /**
+     * Profile, brown-out state and injected fault counts of every system
+     */
+    public Map<String, Object> getStatus() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (Map.Entry<DownstreamSystem, SystemSimulation> entry : simulations.entrySet()) {
+            SystemSimulation simulation = entry.getValue();
+            Map<String, Object> system = new LinkedHashMap<>();
+            system.put("profile", simulation.sampler.profile);
+            system.put("brownoutActive", isBrownout(simulation, now));
+            system.put("brownoutRemainingSeconds", Math.max(0, (simulation.brownoutUntil - now) / 1000));
+            system.put("calls", simulation.calls.get());
+            system.put("brownoutCalls", simulation.brownoutCalls.get());
+            system.put("injectedErrors", simulation.injectedErrors.get());
+            system.put("injectedTimeouts", simulation.injectedTimeouts.get());
+            status.put(entry.getKey().name(), system);
+        }
+        return status;
+    }
+
+    private boolean isBrownout(SystemSimulation simulation, long now) {
+        if (now < simulation.brownoutUntil) {
+            return true;
+        }
+        SimulationProfile profile = simulation.sampler.profile;
+        long everyMs = profile.getBrownoutEverySeconds() * 1000;
+        return everyMs > 0 && now % everyMs < profile.getBrownoutDurationSeconds() * 1000;
+    }
+
+    /**
+     * Profile of a system from properties, with the former hard-coded ranges as defaults
+     */
+    private SimulationProfile configuredProfile(DownstreamSystem system) {
+        long defaultMin;
+        long defaultMax;
+        switch (system) {
+            case ACADEMIC_RECORDS: defaultMin = 500; defaultMax = 2000; break;
+            case HOUSING: defaultMin = 800; defaultMax = 2500; break;
+            case BILLING: defaultMin = 600; defaultMax = 2200; break;
+            default: defaultMin = 400; defaultMax = 1800; break;
+        }
+
+        return SimulationProfile.builder()
+                .latencyModel(property(system, "latency-model", LatencyModel.class, LatencyModel.UNIFORM))
+                .fixedMs(property(system, "fixed-ms", Long.class, defaultMin))
+                .minMs(property(system, "min-ms", Long.class, defaultMin))
+                .maxMs(property(system, "max-ms", Long.class, defaultMax))
+                .medianMs(property(system, "median-ms", Long.class, (defaultMin + defaultMax) / 2))
+                .sigma(property(system, "sigma", Double.class, 0.5))
+                .histogram(property(system, "histogram", String.class, null))
+                .errorRate(property(system, "error-rate", Double.class, 0.0))
+                .timeoutRate(property(system, "timeout-rate", Double.class, 0.0))
+                .timeoutMs(property(system, "timeout-ms", Long.class, 10000L))
+                .brownoutLatencyMultiplier(property(system, "brownout-latency-multiplier", Double.class, 5.0))
+                .brownoutErrorRate(property(system, "brownout-error-rate", Double.class, 0.2))
+                .brownoutEverySeconds(property(system, "brownout-every-seconds", Long.class, 0L))
+                .brownoutDurationSeconds(property(system, "brownout-duration-seconds", Long.class, 30L))
+                .build();
+    }
+
+    /**
+     * app.simulator.{system}.{name}, else app.simulator.{name}, else the default
+     */
+    private <T> T property(DownstreamSystem system, String name, Class<T> type, T defaultValue) {
+        String systemKey = system.name().toLowerCase().replace('_', '-');
+        T value = environment.getProperty(PREFIX + systemKey + "." + name, type);
+        return value != null ? value : environment.getProperty(PREFIX + name, type, defaultValue);
+    }
+
+    private static SimulationProfile merge(SimulationProfile current, SimulationProfile changes) {
+        SimulationProfile.SimulationProfileBuilder merged = current.toBuilder();
+        if (changes.getLatencyModel() != null) merged.latencyModel(changes.getLatencyModel());
+        if (changes.getFixedMs() != null) merged.fixedMs(changes.getFixedMs());
+        if (changes.getMinMs() != null) merged.minMs(changes.getMinMs());
+        if (changes.getMaxMs() != null) merged.maxMs(changes.getMaxMs());
+        if (changes.getMedianMs() != null) merged.medianMs(changes.getMedianMs());
+        if (changes.getSigma() != null) merged.sigma(changes.getSigma());
+        if (changes.getHistogram() != null) merged.histogram(changes.getHistogram());
+        if (changes.getErrorRate() != null) merged.errorRate(changes.getErrorRate());
+        if (changes.getTimeoutRate() != null) merged.timeoutRate(changes.getTimeoutRate());
+        if (changes.getTimeoutMs() != null) merged.timeoutMs(changes.getTimeoutMs());
+        if (changes.getBrownoutLatencyMultiplier() != null) merged.brownoutLatencyMultiplier(changes.getBrownoutLatencyMultiplier());
+        if (changes.getBrownoutErrorRate() != null) merged.brownoutErrorRate(changes.getBrownoutErrorRate());
+        if (changes.getBrownoutEverySeconds() != null) merged.brownoutEverySeconds(changes.getBrownoutEverySeconds());
+        if (changes.getBrownoutDurationSeconds() != null) merged.brownoutDurationSeconds(changes.getBrownoutDurationSeconds());
+        return merged.build();
+    }
+
+    private static String describe(SimulationProfile profile) {
+        String latency;
+        switch (profile.getLatencyModel()) {
+            case FIXED: latency = profile.getFixedMs() + "ms"; break;
+            case UNIFORM: latency = profile.getMinMs() + "-" + profile.getMaxMs() + "ms"; break;
+            case LOG_NORMAL: latency = "log-normal median " + profile.getMedianMs() + "ms sigma " + profile.getSigma(); break;
+            default: latency = "histogram " + profile.getHistogram(); break;
+        }
+        return String.format("%s, %.1f%% errors, %.1f%% timeouts (%dms)%s", latency,
+                profile.getErrorRate() * 100, profile.getTimeoutRate() * 100, profile.getTimeoutMs(),
+                profile.getBrownoutEverySeconds() > 0
+                        ? ", brown-out " + profile.getBrownoutDurationSeconds() + "s every " + profile.getBrownoutEverySeconds() + "s"
+                        : "");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private static boolean isRate(Double rate) {
+        return rate != null && rate >= 0 && rate <= 1;
+    }
+
+    /**
+     * Mutable simulation state of one system
+     */
+    private static final class SystemSimulation {
+        volatile LatencySampler sampler;
+        volatile long brownoutUntil;
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong brownoutCalls = new AtomicLong();
+        final AtomicLong injectedErrors = new AtomicLong();
+        final AtomicLong injectedTimeouts = new AtomicLong();
+    }
+
+    /**
+     * Validated profile with its latency distribution ready to sample
+     */
+    private static final class LatencySampler {
+
+        final SimulationProfile profile;
+        // HISTOGRAM: latency values and their cumulative share, ascending
+        private final long[] values;
+        private final double[] cumulative;
+
+        LatencySampler(SimulationProfile profile, Path histogramDir) {
+            check(profile.getLatencyModel() != null, "latencyModel is required");
+            check(isRate(profile.getErrorRate()), "errorRate must be between 0 and 1");
+            check(isRate(profile.getTimeoutRate()), "timeoutRate must be between 0 and 1");
+            check(isRate(profile.getBrownoutErrorRate()), "brownoutErrorRate must be between 0 and 1");
+            check(profile.getTimeoutMs() != null && profile.getTimeoutMs() >= 0, "timeoutMs must not be negative");
+            check(profile.getBrownoutLatencyMultiplier() != null && profile.getBrownoutLatencyMultiplier() >= 1,
+                    "brownoutLatencyMultiplier must be at least 1");
+            check(profile.getBrownoutEverySeconds() != null && profile.getBrownoutEverySeconds() >= 0,
+                    "brownoutEverySeconds must not be negative");
+            check(profile.getBrownoutDurationSeconds() != null && profile.getBrownoutDurationSeconds() >= 0,
+                    "brownoutDurationSeconds must not be negative");
+
+            switch (profile.getLatencyModel()) {
+                case FIXED:
+                    check(profile.getFixedMs() != null && profile.getFixedMs() >= 0, "fixedMs must not be negative");
+                    break;
+                case UNIFORM:
+                    check(profile.getMinMs() != null && profile.getMaxMs() != null
+                            && profile.getMinMs() >= 0 && profile.getMinMs() <= profile.getMaxMs(),
+                            "minMs and maxMs must satisfy 0 <= minMs <= maxMs");
+                    break;
+                case LOG_NORMAL:
+                    check(profile.getMedianMs() != null && profile.getMedianMs() > 0, "medianMs must be positive");
+                    check(profile.getSigma() != null && profile.getSigma() > 0, "sigma must be positive");
+                    break;
+                default:
+                    check(profile.getHistogram() != null && !profile.getHistogram().isEmpty(),
+                            "histogram location is required for the HISTOGRAM model");
+                    break;
+            }
+            this.profile = profile;
+
+            if (profile.getLatencyModel() == LatencyModel.HISTOGRAM) {
+                List<double[]> rows = readPercentileDistribution(profile.getHistogram(), histogramDir);
+                values = new long[rows.size()];
+                cumulative = new double[rows.size()];
+                for (int i = 0; i < rows.size(); i++) {
+                    values[i] = Math.round(rows.get(i)[0]);
+                    cumulative[i] = rows.get(i)[1];
+                }
+            } else {
+                values = null;
+                cumulative = null;
+            }
+        }
+
+        long sample(ThreadLocalRandom random) {
+            switch (profile.getLatencyModel()) {
+                case FIXED:
+                    return profile.getFixedMs();
+                case UNIFORM:
+                    return profile.getMinMs() + random.nextLong(profile.getMaxMs() - profile.getMinMs() + 1);
+                case LOG_NORMAL:
+                    double latency = profile.getMedianMs() * Math.exp(profile.getSigma() * random.nextGaussian());
+                    return Math.min(MAX_LATENCY_MS, Math.round(latency));
+                default:
+                    // Inverse of the recorded distribution: first value whose cumulative share covers u
+                    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+                    return values[Math.min(values.length - 1, index >= 0 ? index : -index - 1)];
+            }
+        }
+
+        /**
+         * Histogram file: classpath:name, or a file name inside the histogram directory
+         */
+        private static Resource histogramResource(String location, Path histogramDir) {
+            if (location.startsWith(CLASSPATH_PREFIX)) {
+                String path = StringUtils.cleanPath(location.substring(CLASSPATH_PREFIX.length()));
+                check(!path.startsWith("..") && !path.contains("/../"), "histogram must not leave the classpath root");
+                return new ClassPathResource(path);
+            }
+            check(histogramDir != null,
+                    "histogram must be a classpath: location (set app.simulator.histogram-dir to read files)");
+            Path file = histogramDir.resolve(location).normalize();
+            check(file.startsWith(histogramDir) && Files.isRegularFile(file),
+                    "histogram must be a file name inside app.simulator.histogram-dir");
+            return new FileSystemResource(file);
+        }
+
+        /**
+         * Read (value, cumulative share) rows of an HdrHistogram outputPercentileDistribution file
+         */
+        private static List<double[]> readPercentileDistribution(String location, Path histogramDir) {
+            Resource resource = histogramResource(location, histogramDir);
+            List<double[]> rows = new ArrayList<>();
+            int lineNumber = 0;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    String[] columns = line.trim().split("\\s+");
+                    if (columns.length < 2 || !Character.isDigit(columns[0].charAt(0))) {
+                        continue; // header, blank or #[...] summary line
+                    }
+                    double value = Double.parseDouble(columns[0]);
+                    double share = Double.parseDouble(columns[1]);
+                    if (!rows.isEmpty() && share <= rows.get(rows.size() - 1)[1]) {
+                        continue; // repeated percentile at the end of the distribution
+                    }
+                    rows.add(new double[]{value, share});
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read histogram " + location, e);
+            } catch (NumberFormatException e) {
+                // Not the file content: the file may not be a histogram at all
+                throw new IllegalArgumentException("Histogram " + location + " line " + lineNumber
+                        + " is not a percentile row", e);
+            }
+            check(!rows.isEmpty(), "Histogram " + location + " has no percentile rows");
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.repository.StudentRegistrationRepository;
+import com.rsu.registration.util.ScalableBloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Submit-time duplicate registration detector
+ * 
+ * Keeps a scalable Bloom filter of every registered student ID so the API
+ * Gateway can reject duplicate submissions before translation, messaging
+ * and aggregation. A negative answer needs no database access; a positive
+ * answer is confirmed with an indexed lookup on student_registrations.
+ * 
+ * The filter is rebuilt from the table on startup and every
+ * app.duplicate-check.bloom.rebuild-interval-ms, and updated when a
+ * registration saved by this node commits. It is a per-node pre-check: rows
+ * saved by another instance are only seen after the next rebuild, so set
+ * app.duplicate-check.bloom.enabled=false to ask the database every time on a
+ * multi-node deployment. A duplicate the filter misses is still dropped by the
+ * Idempotent Receiver (processed_messages by student ID) and the unique
+ * student_id constraint.
+ */
+@Service
+@Slf4j
+public class DuplicateRegistrationService {
+    
+    private final StudentRegistrationRepository registrationRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final boolean enabled;
+    
+    private volatile ScalableBloomFilter registeredStudentIds;
+    private volatile ScalableBloomFilter rebuildingFilter;
+    private volatile boolean ready = false;
+    
+    public DuplicateRegistrationService(StudentRegistrationRepository registrationRepository,
+                                        @Value("${app.duplicate-check.bloom.expected-insertions:100000}") long expectedInsertions,
+                                        @Value("${app.duplicate-check.bloom.false-positive-rate:0.001}") double falsePositiveRate,
+                                        @Value("${app.duplicate-check.bloom.enabled:true}") boolean enabled) {
+        this.registrationRepository = registrationRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.enabled = enabled;
+        this.registeredStudentIds = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+    }
+    
+    /**
+     * Load all registered student IDs into the Bloom filter.
+     * Until this succeeds every check goes to the database.
+     */
+    @PostConstruct
+    public void initialize() {
+        if (!enabled) {
+            log.info("ℹ️ [DUPLICATE CHECK] Bloom filter disabled, every check uses the database");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("⚠️ [DUPLICATE CHECK] Could not load student IDs, checks will use the database: {}",
+                     e.getMessage());
+        }
+    }
+    
+    /**
+     * Reload the filter so registrations saved by other nodes are seen.
+     */
+    @Scheduled(fixedDelayString = "${app.duplicate-check.bloom.rebuild-interval-ms:300000}",
+               initialDelayString = "${app.duplicate-check.bloom.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        ScalableBloomFilter rebuilt = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+        // IDs committed while loading go to both filters
+        rebuildingFilter = rebuilt;
+        try {
+            List<String> studentIds = registrationRepository.findAllStudentIds();
+            studentIds.forEach(rebuilt::put);
+            registeredStudentIds = rebuilt;
+            ready = true;
+            log.info("✅ [DUPLICATE CHECK] Bloom filter loaded with {} registered student IDs", studentIds.size());
+        } finally {
+            rebuildingFilter = null;
+        }
+    }
+    
+    /**
+     * Check whether a student ID is already registered.
+     */
+    public boolean isRegistered(String studentId) {
+        if (ready && !registeredStudentIds.mightContain(studentId)) {
+            return false;
+        }
+        return registrationRepository.existsByStudentId(studentId);
+    }
+    
+    /**
+     * Record a newly saved registration once its transaction commits.
+     */
+    public void markRegistered(String studentId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addCommitted(studentId);
+                }
+            });
+        } else {
+            addCommitted(studentId);
+        }
+    }
+    
+    /**
+     * Same ordering as IdempotencyService: the filter being rebuilt first, then
+     * the current one, so a concurrent rebuild cannot drop the ID.
+     */
+    private void addCommitted(String studentId) {
+        ScalableBloomFilter rebuilding = rebuildingFilter;
+        if (rebuilding != null) {
+            rebuilding.put(studentId);
+        }
+        registeredStudentIds.put(studentId);
+    }
+}
@@ -0,0 +1,220 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.jfr.DownstreamCallEvent;
+import com.rsu.registration.jfr.RegistrationStageEvent;
+import com.rsu.registration.jfr.RetryTransitionEvent;
+import com.rsu.registration.jfr.TranslationStepEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Time-boxed Java Flight Recorder recordings started from the admin API.
+ *
+ * A recording uses a built-in JFR configuration (app.jfr.settings: "default"
+ * for about 1% overhead, "profile" for more detail) plus the custom pipeline
+ * events in com.rsu.registration.jfr, and is written to app.jfr.directory
+ * when its duration ends or it is stopped. Only one admin recording runs at
+ * a time and the last app.jfr.keep files are kept for download.
+ *
+ * The custom events cost a few nanoseconds while no recording is running, so
+ * they stay in the code paths; a recording started with -XX:StartFlightRecording
+ * or jcmd picks them up as well.
+ */
+@Service
+@Slf4j
+public class FlightRecorderService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final String settings;
+    private final Path directory;
+    private final long defaultDurationSeconds;
+    private final long maxDurationSeconds;
+    private final int keep;
+    private final Deque<AdminRecording> recordings = new ArrayDeque<>();
+
+    public FlightRecorderService(@Value("${app.jfr.settings:profile}") String settings,
+                                 @Value("${app.jfr.directory:recordings}") String directory,
+                                 @Value("${app.jfr.default-duration-seconds:60}") long defaultDurationSeconds,
+                                 @Value("${app.jfr.max-duration-seconds:600}") long maxDurationSeconds,
+                                 @Value("${app.jfr.keep:5}") int keep) {
+        this.settings = settings;
+        this.directory = Paths.get(directory);
+        this.defaultDurationSeconds = defaultDurationSeconds;
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.keep = Math.max(1, keep);
+    }
+
+    /**
+     * Start a recording that stops by itself after the given duration
+     *
+     * @param seconds Recording length (null for app.jfr.default-duration-seconds)
+     * @return Status of the new recording
+     * @throws IllegalArgumentException if the duration is out of range
+     * @throws IllegalStateException if an admin recording is already running
+     */
+    public synchronized Map<String, Object> startRecording(Long seconds) {
+        long durationSeconds = seconds != null ? seconds : defaultDurationSeconds;
+        if (durationSeconds < 1 || durationSeconds > maxDurationSeconds) {
+            throw new IllegalArgumentException("Recording duration must be between 1 and "
+                    + maxDurationSeconds + " seconds");
+        }
+        if (recordings.stream().anyMatch(AdminRecording::isRunning)) {
+            throw new IllegalStateException("A recording is already running");
+        }
+
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot load JFR configuration '" + settings + "': " + e.getMessage(), e);
+        }
+        recording.enable(RegistrationStageEvent.class);
+        recording.enable(DownstreamCallEvent.class);
+        recording.enable(TranslationStepEvent.class);
+        recording.enable(RetryTransitionEvent.class);
+
+        Path file = directory.resolve("registration-" + LocalDateTime.now().format(FILE_TIMESTAMP)
+                + "-" + recording.getId() + ".jfr").toAbsolutePath();
+        try {
+            Files.createDirectories(directory);
+            recording.setName("rsu-admin-" + recording.getId());
+            recording.setToDisk(true);
+            recording.setDestination(file);
+            recording.setDuration(Duration.ofSeconds(durationSeconds));
+            recording.start();
+        } catch (IOException | RuntimeException e) {
+            recording.close();
+            throw new IllegalStateException("Cannot start recording: " + e.getMessage(), e);
+        }
+
+        AdminRecording adminRecording = new AdminRecording(recording, file, Instant.now());
+        recordings.addLast(adminRecording);
+        evictOldRecordings();
+
+        log.info("🎥 [JFR] Recording {} started for {}s with '{}' settings - writing to {}",
+                 recording.getId(), durationSeconds, settings, file);
+        return adminRecording.status();
+    }
+
+    /**
+     * Stop a running recording early, writing its file
+     *
+     * @return Status of the recording, or empty if unknown
+     */
+    public synchronized Optional<Map<String, Object>> stopRecording(long id) {
+        return find(id).map(adminRecording -> {
+            if (adminRecording.isRunning()) {
+                adminRecording.recording.stop();
+                log.info("🎥 [JFR] Recording {} stopped early", id);
+            }
+            return adminRecording.status();
+        });
+    }
+
+    /**
+     * Status of the admin recordings still available, oldest first
+     */
+    public synchronized List<Map<String, Object>> getRecordings() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (AdminRecording adminRecording : recordings) {
+            result.add(adminRecording.status());
+        }
+        return result;
+    }
+
+    /**
+     * File of a finished recording
+     *
+     * @return The .jfr file, or empty if the recording is unknown or its file is gone
+     * @throws IllegalStateException if the recording is still running
+     */
+    public synchronized Optional<Path> getRecordingFile(long id) {
+        Optional<AdminRecording> adminRecording = find(id);
+        if (adminRecording.isPresent() && adminRecording.get().isRunning()) {
+            throw new IllegalStateException("Recording " + id + " is still running");
+        }
+        return adminRecording.map(r -> r.file).filter(Files::exists);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        for (AdminRecording adminRecording : recordings) {
+            adminRecording.recording.close();
+        }
+    }
+
+    private Optional<AdminRecording> find(long id) {
+        return recordings.stream().filter(r -> r.recording.getId() == id).findFirst();
+    }
+
+    /**
+     * Drop the oldest recordings and their files beyond app.jfr.keep
+     */
+    private void evictOldRecordings() {
+        while (recordings.size() > keep) {
+            AdminRecording oldest = recordings.removeFirst();
+            oldest.recording.close();
+            try {
+                Files.deleteIfExists(oldest.file);
+            } catch (IOException e) {
+                log.warn("⚠️ [JFR] Could not delete old recording {}: {}", oldest.file, e.getMessage());
+            }
+        }
+    }
+
+    private static final class AdminRecording {
+
+        private final Recording recording;
+        private final Path file;
+        private final Instant startedAt;
+
+        private AdminRecording(Recording recording, Path file, Instant startedAt) {
+            this.recording = recording;
+            this.file = file;
+            this.startedAt = startedAt;
+        }
+
+        private boolean isRunning() {
+            RecordingState state = recording.getState();
+            return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+        }
+
+        private Map<String, Object> status() {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("id", recording.getId());
+            status.put("state", recording.getState().name());
+            status.put("startedAt", startedAt.toString());
+            status.put("durationSeconds", recording.getDuration() != null ? recording.getDuration().getSeconds() : null);
+            status.put("file", file.toString());
+            try {
+                status.put("sizeBytes", Files.exists(file) ? Files.size(file) : 0L);
+            } catch (IOException e) {
+                status.put("sizeBytes", null);
+            }
+            return status;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.model.DownstreamSystem;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Hedged downstream calls for tail-latency reduction.
+ *
+ * - Primary attempt latencies are recorded per system in an HdrHistogram Recorder,
+ *   failed attempts included at the time they took to fail (a simulated or real
+ *   timeout counts at the timeout). Leaving failures out would keep only the fast
+ *   survivors and bias the threshold low, firing more hedges exactly while a
+ *   system struggles. Hedges are not recorded: a hedge starts late and answers
+ *   fast, so its latency would pull the threshold down too
+ * - Every refresh interval the hedge threshold of each system is set to the
+ *   configured percentile (default p90) over a sliding window of intervals
+ * - If a call has not answered by its threshold a second attempt is fired and
+ *   whichever succeeds first wins
+ * - Hedges are capped by a token bucket funded by primary calls
+ *   (default: at most 10% extra load)
+ *
+ * Disabled by default (app.hedging.enabled); latencies are recorded either way.
+ */
+@Service
+@Slf4j
+public class HedgingService {
+
+    // Budget tokens are stored in thousandths so fractional deposits stay lock-free
+    private static final long SCALE = 1000;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minSamples;
+    private final int windowIntervals;
+    private final long depositPerCall;
+    private final long maxTokens;
+
+    private final Map<DownstreamSystem, Recorder> recorders = new EnumMap<>(DownstreamSystem.class);
+    private final Map<DownstreamSystem, Deque<Histogram>> windows = new EnumMap<>(DownstreamSystem.class);
+    private final Map<DownstreamSystem, AtomicLong> thresholdsMs = new EnumMap<>(DownstreamSystem.class);
+
+    private final AtomicLong tokens;
+    private final AtomicLong primaryCalls = new AtomicLong();
+    private final AtomicLong hedgesFired = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+    private final AtomicLong hedgesThrottled = new AtomicLong();
+
+    public HedgingService(@Value("${app.hedging.enabled:false}") boolean enabled,
+                          @Value("${app.hedging.percentile:90}") double percentile,
+                          @Value("${app.hedging.min-samples:50}") long minSamples,
+                          @Value("${app.hedging.window-intervals:12}") int windowIntervals,
+                          @Value("${app.hedging.budget-percent:10}") double budgetPercent,
+                          @Value("${app.hedging.max-tokens:10}") long maxTokens) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.windowIntervals = windowIntervals;
+        this.depositPerCall = Math.round(budgetPercent / 100.0 * SCALE);
+        this.maxTokens = maxTokens * SCALE;
+        this.tokens = new AtomicLong(this.maxTokens);
+
+        for (DownstreamSystem system : DownstreamSystem.values()) {
+            recorders.put(system, new Recorder(2));
+            windows.put(system, new ArrayDeque<>());
+            thresholdsMs.put(system, new AtomicLong(-1));
+        }
+
+        log.info("🪃 [HEDGING] {} - p{} threshold, {}% hedge budget",
+                 enabled ? "Enabled" : "Disabled", percentile, budgetPercent);
+    }
+
+    /**
+     * Call a downstream system, hedging it when it is slower than its threshold.
+     *
+     * @param attempt Starts one attempt (called once, or twice when hedged)
+     * @return Future of the first successful attempt; fails only if every attempt failed
+     */
+    public <T> CompletableFuture<T> call(DownstreamSystem system, Supplier<CompletableFuture<T>> attempt) {
+        CompletableFuture<T> primary = timed(system, attempt);
+
+        long hedgeDelayMs = thresholdsMs.get(system).get();
+        if (!enabled || hedgeDelayMs <= 0) {
+            return primary;
+        }
+
+        primaryCalls.incrementAndGet();
+        tokens.accumulateAndGet(depositPerCall, (current, add) -> Math.min(maxTokens, current + add));
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        BiConsumer<T, Throwable> onAttemptDone = (value, ex) -> {
+            if (ex == null) {
+                result.complete(value);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(ex);
+            }
+        };
+        primary.whenComplete(onAttemptDone);
+
+        CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (!tryAcquireHedge()) {
+                hedgesThrottled.incrementAndGet();
+                return;
+            }
+            pending.incrementAndGet();
+            hedgesFired.incrementAndGet();
+            log.debug("🪃 [HEDGING] {} slower than {}ms - sending hedge", system.getDisplayName(), hedgeDelayMs);
+
+            attempt.get().whenComplete((value, ex) -> {
+                if (ex == null && result.complete(value)) {
+                    hedgesWon.incrementAndGet();
+                } else {
+                    onAttemptDone.accept(value, ex);
+                }
+            });
+        });
+
+        return result;
+    }
+
+    /**
+     * Recompute the hedge thresholds from the latest latency interval
+     */
+    @Scheduled(fixedDelayString = "${app.hedging.refresh-interval-ms:5000}")
+    public void refreshThresholds() {
+        for (DownstreamSystem system : DownstreamSystem.values()) {
+            Deque<Histogram> window = windows.get(system);
+            window.addLast(recorders.get(system).getIntervalHistogram());
+            while (window.size() > windowIntervals) {
+                window.removeFirst();
+            }
+
+            Histogram combined = new Histogram(2);
+            window.forEach(combined::add);
+
+            // Not enough samples yet: do not hedge this system
+            long threshold = combined.getTotalCount() >= minSamples
+                    ? combined.getValueAtPercentile(percentile) : -1;
+            thresholdsMs.get(system).set(threshold);
+        }
+    }
+
+    /**
+     * Hedge thresholds and budget counters for the admin dashboard
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> thresholds = new LinkedHashMap<>();
+        thresholdsMs.forEach((system, threshold) -> thresholds.put(system.name(), threshold.get()));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("percentile", percentile);
+        stats.put("thresholdsMs", thresholds);
+        stats.put("availableTokens", tokens.get() / (double) SCALE);
+        stats.put("primaryCalls", primaryCalls.get());
+        stats.put("hedgesFired", hedgesFired.get());
+        stats.put("hedgesWon", hedgesWon.get());
+        stats.put("hedgesThrottled", hedgesThrottled.get());
+        return stats;
+    }
+
+    /**
+     * Start the primary attempt and record its latency when it completes, failed
+     * or not, even if a hedge already answered the call
+     */
+    private <T> CompletableFuture<T> timed(DownstreamSystem system, Supplier<CompletableFuture<T>> attempt) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future = attempt.get();
+        future.whenComplete((value, ex) ->
+                recorders.get(system).recordValue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        return future;
+    }
+
+    private boolean tryAcquireHedge() {
+        while (true) {
+            long current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.rsu.registration.service;
 
+import com.rsu.registration.config.DownstreamExecutorConfig;
 import com.rsu.registration.dto.HousingResponse;
 import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.model.DownstreamSystem;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Housing System Service
@@ -20,6 +24,14 @@ public class HousingSystemService {
     
     private final Random random = new Random();
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final Executor downstreamExecutor;
+    private final DownstreamSimulatorService simulator;
+    
+    public HousingSystemService(@Qualifier(DownstreamExecutorConfig.DOWNSTREAM_EXECUTOR) Executor downstreamExecutor,
+                                DownstreamSimulatorService simulator) {
+        this.downstreamExecutor = downstreamExecutor;
+        this.simulator = simulator;
+    }
     
     /**
      * Process housing assignment for first-year students
@@ -28,9 +40,8 @@ public class HousingSystemService {
     public CompletableFuture<HousingResponse> processHousingAssignment(StudentRegistrationDTO registration) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                // Simulate processing time (800ms - 2500ms)
-                int processingTime = 800 + random.nextInt(1700);
-                Thread.sleep(processingTime);
+                // Latency and injected faults come from the downstream simulator
+                long processingTime = simulator.simulateCall(DownstreamSystem.HOUSING);
                 
                 log.info("🏠 HOUSING SYSTEM: Processing housing assignment for {} (took {}ms)", 
                         registration.getStudentName(), processingTime);
@@ -60,7 +71,7 @@ public class HousingSystemService {
                 Thread.currentThread().interrupt();
                 throw new RuntimeException("Housing processing failed", e);
             }
-        });
+        }, downstreamExecutor);
     }
     
     private String determineDormitory(String program) {
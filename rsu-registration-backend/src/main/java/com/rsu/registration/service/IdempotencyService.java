@@ -0,0 +1,180 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.repository.ProcessedMessageRepository;
+import com.rsu.registration.util.ScalableBloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Idempotent Consumer for registration messages
+ * 
+ * EIP Pattern: Idempotent Receiver
+ * RabbitMQ may redeliver a message (e.g. after a reconnect). Before any
+ * routing or aggregation work the listener asks this service whether the
+ * message ID or student ID was already processed.
+ * 
+ * - An in-memory Bloom filter answers the common "never seen" case without
+ *   touching the database
+ * - Bloom filter positives are confirmed against the processed_messages table
+ * - Records expire after a TTL; the cleanup task also rebuilds the filter so
+ *   expired keys stop producing positives
+ * 
+ * The filter is a per-node pre-check of the keys this node has loaded or
+ * processed; the processed_messages table is the source of truth across nodes.
+ * A filter negative only skips the database while this is the only node
+ * consuming the queue (app.idempotency.bloom.enabled=false on a multi-node
+ * deployment sends every check to the database).
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+    
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final long ttlHours;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final boolean bloomEnabled;
+    
+    private volatile ScalableBloomFilter bloomFilter;
+    private volatile ScalableBloomFilter rebuildingFilter;
+    private volatile boolean bloomFilterReady = false;
+    
+    public IdempotencyService(ProcessedMessageRepository processedMessageRepository,
+                              @Value("${app.idempotency.ttl-hours:168}") long ttlHours,
+                              @Value("${app.idempotency.bloom.expected-insertions:100000}") long expectedInsertions,
+                              @Value("${app.idempotency.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                              @Value("${app.idempotency.bloom.enabled:true}") boolean bloomEnabled) {
+        this.processedMessageRepository = processedMessageRepository;
+        this.ttlHours = ttlHours;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomEnabled = bloomEnabled;
+        this.bloomFilter = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+    }
+    
+    /**
+     * Load existing deduplication keys into the Bloom filter on startup.
+     * Until this succeeds every check goes to the database.
+     */
+    @PostConstruct
+    public void initialize() {
+        if (!bloomEnabled) {
+            log.info("ℹ️ [IDEMPOTENCY] Bloom filter disabled, every check uses the database");
+            return;
+        }
+        try {
+            rebuildBloomFilter();
+        } catch (Exception e) {
+            log.warn("⚠️ [IDEMPOTENCY] Could not load deduplication keys, checks will use the database: {}",
+                     e.getMessage());
+        }
+    }
+    
+    /**
+     * Check whether a message was already processed.
+     * 
+     * @param messageId AMQP message ID (may be null)
+     * @param studentId Student ID carried by the message
+     * @return true if the message (or the student) was already processed
+     */
+    public boolean isDuplicate(String messageId, String studentId) {
+        String key = deduplicationKey(messageId, studentId);
+        
+        if (bloomFilterReady && !bloomFilter.mightContain(key) && !bloomFilter.mightContain(studentId)) {
+            return false;
+        }
+        
+        return processedMessageRepository.existsByMessageIdOrStudentId(key, studentId);
+    }
+    
+    /**
+     * Record a message as processed.
+     * The key enters the Bloom filter once the insert has committed.
+     */
+    @Transactional
+    public void markProcessed(String messageId, String studentId) {
+        String key = deduplicationKey(messageId, studentId);
+        LocalDateTime now = LocalDateTime.now();
+        
+        processedMessageRepository.insertIfAbsent(key, studentId, now, now.plusHours(ttlHours));
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addCommittedKey(key, studentId);
+            }
+        });
+    }
+    
+    /**
+     * Remove expired deduplication records and rebuild the Bloom filter.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}",
+               initialDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void cleanupExpired() {
+        int deleted = processedMessageRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("🧹 [IDEMPOTENCY] Removed {} expired deduplication records", deleted);
+        }
+        rebuildBloomFilter();
+    }
+    
+    /**
+     * Approximate number of keys in the Bloom filter.
+     */
+    public long getBloomFilterSize() {
+        return bloomFilter.approximateElementCount();
+    }
+    
+    /**
+     * Add a committed key without losing it to a concurrent rebuild: a rebuild
+     * that is loading gets the key directly, one that starts later loads it from
+     * the table, and one that already swapped is the filter read afterwards.
+     */
+    private void addCommittedKey(String key, String studentId) {
+        ScalableBloomFilter rebuilding = rebuildingFilter;
+        if (rebuilding != null) {
+            addToFilter(rebuilding, key, studentId);
+        }
+        addToFilter(bloomFilter, key, studentId);
+    }
+    
+    private void rebuildBloomFilter() {
+        if (!bloomEnabled) {
+            return;
+        }
+        ScalableBloomFilter rebuilt = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+        // Keys marked while loading go to both filters
+        rebuildingFilter = rebuilt;
+        try {
+            List<Object[]> keys = processedMessageRepository.findAllKeys();
+            for (Object[] row : keys) {
+                addToFilter(rebuilt, (String) row[0], (String) row[1]);
+            }
+            bloomFilter = rebuilt;
+            bloomFilterReady = true;
+            log.info("✅ [IDEMPOTENCY] Bloom filter loaded with {} processed messages", keys.size());
+        } finally {
+            rebuildingFilter = null;
+        }
+    }
+    
+    private void addToFilter(ScalableBloomFilter filter, String key, String studentId) {
+        filter.put(key);
+        filter.put(studentId);
+    }
+    
+    private String deduplicationKey(String messageId, String studentId) {
+        return messageId != null ? messageId : studentId;
+    }
+}
@@ -0,0 +1,176 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.model.DownstreamSystem;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling latency percentiles of the downstream systems and of whole aggregations
+ * over the last 1 minute, 5 minutes and 1 hour (GET /api/v1/admin/latency).
+ *
+ * - Latencies are recorded in microseconds into a fixed-range HdrHistogram Recorder
+ *   per series: wait-free and allocation-free, so it can sit on every call
+ * - Every tick (app.latency.tick-ms) the interval histogram is moved into a packed
+ *   (sparse) slice; the last 5 minutes are kept as tick slices, the last hour as
+ *   one slice per minute
+ * - Windows are merged from the slices when read, so they lag by up to one tick
+ *   (the hour window is the last 59 full minutes plus the current one)
+ *
+ * Values above one hour are clamped to one hour.
+ */
+@Service
+public class LatencyHistogramService {
+
+    public static final String AGGREGATION_SERIES = "AGGREGATION";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final long tickMs;
+    private final int ticksPerMinute;
+    private final Map<DownstreamSystem, Series> systems = new EnumMap<>(DownstreamSystem.class);
+    private final Series aggregation;
+
+    public LatencyHistogramService(@Value("${app.latency.tick-ms:10000}") long tickMs) {
+        if (tickMs <= 0 || TimeUnit.MINUTES.toMillis(1) % tickMs != 0) {
+            throw new IllegalArgumentException("app.latency.tick-ms must divide one minute, was " + tickMs);
+        }
+        this.tickMs = tickMs;
+        this.ticksPerMinute = (int) (TimeUnit.MINUTES.toMillis(1) / tickMs);
+
+        for (DownstreamSystem system : DownstreamSystem.values()) {
+            systems.put(system, new Series());
+        }
+        aggregation = new Series();
+    }
+
+    /**
+     * Record one downstream system call
+     */
+    public void recordDownstreamCall(DownstreamSystem system, long nanos) {
+        systems.get(system).record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Record one whole aggregation (AggregatedStudentProfile.aggregationTimeMs)
+     */
+    public void recordAggregation(long millis) {
+        aggregation.record(TimeUnit.MILLISECONDS.toMicros(millis));
+    }
+
+    /**
+     * Close the current tick of every series
+     */
+    @Scheduled(fixedRateString = "${app.latency.tick-ms:10000}")
+    public void tick() {
+        systems.values().forEach(Series::tick);
+        aggregation.tick();
+    }
+
+    /**
+     * p50/p90/p99/p99.9 in milliseconds per series and window
+     */
+    public Map<String, Object> getLatency() {
+        Map<String, Object> series = new LinkedHashMap<>();
+        systems.forEach((system, s) -> series.put(system.name(), s.snapshot()));
+        series.put(AGGREGATION_SERIES, aggregation.snapshot());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("unit", "ms");
+        result.put("tickMs", tickMs);
+        result.put("series", series);
+        return result;
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", histogram.getTotalCount());
+        if (histogram.getTotalCount() == 0) {
+            return result;
+        }
+        result.put("p50", toMillis(histogram.getValueAtPercentile(50)));
+        result.put("p90", toMillis(histogram.getValueAtPercentile(90)));
+        result.put("p99", toMillis(histogram.getValueAtPercentile(99)));
+        result.put("p999", toMillis(histogram.getValueAtPercentile(99.9)));
+        result.put("max", toMillis(histogram.getMaxValue()));
+        result.put("mean", Math.round(histogram.getMean()) / 1000.0);
+        return result;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static PackedHistogram newSlice() {
+        return new PackedHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * Recorder and rolling slices of one latency series
+     */
+    private final class Series {
+
+        private final Recorder recorder = new Recorder(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Deque<Histogram> ticks = new ArrayDeque<>();
+        private final Deque<Histogram> minutes = new ArrayDeque<>();
+        private Histogram interval;
+        private Histogram currentMinute = newSlice();
+        private int ticksInMinute;
+
+        void record(long micros) {
+            recorder.recordValue(Math.max(0, Math.min(micros, HIGHEST_TRACKABLE_MICROS)));
+        }
+
+        synchronized void tick() {
+            interval = recorder.getIntervalHistogram(interval);
+
+            Histogram slice = newSlice();
+            slice.add(interval);
+            ticks.addLast(slice);
+            while (ticks.size() > 5 * ticksPerMinute) {
+                ticks.removeFirst();
+            }
+
+            currentMinute.add(interval);
+            if (++ticksInMinute == ticksPerMinute) {
+                minutes.addLast(currentMinute);
+                while (minutes.size() > 59) {
+                    minutes.removeFirst();
+                }
+                currentMinute = newSlice();
+                ticksInMinute = 0;
+            }
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> windows = new LinkedHashMap<>();
+            windows.put("1m", percentiles(mergeLatest(ticks, ticksPerMinute)));
+            windows.put("5m", percentiles(mergeLatest(ticks, 5 * ticksPerMinute)));
+            Histogram lastHour = mergeLatest(minutes, 59);
+            lastHour.add(currentMinute);
+            windows.put("1h", percentiles(lastHour));
+            return windows;
+        }
+
+        private Histogram mergeLatest(Deque<Histogram> slices, int count) {
+            Histogram merged = newSlice();
+            Iterator<Histogram> newestFirst = slices.descendingIterator();
+            for (int i = 0; i < count && newestFirst.hasNext(); i++) {
+                merged.add(newestFirst.next());
+            }
+            return merged;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.rsu.registration.service;
 
+import com.rsu.registration.config.DownstreamExecutorConfig;
 import com.rsu.registration.dto.LibraryResponse;
 import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.model.DownstreamSystem;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -10,8 +13,8 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Library Services System Service
@@ -21,8 +24,15 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class LibrarySystemService {
     
-    private final Random random = new Random();
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final Executor downstreamExecutor;
+    private final DownstreamSimulatorService simulator;
+    
+    public LibrarySystemService(@Qualifier(DownstreamExecutorConfig.DOWNSTREAM_EXECUTOR) Executor downstreamExecutor,
+                                DownstreamSimulatorService simulator) {
+        this.downstreamExecutor = downstreamExecutor;
+        this.simulator = simulator;
+    }
     
     /**
      * Process library account activation for all students
@@ -31,9 +41,8 @@ public class LibrarySystemService {
     public CompletableFuture<LibraryResponse> processLibraryAccountActivation(StudentRegistrationDTO registration) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                // Simulate processing time (400ms - 1800ms)
-                int processingTime = 400 + random.nextInt(1400);
-                Thread.sleep(processingTime);
+                // Latency and injected faults come from the downstream simulator
+                long processingTime = simulator.simulateCall(DownstreamSystem.LIBRARY);
                 
                 log.info("📚 LIBRARY SYSTEM: Processing library account for {} (took {}ms)", 
                         registration.getStudentName(), processingTime);
@@ -64,7 +73,7 @@ public class LibrarySystemService {
                 Thread.currentThread().interrupt();
                 throw new RuntimeException("Library processing failed", e);
             }
-        });
+        }, downstreamExecutor);
     }
     
     private String generateLibraryCardNumber(String studentId) {
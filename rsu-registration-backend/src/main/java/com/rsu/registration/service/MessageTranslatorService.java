@@ -1,6 +1,7 @@
 package com.rsu.registration.service;
 
 import com.rsu.registration.dto.*;
+import com.rsu.registration.jfr.TranslationStepEvent;
 import com.rsu.registration.translator.impl.JsonToXmlTranslator;
 import com.rsu.registration.translator.impl.XmlToCsvTranslator;
 import com.rsu.registration.translator.impl.XmlToJsonTranslator;
@@ -9,9 +10,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Message Translator Service
  * Coordinates message translations between different formats
+ * Each step of the chain is timed as a {@link TranslationStepEvent} for Flight Recorder
  */
 @Service
 public class MessageTranslatorService {
@@ -26,6 +30,9 @@ public class MessageTranslatorService {
     
     @Autowired
     private XmlToCsvTranslator xmlToCsvTranslator;
+    
+    @Autowired
+    private PipelineMetricsService pipelineMetrics;
 
     /**
      * Execute complete translation chain for student registration
@@ -36,12 +43,18 @@ public class MessageTranslatorService {
         
         TranslationChainDTO chain = new TranslationChainDTO();
         chain.setOriginalFormat("JSON");
+        String studentId = registration.getStudentId();
+        String step = "json_to_xml";
+        TranslationStepEvent stepEvent = TranslationStepEvent.start();
         
         try {
             // Step 1: JSON → XML (for Academic Records)
-            long startTime = System.currentTimeMillis();
+            long startTime = System.nanoTime();
             AcademicRecordsXmlDto xmlDto = jsonToXmlTranslator.translate(registration);
-            long duration = System.currentTimeMillis() - startTime;
+            long stepNanos = System.nanoTime() - startTime;
+            stepEvent.finish(studentId, step, true);
+            pipelineMetrics.recordTranslationStep(step, stepNanos);
+            long duration = TimeUnit.NANOSECONDS.toMillis(stepNanos);
             
             chain.addTranslationStep(
                     jsonToXmlTranslator.getTranslatorName(),
@@ -54,9 +67,14 @@ public class MessageTranslatorService {
             logger.info("   ✅ Step 1: JSON → XML completed in {}ms", duration);
             
             // Step 2: XML → JSON (for Billing System)
-            startTime = System.currentTimeMillis();
+            step = "xml_to_json";
+            stepEvent = TranslationStepEvent.start();
+            startTime = System.nanoTime();
             BillingSystemJsonDto billingJsonDto = xmlToJsonTranslator.translate(xmlDto);
-            duration = System.currentTimeMillis() - startTime;
+            stepNanos = System.nanoTime() - startTime;
+            stepEvent.finish(studentId, step, true);
+            pipelineMetrics.recordTranslationStep(step, stepNanos);
+            duration = TimeUnit.NANOSECONDS.toMillis(stepNanos);
             
             chain.addTranslationStep(
                     xmlToJsonTranslator.getTranslatorName(),
@@ -69,9 +87,14 @@ public class MessageTranslatorService {
             logger.info("   ✅ Step 2: XML → JSON (Billing) completed in {}ms", duration);
             
             // Step 3: XML → CSV (for Library Services)
-            startTime = System.currentTimeMillis();
+            step = "xml_to_csv";
+            stepEvent = TranslationStepEvent.start();
+            startTime = System.nanoTime();
             LibraryServicesCsvDto csvDto = xmlToCsvTranslator.translate(xmlDto);
-            duration = System.currentTimeMillis() - startTime;
+            stepNanos = System.nanoTime() - startTime;
+            stepEvent.finish(studentId, step, true);
+            pipelineMetrics.recordTranslationStep(step, stepNanos);
+            duration = TimeUnit.NANOSECONDS.toMillis(stepNanos);
             
             chain.addTranslationStep(
                     xmlToCsvTranslator.getTranslatorName(),
@@ -87,6 +110,7 @@ public class MessageTranslatorService {
             logger.info("✅ [TRANSLATION CHAIN] Complete! Total time: {}ms", chain.getTotalTranslationTimeMs());
             
         } catch (Exception e) {
+            stepEvent.finish(studentId, step, false);
             chain.setSuccessful(false);
             logger.error("❌ [TRANSLATION CHAIN] Failed: {}", e.getMessage());
             throw new RuntimeException("Translation chain failed", e);
@@ -0,0 +1,232 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.model.OutboxMessage;
+import com.rsu.registration.model.OutboxStatus;
+import com.rsu.registration.repository.OutboxMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Outbox Relay
+ * 
+ * Streams pending outbox rows to the registration exchange in batches.
+ * Each message is published with a CorrelationData and the batch waits for
+ * the broker's correlated publisher confirms; only acknowledged (and not
+ * returned) messages are marked SENT. Everything else stays PENDING and is
+ * picked up again after a backoff.
+ * 
+ * Rows are locked with FOR UPDATE SKIP LOCKED for the duration of a batch,
+ * so several application instances can relay concurrently.
+ */
+@Service
+@Slf4j
+public class OutboxRelayService {
+    
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final String TYPE_ID_HEADER = "__TypeId__";
+    
+    private final OutboxMessageRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PipelineMetricsService pipelineMetrics;
+    private final TracingService tracingService;
+    private final QueueMonitorService queueMonitor;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+    
+    private int consecutiveFailures = 0;
+    private long pausedUntil = 0;
+    
+    public OutboxRelayService(OutboxMessageRepository outboxRepository,
+                              RabbitTemplate rabbitTemplate,
+                              TransactionTemplate transactionTemplate,
+                              PipelineMetricsService pipelineMetrics,
+                              TracingService tracingService,
+                              QueueMonitorService queueMonitor,
+                              @Value("${app.outbox.batch-size:100}") int batchSize,
+                              @Value("${app.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.pipelineMetrics = pipelineMetrics;
+        this.tracingService = tracingService;
+        this.queueMonitor = queueMonitor;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+    
+    /**
+     * Publish pending outbox rows until the outbox is drained or a batch fails.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:200}")
+    public void relay() {
+        if (System.currentTimeMillis() < pausedUntil) {
+            return;
+        }
+        
+        BatchResult result;
+        do {
+            result = transactionTemplate.execute(status -> relayBatch());
+        } while (result != null && result.isFullyConfirmed() && result.size == batchSize);
+    }
+    
+    /**
+     * Publish one locked batch and wait for its confirms.
+     */
+    private BatchResult relayBatch() {
+        List<OutboxMessage> batch = outboxRepository.lockPendingBatch(batchSize);
+        if (batch.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+        
+        // Publish the whole batch, then collect the confirms
+        Map<Long, CorrelationData> inFlight = new LinkedHashMap<>();
+        String error = null;
+        for (OutboxMessage outboxMessage : batch) {
+            CorrelationData correlationData = new CorrelationData(outboxMessage.getMessageId());
+            // Publish span under the submit request's trace; ends when the confirm arrives
+            TracingService.Span span = tracingService.startSpan("outbox publish", TracingService.Span.PRODUCER,
+                    outboxMessage.getTraceparent())
+                    .tag("studentId", outboxMessage.getStudentId())
+                    .tag("messageId", outboxMessage.getMessageId())
+                    .tag("attempt", outboxMessage.getAttempts() + 1);
+            long sentAt = System.nanoTime();
+            try {
+                rabbitTemplate.send(outboxMessage.getExchange(), outboxMessage.getRoutingKey(),
+                        toAmqpMessage(outboxMessage, span.traceparent()), correlationData);
+                pipelineMetrics.recordPublish(System.nanoTime() - sentAt, true);
+                // Taken when the confirm arrives (late confirms included), not when this thread collects it
+                correlationData.getFuture().addCallback(
+                        confirm -> {
+                            String outcome = correlationData.getReturned() != null ? "returned"
+                                    : confirm.isAck() ? "ack" : "nack";
+                            pipelineMetrics.recordConfirm(System.nanoTime() - sentAt, outcome);
+                            span.tag("confirm", outcome).end();
+                        },
+                        ex -> {
+                            pipelineMetrics.recordConfirm(System.nanoTime() - sentAt, "nack");
+                            span.tag("confirm", "nack").error(ex).end();
+                        });
+                inFlight.put(outboxMessage.getId(), correlationData);
+            } catch (AmqpException e) {
+                // Broker unreachable: leave the rest of the batch pending
+                pipelineMetrics.recordPublish(System.nanoTime() - sentAt, false);
+                span.error(e).end();
+                error = e.getMessage();
+                break;
+            }
+        }
+        
+        List<Long> confirmed = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + confirmTimeoutMs;
+        for (Map.Entry<Long, CorrelationData> entry : inFlight.entrySet()) {
+            CorrelationData correlationData = entry.getValue();
+            try {
+                long remaining = Math.max(1, deadline - System.currentTimeMillis());
+                CorrelationData.Confirm confirm = correlationData.getFuture().get(remaining, TimeUnit.MILLISECONDS);
+                if (confirm.isAck() && correlationData.getReturned() == null) {
+                    confirmed.add(entry.getKey());
+                } else if (correlationData.getReturned() != null) {
+                    error = "Message returned: " + correlationData.getReturned().getReplyText();
+                } else {
+                    error = "Message not confirmed: " + confirm.getReason();
+                }
+            } catch (TimeoutException e) {
+                error = "Publisher confirm timed out after " + confirmTimeoutMs + "ms";
+            } catch (ExecutionException e) {
+                error = e.getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = "Relay interrupted";
+                break;
+            }
+        }
+        
+        if (!confirmed.isEmpty()) {
+            outboxRepository.markSent(confirmed, OutboxStatus.SENT, LocalDateTime.now());
+            queueMonitor.recordPublished(confirmed.size());
+        }
+        
+        if (error != null) {
+            List<Long> failed = new ArrayList<>();
+            for (OutboxMessage outboxMessage : batch) {
+                if (!confirmed.contains(outboxMessage.getId())) {
+                    failed.add(outboxMessage.getId());
+                }
+            }
+            outboxRepository.markFailed(failed, truncate(error));
+            backOff(error, failed.size());
+        } else {
+            consecutiveFailures = 0;
+        }
+        
+        log.debug("📤 [OUTBOX RELAY] Published {}/{} messages", confirmed.size(), batch.size());
+        return new BatchResult(batch.size(), confirmed.size());
+    }
+    
+    private Message toAmqpMessage(OutboxMessage outboxMessage, String traceparent) {
+        return MessageBuilder.withBody(outboxMessage.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId(outboxMessage.getMessageId())
+                .setTimestamp(Timestamp.valueOf(outboxMessage.getCreatedAt()))
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setHeader(TYPE_ID_HEADER, StudentRegistrationDTO.class.getName())
+                .setHeader(TracingService.TRACEPARENT_HEADER, traceparent)
+                .build();
+    }
+    
+    private void backOff(String error, int failedCount) {
+        consecutiveFailures++;
+        long backoffMs = Math.min(MAX_BACKOFF_MS, 1000L << Math.min(consecutiveFailures - 1, 5));
+        pausedUntil = System.currentTimeMillis() + backoffMs;
+        log.warn("⚠️ [OUTBOX RELAY] {} messages not confirmed ({}), pausing relay for {}ms", 
+                 failedCount, error, backoffMs);
+    }
+    
+    private String truncate(String value) {
+        if (value == null || value.length() <= 1000) {
+            return value;
+        }
+        return value.substring(0, 985) + "... (truncated)";
+    }
+    
+    /**
+     * Result of one relay batch.
+     */
+    private static final class BatchResult {
+        private final int size;
+        private final int confirmed;
+        
+        BatchResult(int size, int confirmed) {
+            this.size = size;
+            this.confirmed = confirmed;
+        }
+        
+        boolean isFullyConfirmed() {
+            return confirmed == size;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.rsu.registration.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.model.OutboxMessage;
+import com.rsu.registration.model.OutboxStatus;
+import com.rsu.registration.repository.OutboxMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.rsu.registration.integration.RegistrationIntegrationConfig.REGISTRATION_EXCHANGE;
+
+/**
+ * Transactional Outbox for registration submissions
+ * 
+ * The submit endpoint records the registration intent in the outbox table
+ * in one local transaction instead of publishing to RabbitMQ directly.
+ * {@link OutboxRelayService} publishes the rows afterwards, so a broker
+ * outage delays delivery but never fails a submission or loses a message.
+ */
+@Service
+@Slf4j
+public class OutboxService {
+    
+    public static final String SUBMIT_ROUTING_KEY = "student.registration.submit";
+    
+    private final OutboxMessageRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final TracingService tracingService;
+    private final long retentionHours;
+    
+    public OutboxService(OutboxMessageRepository outboxRepository,
+                         ObjectMapper objectMapper,
+                         TracingService tracingService,
+                         @Value("${app.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.tracingService = tracingService;
+        this.retentionHours = retentionHours;
+    }
+    
+    /**
+     * Write a registration to the outbox, with the trace context of the caller.
+     * 
+     * @param registrationDTO Registration data
+     * @return The saved outbox row (its message ID becomes the AMQP message ID)
+     */
+    @Transactional
+    public OutboxMessage enqueue(StudentRegistrationDTO registrationDTO) {
+        try {
+            OutboxMessage outboxMessage = OutboxMessage.builder()
+                    .messageId(UUID.randomUUID().toString())
+                    .studentId(registrationDTO.getStudentId())
+                    .exchange(REGISTRATION_EXCHANGE)
+                    .routingKey(SUBMIT_ROUTING_KEY)
+                    .payload(objectMapper.writeValueAsString(registrationDTO))
+                    .status(OutboxStatus.PENDING)
+                    .attempts(0)
+                    .traceparent(tracingService.currentTraceparent())
+                    .build();
+            
+            outboxMessage = outboxRepository.save(outboxMessage);
+            log.info("📤 [OUTBOX] Registration for student {} stored as message {}", 
+                     registrationDTO.getStudentId(), outboxMessage.getMessageId());
+            return outboxMessage;
+            
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalArgumentException("Registration could not be serialized", e);
+        }
+    }
+    
+    /**
+     * Number of registrations waiting to be published.
+     */
+    public long getPendingCount() {
+        return outboxRepository.countByStatus(OutboxStatus.PENDING);
+    }
+    
+    /**
+     * Delete confirmed rows older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval-ms:3600000}",
+               initialDelayString = "${app.outbox.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void cleanupSent() {
+        int deleted = outboxRepository.deleteSentBefore(OutboxStatus.SENT, 
+                LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.info("🧹 [OUTBOX] Removed {} published outbox rows", deleted);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.model.DownstreamSystem;
+import com.rsu.registration.model.RetryStatus;
+import com.rsu.registration.repository.FailedMessageRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer meters for every stage of the registration pipeline,
+ * scraped from /actuator/prometheus.
+ *
+ * Timers (nanosecond precision, tagged by outcome where a stage can fail):
+ * - registration.submit: POST /submit until the response
+ * - registration.outbox.publish / registration.outbox.confirm: send to the broker,
+ *   and send until the publisher confirm
+ * - registration.listener: AMQP listener processing of one delivery
+ * - registration.downstream: each downstream system call, by system and outcome
+ * - registration.aggregation: whole aggregation, by aggregation status (its count
+ *   is the number of COMPLETE / PARTIAL / TIMEOUT profiles)
+ * - registration.db.save: registration upsert, including the commit
+ * - registration.translation: each step of the translation chain
+ *
+ * Gauges registration.retry.queue and registration.dlq.size are refreshed from the
+ * database on a schedule, so a scrape never waits for a count query.
+ */
+@Service
+@Slf4j
+public class PipelineMetricsService {
+
+    private final MeterRegistry registry;
+    private final FailedMessageRepository failedMessageRepository;
+    private final AtomicLong retryQueueDepth = new AtomicLong();
+    private final AtomicLong deadLetterQueueSize = new AtomicLong();
+
+    public PipelineMetricsService(MeterRegistry registry, FailedMessageRepository failedMessageRepository) {
+        this.registry = registry;
+        this.failedMessageRepository = failedMessageRepository;
+
+        Gauge.builder("registration.retry.queue", retryQueueDepth, AtomicLong::get)
+                .description("Failed messages waiting for or in an automatic retry")
+                .register(registry);
+        Gauge.builder("registration.dlq.size", deadLetterQueueSize, AtomicLong::get)
+                .description("Failed messages in the dead letter queue")
+                .register(registry);
+    }
+
+    public void recordSubmit(long nanos, String outcome) {
+        timer("registration.submit", "outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPublish(long nanos, boolean sent) {
+        timer("registration.outbox.publish", "outcome", sent ? "sent" : "error").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param outcome ack, nack or returned
+     */
+    public void recordConfirm(long nanos, String outcome) {
+        timer("registration.outbox.confirm", "outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param outcome processed, duplicate or failed
+     */
+    public void recordListener(long nanos, String outcome) {
+        timer("registration.listener", "outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param outcome success, failure or circuit_open
+     */
+    public void recordDownstreamCall(DownstreamSystem system, long nanos, String outcome) {
+        timer("registration.downstream", "system", system.name(), "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAggregation(String status, long millis) {
+        timer("registration.aggregation", "status", status).record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordDbSave(long nanos) {
+        timer("registration.db.save").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTranslationStep(String step, long nanos) {
+        timer("registration.translation", "step", step).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Refresh the retry queue and DLQ gauges
+     */
+    @Scheduled(fixedDelayString = "${app.metrics.queue-refresh-ms:15000}")
+    public void refreshQueueGauges() {
+        try {
+            retryQueueDepth.set(failedMessageRepository.countByStatus(RetryStatus.PENDING_RETRY)
+                    + failedMessageRepository.countByStatus(RetryStatus.RETRYING));
+            deadLetterQueueSize.set(failedMessageRepository.countByInDeadLetterQueueTrue());
+        } catch (Exception e) {
+            log.warn("⚠️ [METRICS] Could not refresh queue gauges: {}", e.getMessage());
+        }
+    }
+
+    private Timer timer(String name, String... tags) {
+        return Timer.builder(name).tags(tags).register(registry);
+    }
+}
@@ -0,0 +1,149 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.dto.AggregatedStudentProfile;
+import com.rsu.registration.dto.RegistrationStatusEvent;
+import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.model.StudentRegistration;
+import com.rsu.registration.repository.StudentRegistrationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+
+/**
+ * Background backfill of PARTIAL student profiles.
+ * 
+ * Registrations saved as PROFILE_PARTIAL (a downstream system failed or its
+ * circuit was open) are re-aggregated in small batches once every circuit is
+ * closed again. A profile that is now complete is saved as PROFILE_COMPLETE.
+ * 
+ * - Only the systems missing from the stored partial profile are called again
+ * - Every attempt is stamped and the least recently tried registrations go
+ *   first, so a registration that keeps failing does not block newer ones
+ * - The batch runs on its own thread, not on the shared scheduler; a pass is
+ *   skipped while the previous one is still running
+ */
+@Service
+@Slf4j
+public class ProfileBackfillService {
+    
+    private static final String PARTIAL_STATUS = "PROFILE_PARTIAL";
+    private static final String COMPLETE_STATUS = "PROFILE_COMPLETE";
+    
+    private final StudentRegistrationRepository registrationRepository;
+    private final StudentRegistrationService registrationService;
+    private final StudentProfileAggregatorService aggregatorService;
+    private final ContentBasedRouterService contentBasedRouterService;
+    private final RegistrationProcessingService processingService;
+    private final CircuitBreakerService circuitBreakerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    
+    private ThreadPoolTaskExecutor backfillExecutor;
+    
+    public ProfileBackfillService(StudentRegistrationRepository registrationRepository,
+                                  StudentRegistrationService registrationService,
+                                  StudentProfileAggregatorService aggregatorService,
+                                  ContentBasedRouterService contentBasedRouterService,
+                                  RegistrationProcessingService processingService,
+                                  CircuitBreakerService circuitBreakerService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.backfill.batch-size:5}") int batchSize) {
+        this.registrationRepository = registrationRepository;
+        this.registrationService = registrationService;
+        this.aggregatorService = aggregatorService;
+        this.contentBasedRouterService = contentBasedRouterService;
+        this.processingService = processingService;
+        this.circuitBreakerService = circuitBreakerService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+    
+    @PostConstruct
+    public void startBackfillExecutor() {
+        backfillExecutor = new ThreadPoolTaskExecutor();
+        backfillExecutor.setCorePoolSize(1);
+        backfillExecutor.setMaxPoolSize(1);
+        backfillExecutor.setQueueCapacity(0);
+        backfillExecutor.setThreadNamePrefix("backfill-");
+        backfillExecutor.initialize();
+    }
+    
+    @PreDestroy
+    public void stopBackfillExecutor() {
+        backfillExecutor.shutdown();
+    }
+    
+    /**
+     * Hand a backfill pass to the backfill thread while all downstream systems are healthy
+     */
+    @Scheduled(fixedDelayString = "${app.backfill.interval-ms:60000}",
+               initialDelayString = "${app.backfill.interval-ms:60000}")
+    public void backfillPartialProfiles() {
+        if (!circuitBreakerService.allClosed()) {
+            log.info("⏸️ [BACKFILL] Circuit open - postponing backfill of partial profiles");
+            return;
+        }
+        try {
+            backfillExecutor.execute(this::backfillBatch);
+        } catch (TaskRejectedException e) {
+            log.info("⏸️ [BACKFILL] Previous backfill pass still running - skipping this one");
+        }
+    }
+    
+    /**
+     * Re-aggregate a batch of partial profiles, least recently tried first
+     */
+    private void backfillBatch() {
+        List<StudentRegistration> partial = registrationRepository
+                .findBackfillCandidates(PARTIAL_STATUS, PageRequest.of(0, batchSize));
+        if (partial.isEmpty()) {
+            return;
+        }
+        
+        log.info("🔁 [BACKFILL] Re-aggregating {} partial profiles", partial.size());
+        int completed = 0;
+        
+        for (StudentRegistration registration : partial) {
+            StudentRegistrationDTO registrationDTO = StudentRegistrationDTO.builder()
+                    .studentName(registration.getStudentName())
+                    .studentId(registration.getStudentId())
+                    .email(registration.getEmail())
+                    .program(registration.getProgram())
+                    .yearLevel(registration.getYearLevel())
+                    .build();
+            
+            AggregatedStudentProfile profile = aggregatorService.completeProfileAsync(
+                    registrationDTO, registrationService.readPartialProfile(registration)).join();
+            boolean complete = "COMPLETE".equals(profile.getAggregationStatus());
+            String profileMessage = processingService.buildProfileMessage(
+                    contentBasedRouterService.routedSystems(registration.getYearLevel()), profile);
+            boolean updated = registrationService.updateBackfilledProfile(registration.getId(),
+                    complete ? COMPLETE_STATUS : PARTIAL_STATUS, profileMessage, profile);
+            
+            if (!complete) {
+                log.warn("⚠️ [BACKFILL] Profile for {} still {} - skipped: {}", 
+                        registration.getStudentId(), profile.getAggregationStatus(), profile.getSkippedSystems());
+                if (!circuitBreakerService.allClosed()) {
+                    break;
+                }
+                continue;
+            }
+            
+            if (updated) {
+                eventPublisher.publishEvent(RegistrationStatusEvent.registration(registration.getStudentId(), COMPLETE_STATUS));
+                completed++;
+            }
+        }
+        
+        log.info("✅ [BACKFILL] Completed {}/{} partial profiles", completed, partial.size());
+    }
+}
@@ -0,0 +1,236 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.integration.RegistrationIntegrationConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Depth and consumer lag of student.registration.queue, used for submit-time backpressure.
+ *
+ * - Ready message count and consumer count are sampled with a passive queue declare
+ *   through the AMQP client (no management plugin needed)
+ * - Publish and deliver rates are this instance's confirmed publishes and listener
+ *   deliveries per second over the last sample interval
+ * - The oldest unacked message is the oldest delivery still in the listener (deliveries
+ *   are handled in order, so prefetched messages behind it are younger); its age is
+ *   measured from the publish timestamp
+ *
+ * Submissions are shed while the ready count reaches app.queue-monitor.max-depth or the
+ * oldest unacked message is older than app.queue-monitor.max-lag-ms, until both are back
+ * under app.queue-monitor.resume-fraction of their limits. An unreachable broker does not
+ * shed by itself: the outbox absorbs broker outages.
+ */
+@Service
+@Slf4j
+public class QueueMonitorService {
+
+    private final AmqpAdmin amqpAdmin;
+    private final long maxDepth;
+    private final long maxLagMs;
+    private final double resumeFraction;
+    private final long maxRetryAfterSeconds;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong deliveryTokens = new AtomicLong();
+    private final Map<Long, Long> inFlight = new ConcurrentHashMap<>();
+
+    private volatile long depth = -1;
+    private volatile long consumers = -1;
+    private volatile double publishRate;
+    private volatile double deliverRate;
+    private volatile boolean brokerReachable;
+    private volatile String lastError;
+    private volatile long sampledAt;
+    private volatile boolean overloaded;
+    private long lastPublished;
+    private long lastDelivered;
+    private long lastSampleNanos = System.nanoTime();
+
+    public QueueMonitorService(AmqpAdmin amqpAdmin,
+                               MeterRegistry registry,
+                               @Value("${app.queue-monitor.max-depth:1000}") long maxDepth,
+                               @Value("${app.queue-monitor.max-lag-ms:120000}") long maxLagMs,
+                               @Value("${app.queue-monitor.resume-fraction:0.8}") double resumeFraction,
+                               @Value("${app.queue-monitor.max-retry-after-seconds:60}") long maxRetryAfterSeconds) {
+        this.amqpAdmin = amqpAdmin;
+        this.maxDepth = maxDepth;
+        this.maxLagMs = maxLagMs;
+        this.resumeFraction = resumeFraction;
+        this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+
+        Gauge.builder("registration.queue.depth", () -> depth)
+                .description("Ready messages in student.registration.queue (-1 if unknown)")
+                .register(registry);
+        Gauge.builder("registration.queue.consumers", () -> consumers)
+                .description("Consumers of student.registration.queue (-1 if unknown)")
+                .register(registry);
+        Gauge.builder("registration.queue.publish.rate", () -> publishRate)
+                .description("Confirmed publishes per second by this instance")
+                .register(registry);
+        Gauge.builder("registration.queue.deliver.rate", () -> deliverRate)
+                .description("Listener deliveries per second on this instance")
+                .register(registry);
+        Gauge.builder("registration.queue.oldest.unacked.age", this, m -> m.getOldestUnackedAgeMs() / 1000.0)
+                .description("Age in seconds of the oldest delivery still being processed")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("registration.queue.backpressure", () -> overloaded ? 1 : 0)
+                .description("1 while submissions are shed because the queue is behind")
+                .register(registry);
+    }
+
+    /**
+     * Count publishes confirmed by the broker
+     */
+    public void recordPublished(int count) {
+        published.addAndGet(count);
+    }
+
+    /**
+     * Register a delivery entering the listener
+     *
+     * @param timestamp Publish timestamp of the message (null to use now)
+     * @return Token for {@link #endDelivery(long)}
+     */
+    public long beginDelivery(Date timestamp) {
+        long token = deliveryTokens.incrementAndGet();
+        inFlight.put(token, timestamp != null ? timestamp.getTime() : System.currentTimeMillis());
+        delivered.incrementAndGet();
+        return token;
+    }
+
+    /**
+     * Register the delivery as done (acknowledged when the listener returns)
+     */
+    public void endDelivery(long token) {
+        inFlight.remove(token);
+    }
+
+    /**
+     * Age of the oldest delivery still in the listener, 0 when idle
+     */
+    public long getOldestUnackedAgeMs() {
+        long oldest = Long.MAX_VALUE;
+        for (Long timestamp : inFlight.values()) {
+            oldest = Math.min(oldest, timestamp);
+        }
+        return oldest == Long.MAX_VALUE ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    /**
+     * Whether submissions should be shed (as of the last sample)
+     */
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    /**
+     * Suggested Retry-After for shed submissions: the time to drain the ready messages
+     * at the current deliver rate, between 1 second and app.queue-monitor.max-retry-after-seconds
+     */
+    public long getRetryAfterSeconds() {
+        long ready = depth;
+        double rate = deliverRate;
+        if (ready <= 0) {
+            return 1;
+        }
+        if (rate <= 0) {
+            return maxRetryAfterSeconds;
+        }
+        return Math.max(1, Math.min(maxRetryAfterSeconds, (long) Math.ceil(ready / rate)));
+    }
+
+    /**
+     * Sample the queue and update the rates and the backpressure state
+     */
+    @Scheduled(fixedDelayString = "${app.queue-monitor.sample-ms:5000}")
+    public synchronized void sample() {
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(RegistrationIntegrationConfig.REGISTRATION_QUEUE);
+            if (info != null) {
+                depth = info.getMessageCount();
+                consumers = info.getConsumerCount();
+            } else {
+                depth = -1;
+                consumers = -1;
+            }
+            brokerReachable = true;
+            lastError = info == null ? "Queue not declared" : null;
+        } catch (Exception e) {
+            depth = -1;
+            consumers = -1;
+            if (brokerReachable || lastError == null) {
+                log.warn("⚠️ [QUEUE MONITOR] Cannot sample {}: {}",
+                         RegistrationIntegrationConfig.REGISTRATION_QUEUE, e.getMessage());
+            }
+            brokerReachable = false;
+            lastError = e.getMessage();
+        }
+
+        long now = System.nanoTime();
+        double elapsedSeconds = Math.max(1e-3, (now - lastSampleNanos) / 1e9);
+        long publishedNow = published.get();
+        long deliveredNow = delivered.get();
+        publishRate = (publishedNow - lastPublished) / elapsedSeconds;
+        deliverRate = (deliveredNow - lastDelivered) / elapsedSeconds;
+        lastPublished = publishedNow;
+        lastDelivered = deliveredNow;
+        lastSampleNanos = now;
+        sampledAt = System.currentTimeMillis();
+
+        updateBackpressure();
+    }
+
+    /**
+     * Queue measurements and backpressure state for the admin dashboard
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queue", RegistrationIntegrationConfig.REGISTRATION_QUEUE);
+        stats.put("brokerReachable", brokerReachable);
+        stats.put("depth", depth);
+        stats.put("consumers", consumers);
+        stats.put("publishRate", Math.round(publishRate * 100) / 100.0);
+        stats.put("deliverRate", Math.round(deliverRate * 100) / 100.0);
+        stats.put("inFlightDeliveries", inFlight.size());
+        stats.put("oldestUnackedAgeMs", getOldestUnackedAgeMs());
+        stats.put("backpressure", overloaded);
+        stats.put("maxDepth", maxDepth);
+        stats.put("maxLagMs", maxLagMs);
+        stats.put("sampledAt", sampledAt > 0 ? Instant.ofEpochMilli(sampledAt).toString() : null);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    private void updateBackpressure() {
+        long ready = depth;
+        long lagMs = getOldestUnackedAgeMs();
+        boolean wasOverloaded = overloaded;
+        if (!wasOverloaded) {
+            overloaded = ready >= maxDepth || lagMs >= maxLagMs;
+        } else {
+            overloaded = ready >= maxDepth * resumeFraction || lagMs >= maxLagMs * resumeFraction;
+        }
+
+        if (overloaded && !wasOverloaded) {
+            log.warn("🚦 [QUEUE MONITOR] Backpressure ON - depth {}, oldest unacked {}ms, deliver rate {}/s",
+                     ready, lagMs, String.format("%.2f", deliverRate));
+        } else if (!overloaded && wasOverloaded) {
+            log.info("🚦 [QUEUE MONITOR] Backpressure OFF - depth {}, oldest unacked {}ms", ready, lagMs);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.rsu.registration.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Per-client rate limits for the public registration API.
+ *
+ * - A client is a configured API key (app.rate-limit.api-key-header) or else the
+ *   remote address; unknown API keys count as their address, so rotating keys does
+ *   not bypass the limit. Keys in app.rate-limit.exempt-api-keys (internal callers,
+ *   load tests) are not limited at all. Behind a proxy set server.forward-headers-strategy so the
+ *   remote address is the real client
+ * - Every client gets one token bucket per endpoint (the matched mapping pattern),
+ *   with the rate and burst configured per endpoint in app.rate-limit.endpoints
+ * - A bucket is a single theoretical-arrival-time (GCRA form of a token bucket)
+ *   updated by compare-and-set, so checking a request takes no lock
+ * - At most app.rate-limit.max-buckets buckets are kept: full buckets are dropped
+ *   on a schedule (a full bucket is the same as a new one), and when the map is at
+ *   the bound the buckets closest to full are evicted
+ */
+@Service
+@Slf4j
+public class RateLimitService {
+
+    private final boolean enabled;
+    private final Limit defaultLimit;
+    private final Map<String, Limit> endpointLimits = new HashMap<>();
+    private final Set<String> apiKeys;
+    private final Set<String> exemptApiKeys;
+    private final int maxBuckets;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong exempted = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Map<String, AtomicLong> rejectedByEndpoint = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    public RateLimitService(MeterRegistry registry,
+                            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${app.rate-limit.default:10/20}") String defaultLimit,
+                            @Value("#{${app.rate-limit.endpoints:{:}}}") Map<String, String> endpointLimits,
+                            @Value("${app.rate-limit.api-keys:}") String[] apiKeys,
+                            @Value("${app.rate-limit.exempt-api-keys:}") String[] exemptApiKeys,
+                            @Value("${app.rate-limit.max-buckets:100000}") int maxBuckets) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.defaultLimit = Limit.parse(defaultLimit);
+        endpointLimits.forEach((endpoint, limit) -> this.endpointLimits.put(endpoint, Limit.parse(limit)));
+        this.apiKeys = keySet(apiKeys);
+        this.exemptApiKeys = keySet(exemptApiKeys);
+        this.maxBuckets = Math.max(1, maxBuckets);
+
+        Gauge.builder("registration.ratelimit.buckets", buckets, Map::size)
+                .description("Per-client rate limit buckets currently tracked")
+                .register(registry);
+
+        log.info("🚧 [RATE LIMIT] {} - default {}, endpoints {}, {} API keys ({} exempt), max {} buckets",
+                 enabled ? "Enabled" : "Disabled", defaultLimit, endpointLimits, this.apiKeys.size(),
+                 this.exemptApiKeys.size(), maxBuckets);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether requests with this API key skip the rate limit
+     *
+     * @param apiKey Value of the API key header (may be null)
+     */
+    public boolean isExempt(String apiKey) {
+        if (apiKey != null && exemptApiKeys.contains(apiKey)) {
+            exempted.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Client identity for rate limiting
+     *
+     * @param apiKey Value of the API key header (may be null)
+     * @param remoteAddress Remote address of the request
+     */
+    public String clientKey(String apiKey, String remoteAddress) {
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + remoteAddress;
+    }
+
+    /**
+     * Take one token from the client's bucket for the endpoint
+     *
+     * @param endpoint Matched mapping pattern, e.g. /api/v1/registrations/status/{studentId}
+     * @return 0 if the request is allowed, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String client, String endpoint) {
+        Limit limit = endpointLimits.getOrDefault(endpoint, defaultLimit);
+        long now = System.nanoTime();
+        String key = client + " " + endpoint;
+
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+        }
+
+        long waitNanos = bucket.tryAcquire(now, limit.intervalNanos, limit.toleranceNanos);
+        if (waitNanos == 0) {
+            allowed.incrementAndGet();
+        } else {
+            rejectedByEndpoint.computeIfAbsent(endpoint, e -> new AtomicLong()).incrementAndGet();
+            rejectionCounters.computeIfAbsent(endpoint, e -> Counter.builder("registration.ratelimit.rejected")
+                    .description("Requests rejected by the per-client rate limit")
+                    .tag("endpoint", e)
+                    .register(registry)).increment();
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Drop full buckets; they carry no state a new bucket would not have
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.cleanup-ms:60000}")
+    public void removeIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    /**
+     * Allowed and rejected requests and tracked buckets for the admin dashboard
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Long> rejected = new TreeMap<>();
+        rejectedByEndpoint.forEach((endpoint, count) -> rejected.put(endpoint, count.get()));
+
+        Map<String, Object> limits = new TreeMap<>();
+        endpointLimits.forEach((endpoint, limit) -> limits.put(endpoint, limit.toString()));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("defaultLimit", defaultLimit.toString());
+        stats.put("endpointLimits", limits);
+        stats.put("allowed", allowed.get());
+        stats.put("exempted", exempted.get());
+        stats.put("rejected", rejected.values().stream().mapToLong(Long::longValue).sum());
+        stats.put("rejectedByEndpoint", rejected);
+        stats.put("trackedBuckets", buckets.size());
+        stats.put("maxBuckets", maxBuckets);
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private static Set<String> keySet(String[] keys) {
+        return Arrays.stream(keys).map(String::trim).filter(key -> !key.isEmpty()).collect(Collectors.toSet());
+    }
+
+    /**
+     * Make room for a new bucket: drop full buckets, then the tenth of the map
+     * closest to full if it is still at the bound
+     */
+    private void evict(long now) {
+        synchronized (evictionLock) {
+            if (buckets.size() < maxBuckets) {
+                return;
+            }
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            if (buckets.size() >= maxBuckets) {
+                List<Map.Entry<String, Bucket>> entries = new ArrayList<>(buckets.entrySet());
+                entries.sort(Comparator.comparingLong(entry -> entry.getValue().arrival.get()));
+                int toRemove = Math.max(1, buckets.size() - maxBuckets * 9 / 10);
+                for (int i = 0; i < toRemove && i < entries.size(); i++) {
+                    buckets.remove(entries.get(i).getKey(), entries.get(i).getValue());
+                }
+                log.warn("🚧 [RATE LIMIT] {} buckets tracked - evicted those closest to full", before);
+            }
+            evictions.addAndGet(Math.max(0, before - buckets.size()));
+        }
+    }
+
+    /**
+     * Token bucket as its theoretical arrival time: the bucket is full when the
+     * arrival time is in the past, and each request pushes it one interval later
+     */
+    private static final class Bucket {
+
+        private final AtomicLong arrival;
+
+        Bucket(long now) {
+            arrival = new AtomicLong(now);
+        }
+
+        long tryAcquire(long now, long intervalNanos, long toleranceNanos) {
+            while (true) {
+                long current = arrival.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long waitNanos = next - now - toleranceNanos;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return arrival.get() - now <= 0;
+        }
+    }
+
+    /**
+     * Rate and burst of one endpoint, configured as "perSecond/burst"
+     */
+    private static final class Limit {
+
+        private final double perSecond;
+        private final int burst;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+
+        private Limit(double perSecond, int burst) {
+            if (perSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Rate limit must have a positive rate and a burst of at least 1");
+            }
+            this.perSecond = perSecond;
+            this.burst = burst;
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+            this.toleranceNanos = intervalNanos * burst;
+        }
+
+        static Limit parse(String value) {
+            String[] parts = value.trim().split("/");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Rate limit must be perSecond/burst, was '" + value + "'");
+            }
+            return new Limit(Double.parseDouble(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+
+        @Override
+        public String toString() {
+            return perSecond + "/s burst " + burst;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.dto.RegistrationCheckpoint;
+import com.rsu.registration.model.RegistrationStage;
+
+/**
+ * Thrown when a registration pipeline stage fails.
+ * Carries the failed stage and the checkpoint of the stages that completed.
+ */
+public class RegistrationProcessingException extends RuntimeException {
+    
+    private final RegistrationStage stage;
+    private final RegistrationCheckpoint checkpoint;
+    
+    public RegistrationProcessingException(RegistrationStage stage, RegistrationCheckpoint checkpoint, Throwable cause) {
+        super(stage + " failed: " + cause.getMessage(), cause);
+        this.stage = stage;
+        this.checkpoint = checkpoint;
+    }
+    
+    public RegistrationStage getStage() {
+        return stage;
+    }
+    
+    public RegistrationCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+}
@@ -0,0 +1,214 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.dto.AggregatedStudentProfile;
+import com.rsu.registration.dto.RegistrationCheckpoint;
+import com.rsu.registration.dto.RegistrationStatusEvent;
+import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.jfr.RegistrationStageEvent;
+import com.rsu.registration.model.RegistrationStage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Registration processing pipeline shared by the AMQP listener and the retry scheduler.
+ *
+ * Stages:
+ * 1. ROUTING - route to appropriate systems (Content-Based Router)
+ * 2. AGGREGATION - aggregate responses from all systems (Aggregator)
+ * 3. PERSISTENCE - save complete profile to database (single upsert)
+ * 4. COMPLETION - record the message as processed (Idempotent Receiver)
+ *
+ * Each completed stage stores its result in the {@link RegistrationCheckpoint}.
+ * A failing stage throws {@link RegistrationProcessingException} with that checkpoint,
+ * so a retry resumes at the failed stage instead of repeating the downstream calls.
+ * A completed pipeline publishes the saved status as a {@link RegistrationStatusEvent}.
+ * Every stage is timed as a {@link RegistrationStageEvent} for Flight Recorder.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RegistrationProcessingService {
+
+    private final StudentRegistrationService registrationService;
+    private final ContentBasedRouterService contentBasedRouterService;
+    private final StudentProfileAggregatorService aggregatorService;
+    private final IdempotencyService idempotencyService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PipelineMetricsService pipelineMetrics;
+    private final TracingService tracingService;
+
+    /**
+     * Run the full pipeline for a new registration
+     *
+     * @param messageId AMQP message ID of the delivery (may be null)
+     * @return ID of the saved registration
+     */
+    public Long process(StudentRegistrationDTO registrationDTO, String messageId) {
+        RegistrationCheckpoint checkpoint = new RegistrationCheckpoint();
+        checkpoint.setMessageId(messageId);
+        return resume(registrationDTO, checkpoint);
+    }
+
+    /**
+     * Run the pipeline from the first stage without a stored result.
+     *
+     * @param registrationDTO The registration data
+     * @param checkpoint Results of previously completed stages (updated in place)
+     * @return ID of the saved registration
+     */
+    public Long resume(StudentRegistrationDTO registrationDTO, RegistrationCheckpoint checkpoint) {
+        RegistrationStage stage = RegistrationStage.ROUTING;
+        String studentId = registrationDTO.getStudentId();
+        RegistrationStageEvent stageEvent = RegistrationStageEvent.start();
+        try {
+            // Step 1: Route to appropriate systems based on content (year level)
+            // EIP Pattern: Content-Based Router
+            if (!checkpoint.hasResult(stage)) {
+                log.info("🔀 Applying Content-Based Routing for year level: {}", registrationDTO.getYearLevel());
+                checkpoint.setRoutingResult(contentBasedRouterService.routeRegistration(registrationDTO));
+                checkpoint.complete(stage);
+                stageEvent.finish(studentId, stage.name(), checkpoint.getMessageId(), "completed");
+            } else {
+                log.info("⏭️ [CHECKPOINT] Skipping routing for student {} - already routed to {}",
+                        registrationDTO.getStudentId(), checkpoint.getRoutingResult().getRoutedTo());
+                stageEvent.finish(studentId, stage.name(), checkpoint.getMessageId(), "skipped");
+            }
+
+            // Step 2: Aggregate responses from all systems
+            // EIP Pattern: Aggregator - Combine multiple system responses
+            stage = RegistrationStage.AGGREGATION;
+            stageEvent = RegistrationStageEvent.start();
+            if (!checkpoint.hasResult(stage)) {
+                log.info("🔄 Starting aggregation of system responses...");
+                AggregatedStudentProfile aggregatedProfile =
+                        aggregatorService.aggregateStudentProfile(registrationDTO);
+                checkpoint.setAggregatedProfile(aggregatedProfile);
+                checkpoint.complete(stage);
+
+                log.info("📊 Aggregation Summary: {} - Status: {}, Time: {}ms, Responses: {}/{}",
+                        aggregatedProfile.getStudentName(),
+                        aggregatedProfile.getAggregationStatus(),
+                        aggregatedProfile.getAggregationTimeMs(),
+                        aggregatedProfile.getResponsesReceived(),
+                        aggregatedProfile.getResponsesExpected());
+                stageEvent.finish(studentId, stage.name(), checkpoint.getMessageId(), "completed");
+            } else {
+                log.info("⏭️ [CHECKPOINT] Skipping aggregation for student {} - profile already aggregated ({})",
+                        registrationDTO.getStudentId(), checkpoint.getAggregatedProfile().getAggregationStatus());
+                stageEvent.finish(studentId, stage.name(), checkpoint.getMessageId(), "skipped");
+            }
+
+            // Step 3: Save to database with final status and complete profile (single upsert)
+            stage = RegistrationStage.PERSISTENCE;
+            stageEvent = RegistrationStageEvent.start();
+            if (!checkpoint.hasResult(stage)) {
+                AggregatedStudentProfile aggregatedProfile = checkpoint.getAggregatedProfile();
+                String profileMessage = buildProfileMessage(
+                        checkpoint.getRoutingResult().getRoutedTo(), aggregatedProfile);
+                String status = "COMPLETE".equals(aggregatedProfile.getAggregationStatus()) ?
+                        "PROFILE_COMPLETE" : "PROFILE_PARTIAL";
+
+                log.info("💾 Saving registration to database with complete profile");
+                TracingService.Span saveSpan = tracingService.startSpan("save registration", TracingService.Span.CLIENT)
+                        .tag("status", status);
+                long saveStart = System.nanoTime();
+                try {
+                    checkpoint.setRegistrationId(
+                            registrationService.upsertRegistration(registrationDTO, status, profileMessage, aggregatedProfile));
+                } catch (RuntimeException e) {
+                    saveSpan.error(e);
+                    throw e;
+                } finally {
+                    saveSpan.end();
+                }
+                pipelineMetrics.recordDbSave(System.nanoTime() - saveStart);
+                checkpoint.complete(stage);
+                stageEvent.finish(studentId, stage.name(), checkpoint.getMessageId(), "completed");
+            } else {
+                log.info("⏭️ [CHECKPOINT] Skipping persistence for student {} - already saved with ID {}",
+                        registrationDTO.getStudentId(), checkpoint.getRegistrationId());
+                stageEvent.finish(studentId, stage.name(), checkpoint.getMessageId(), "skipped");
+            }
+
+            // Step 4: Record the message as processed (Idempotent Receiver)
+            stage = RegistrationStage.COMPLETION;
+            stageEvent = RegistrationStageEvent.start();
+            idempotencyService.markProcessed(checkpoint.getMessageId(), registrationDTO.getStudentId());
+            checkpoint.complete(stage);
+            stageEvent.finish(studentId, stage.name(), checkpoint.getMessageId(), "completed");
+
+            eventPublisher.publishEvent(RegistrationStatusEvent.registration(registrationDTO.getStudentId(),
+                    "COMPLETE".equals(checkpoint.getAggregatedProfile().getAggregationStatus()) ?
+                            "PROFILE_COMPLETE" : "PROFILE_PARTIAL"));
+            return checkpoint.getRegistrationId();
+
+        } catch (Exception e) {
+            stageEvent.finish(studentId, stage.name(), checkpoint.getMessageId(), "failed");
+            log.error("❌ Registration pipeline failed at {} for student {}: {}",
+                    stage, registrationDTO.getStudentId(), e.getMessage());
+            throw new RegistrationProcessingException(stage, checkpoint, e);
+        }
+    }
+
+    /**
+     * Build a comprehensive profile message from routing and aggregation results
+     */
+    public String buildProfileMessage(List<String> routedTo, AggregatedStudentProfile profile) {
+        StringBuilder message = new StringBuilder();
+
+        // Routing info
+        message.append("Routed to: ").append(String.join(", ", routedTo));
+        message.append(" | ");
+
+        // Aggregation info
+        message.append("Profile Status: ").append(profile.getAggregationStatus());
+        message.append(" (").append(profile.getResponsesReceived()).append("/3 systems responded)");
+        message.append(" | ");
+
+        // Academic info
+        if (profile.getAcademicRecords() != null) {
+            message.append("Academic: Enrolled in ")
+                   .append(profile.getAcademicRecords().getProgram())
+                   .append(", Advisor: ")
+                   .append(profile.getAcademicRecords().getAdvisorName());
+            message.append(" | ");
+        }
+
+        // Housing or Billing info
+        if (profile.getHousing() != null) {
+            message.append("Housing: ")
+                   .append(profile.getHousing().getDormitoryBuilding())
+                   .append(", Room: ")
+                   .append(profile.getHousing().getRoomAssignment());
+            message.append(" | ");
+        } else if (profile.getBilling() != null) {
+            message.append("Billing: Total ₱")
+                   .append(profile.getBilling().getTotalFeeAmount())
+                   .append(", Due: ")
+                   .append(profile.getBilling().getPaymentDeadline());
+            message.append(" | ");
+        }
+
+        // Library info
+        if (profile.getLibrary() != null) {
+            message.append("Library: Card #")
+                   .append(profile.getLibrary().getLibraryCardNumber())
+                   .append(", Max Books: ")
+                   .append(profile.getLibrary().getMaxBooksAllowed());
+        }
+
+        // Systems skipped by an open circuit or failure, filled in later by the backfill task
+        if (profile.getSkippedSystems() != null && !profile.getSkippedSystems().isEmpty()) {
+            if (profile.getLibrary() != null) {
+                message.append(" | ");
+            }
+            message.append("Pending: ").append(String.join(", ", profile.getSkippedSystems()));
+        }
+
+        return message.toString();
+    }
+}
@@ -0,0 +1,192 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.dto.RegistrationStatusEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes registration status changes to Server-Sent Event subscribers.
+ *
+ * - Status changes are published as {@link RegistrationStatusEvent} on the
+ *   application event bus and fanned out to the subscribers of that student
+ * - Events are delivered after the publishing transaction commits, on a
+ *   single fan-out thread so the pipeline and retry workers never block on a
+ *   slow client
+ * - Idle subscribers are async requests and hold no server thread; a periodic
+ *   heartbeat comment keeps proxies from closing them and detects dead clients
+ */
+@Service
+@Slf4j
+public class RegistrationStatusBroadcaster {
+
+    private final long subscriptionTimeoutMs;
+    private final int maxSubscribers;
+
+    private final Map<String, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService fanOutExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "status-fanout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong eventsPublished = new AtomicLong();
+    private final AtomicLong eventsDelivered = new AtomicLong();
+    private final AtomicLong subscribersRejected = new AtomicLong();
+    private final AtomicLong deadClientsRemoved = new AtomicLong();
+
+    public RegistrationStatusBroadcaster(@Value("${app.status-stream.timeout-ms:1800000}") long subscriptionTimeoutMs,
+                                         @Value("${app.status-stream.max-subscribers:20000}") int maxSubscribers) {
+        this.subscriptionTimeoutMs = subscriptionTimeoutMs;
+        this.maxSubscribers = maxSubscribers;
+
+        log.info("📡 [STATUS STREAM] Up to {} subscribers, {}s subscription timeout",
+                 maxSubscribers, subscriptionTimeoutMs / 1000);
+    }
+
+    /**
+     * Subscribe to the status changes of one student.
+     *
+     * @return Emitter to return from the controller
+     * @throws IllegalStateException if the node already holds the maximum number of subscribers
+     */
+    public SseEmitter subscribe(String studentId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            subscribersRejected.incrementAndGet();
+            throw new IllegalStateException("Too many status stream subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(subscriptionTimeoutMs);
+        subscribers.compute(studentId, (key, emitters) -> {
+            Set<SseEmitter> result = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            result.add(emitter);
+            return result;
+        });
+
+        Runnable remove = () -> unsubscribe(studentId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return emitter;
+    }
+
+    /**
+     * Drop a subscription that is not handed to the client (e.g. building its
+     * snapshot failed); the emitter's completion callbacks never run in that case
+     */
+    public void cancel(String studentId, SseEmitter emitter) {
+        unsubscribe(studentId, emitter);
+        emitter.complete();
+    }
+
+    /**
+     * Send one event to a single subscriber (e.g. the current status right after subscribing)
+     *
+     * @return false if the client is gone
+     */
+    public boolean send(String studentId, SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            deadClientsRemoved.incrementAndGet();
+            unsubscribe(studentId, emitter);
+            return false;
+        }
+    }
+
+    /**
+     * Fan out a status change to the subscribers of its student once the change is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(RegistrationStatusEvent event) {
+        eventsPublished.incrementAndGet();
+        if (!subscribers.containsKey(event.getStudentId())) {
+            return;
+        }
+
+        try {
+            fanOutExecutor.execute(() -> {
+                Set<SseEmitter> emitters = subscribers.get(event.getStudentId());
+                if (emitters == null) {
+                    return;
+                }
+                for (SseEmitter emitter : emitters) {
+                    if (send(event.getStudentId(), emitter, "status", event)) {
+                        eventsDelivered.incrementAndGet();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ [STATUS STREAM] Fan-out stopped - dropping status event for {}", event.getStudentId());
+        }
+    }
+
+    /**
+     * Heartbeat comment to every subscriber; removes clients that have gone away
+     */
+    @Scheduled(fixedDelayString = "${app.status-stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        fanOutExecutor.execute(() -> subscribers.forEach((studentId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    deadClientsRemoved.incrementAndGet();
+                    unsubscribe(studentId, emitter);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Subscriber and delivery counters for the admin dashboard
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscriberCount.get());
+        stats.put("studentsWatched", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("eventsPublished", eventsPublished.get());
+        stats.put("eventsDelivered", eventsDelivered.get());
+        stats.put("subscribersRejected", subscribersRejected.get());
+        stats.put("deadClientsRemoved", deadClientsRemoved.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    private void unsubscribe(String studentId, SseEmitter emitter) {
+        subscribers.computeIfPresent(studentId, (key, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,136 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.model.FailedMessage;
+import com.rsu.registration.model.RetryAttempt;
+import com.rsu.registration.model.RetryOutcome;
+import com.rsu.registration.repository.RetryAttemptRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service for the append-only retry attempt history.
+ * 
+ * Attempts are inserted in the transaction of the retry transition that
+ * produced them, so an attempt is never lost while its status change commits.
+ * The pooled sequence lets Hibernate batch the inserts of one transaction,
+ * and retry transitions never rewrite the failed message row just to extend
+ * its history.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RetryAttemptService {
+    
+    private static final DateTimeFormatter HISTORY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    private final RetryAttemptRepository retryAttemptRepository;
+    
+    private final String node = resolveNodeName();
+    
+    /**
+     * Records a retry transition for a failed message.
+     * Joins the caller's transaction.
+     * 
+     * @param failedMessage The failed message (must already have an ID)
+     * @param attemptNumber Attempt number (0 = initial failure)
+     * @param outcome Result of the attempt
+     * @param details Free-text details
+     * @param durationMs Reprocessing time in milliseconds, or null
+     */
+    @Transactional
+    public void record(FailedMessage failedMessage, int attemptNumber, RetryOutcome outcome,
+                       String details, Long durationMs) {
+        retryAttemptRepository.save(RetryAttempt.builder()
+                .failedMessageId(failedMessage.getId())
+                .studentId(failedMessage.getStudentId())
+                .attemptNumber(attemptNumber)
+                .outcome(outcome)
+                .details(truncate(details, 1000))
+                .durationMs(durationMs)
+                .node(node)
+                .attemptedAt(LocalDateTime.now())
+                .build());
+    }
+    
+    /**
+     * Get the structured history of a failed message.
+     */
+    public List<RetryAttempt> getAttempts(Long failedMessageId) {
+        return retryAttemptRepository.findByFailedMessageIdOrderByAttemptedAtAscIdAsc(failedMessageId);
+    }
+    
+    /**
+     * Fills the display-only retryHistory text of the given messages
+     * with a single query.
+     */
+    public <T extends Collection<FailedMessage>> T attachRetryHistory(T failedMessages) {
+        if (failedMessages.isEmpty()) {
+            return failedMessages;
+        }
+        
+        List<Long> ids = failedMessages.stream()
+                .map(FailedMessage::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<RetryAttempt>> attemptsByMessage = retryAttemptRepository
+                .findByFailedMessageIdInOrderByAttemptedAtAscIdAsc(ids).stream()
+                .collect(Collectors.groupingBy(RetryAttempt::getFailedMessageId));
+        
+        for (FailedMessage failedMessage : failedMessages) {
+            failedMessage.setRetryHistory(formatHistory(
+                    attemptsByMessage.getOrDefault(failedMessage.getId(), List.of())));
+        }
+        return failedMessages;
+    }
+    
+    /**
+     * Single-message variant of {@link #attachRetryHistory(Collection)}.
+     */
+    public FailedMessage attachRetryHistory(FailedMessage failedMessage) {
+        attachRetryHistory(List.of(failedMessage));
+        return failedMessage;
+    }
+    
+    /**
+     * Formats attempts the way the admin dashboard displays retry history.
+     * Migrated legacy entries keep their original text.
+     */
+    private String formatHistory(List<RetryAttempt> attempts) {
+        return attempts.stream()
+                .map(attempt -> attempt.getOutcome() == RetryOutcome.LEGACY
+                        ? String.format("[%s] Attempt %d: %s",
+                                attempt.getAttemptedAt().format(HISTORY_FORMATTER),
+                                attempt.getAttemptNumber(),
+                                attempt.getDetails())
+                        : String.format("[%s] Attempt %d: %s - %s",
+                                attempt.getAttemptedAt().format(HISTORY_FORMATTER),
+                                attempt.getAttemptNumber(),
+                                attempt.getOutcome(),
+                                attempt.getDetails()))
+                .collect(Collectors.joining("\n"));
+    }
+    
+    private String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength - 15) + "... (truncated)";
+    }
+    
+    private static String resolveNodeName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.rsu.registration.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retry budget and per-stage retry concurrency limits.
+ *
+ * Token bucket:
+ * - Every live registration deposits {@code percent-of-traffic} of a token,
+ *   so retries stay a bounded fraction of live traffic
+ * - The bucket also refills at {@code min-retries-per-second} so retries
+ *   still drain when there is no live traffic
+ * - The bucket holds at most {@code max-tokens}; each retry withdraws one token
+ *
+ * Concurrency: retries of one failure stage (e.g. AGGREGATION) hold a permit
+ * of that stage's semaphore, so a recovering downstream system only sees a
+ * few retries at a time.
+ */
+@Service
+@Slf4j
+public class RetryBudgetService {
+
+    // Tokens are stored in thousandths so fractional deposits stay lock-free
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long maxTokens;
+    private final long refillPerSecond;
+    private final int defaultStageConcurrency;
+    private final Map<String, Integer> stageConcurrency;
+
+    private final AtomicLong tokens;
+    private final AtomicLong lastRefillNanos = new AtomicLong(System.nanoTime());
+    private final Map<String, Semaphore> stageSemaphores = new ConcurrentHashMap<>();
+
+    private final AtomicLong liveRequests = new AtomicLong();
+    private final AtomicLong retriesPermitted = new AtomicLong();
+    private final AtomicLong retriesThrottledByBudget = new AtomicLong();
+    private final AtomicLong retriesThrottledByConcurrency = new AtomicLong();
+
+    public RetryBudgetService(@Value("${app.retry.budget.percent-of-traffic:10}") double percentOfTraffic,
+                              @Value("${app.retry.budget.max-tokens:20}") long maxTokens,
+                              @Value("${app.retry.budget.min-retries-per-second:1}") double minRetriesPerSecond,
+                              @Value("${app.retry.concurrency.default:2}") int defaultStageConcurrency,
+                              @Value("#{${app.retry.concurrency.stages:{:}}}") Map<String, Integer> stageConcurrency) {
+        this.depositPerRequest = Math.round(percentOfTraffic / 100.0 * SCALE);
+        this.maxTokens = maxTokens * SCALE;
+        this.refillPerSecond = Math.round(minRetriesPerSecond * SCALE);
+        this.defaultStageConcurrency = defaultStageConcurrency;
+        this.stageConcurrency = new HashMap<>(stageConcurrency);
+        this.tokens = new AtomicLong(this.maxTokens);
+
+        log.info("🪣 [RETRY BUDGET] {}% of live traffic, max {} tokens, min {} retries/s, stage concurrency {} (default {})",
+                 percentOfTraffic, maxTokens, minRetriesPerSecond, stageConcurrency, defaultStageConcurrency);
+    }
+
+    /**
+     * Record a live (non-retry) registration and deposit its share of a retry token
+     */
+    public void recordRequest() {
+        liveRequests.incrementAndGet();
+        deposit(depositPerRequest);
+    }
+
+    /**
+     * Try to withdraw one retry token.
+     *
+     * @return false if the budget is exhausted and the retry should wait
+     */
+    public boolean tryAcquireRetry() {
+        refill();
+        while (true) {
+            long current = tokens.get();
+            if (current < SCALE) {
+                retriesThrottledByBudget.incrementAndGet();
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - SCALE)) {
+                retriesPermitted.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return an unused retry token (e.g. the retry could not be dispatched)
+     */
+    public void refundRetry() {
+        retriesPermitted.decrementAndGet();
+        deposit(SCALE);
+    }
+
+    /**
+     * Try to take a concurrency permit for a retry of the given failure stage.
+     * Must be paired with {@link #releaseStage(String)}.
+     */
+    public boolean tryAcquireStage(String failureStage) {
+        if (semaphoreFor(failureStage).tryAcquire()) {
+            return true;
+        }
+        retriesThrottledByConcurrency.incrementAndGet();
+        return false;
+    }
+
+    public void releaseStage(String failureStage) {
+        semaphoreFor(failureStage).release();
+    }
+
+    /**
+     * Budget utilisation and per-stage in-flight retries for the admin dashboard
+     */
+    public Map<String, Object> getStats() {
+        refill();
+        long available = tokens.get();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("availableTokens", available / (double) SCALE);
+        stats.put("maxTokens", maxTokens / SCALE);
+        stats.put("utilisation", String.format("%.2f%%", (1 - available / (double) maxTokens) * 100));
+        stats.put("liveRequests", liveRequests.get());
+        stats.put("retriesPermitted", retriesPermitted.get());
+        stats.put("retriesThrottledByBudget", retriesThrottledByBudget.get());
+        stats.put("retriesThrottledByConcurrency", retriesThrottledByConcurrency.get());
+
+        Map<String, Object> inFlight = new HashMap<>();
+        stageSemaphores.forEach((stage, semaphore) ->
+                inFlight.put(stage, limitFor(stage) - semaphore.availablePermits()));
+        stats.put("inFlightByStage", inFlight);
+        return stats;
+    }
+
+    private Semaphore semaphoreFor(String failureStage) {
+        String stage = failureStage != null ? failureStage : "UNKNOWN";
+        return stageSemaphores.computeIfAbsent(stage, key -> new Semaphore(limitFor(key)));
+    }
+
+    private int limitFor(String failureStage) {
+        return stageConcurrency.getOrDefault(failureStage, defaultStageConcurrency);
+    }
+
+    /**
+     * Time-based refill for the minimum retry rate
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        long last = lastRefillNanos.get();
+        long amount = (now - last) * refillPerSecond / 1_000_000_000L;
+        if (amount > 0 && lastRefillNanos.compareAndSet(last, now)) {
+            deposit(amount);
+        }
+    }
+
+    private void deposit(long amount) {
+        tokens.accumulateAndGet(amount, (current, add) -> Math.min(maxTokens, current + add));
+    }
+}
@@ -0,0 +1,147 @@
+package com.rsu.registration.service;
+
+import com.rsu.registration.model.ErrorCategory;
+import com.rsu.registration.model.RetryPolicy;
+import com.rsu.registration.repository.RetryPolicyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-category retry policies with jittered exponential backoff.
+ *
+ * Policies live in the retry_policies table (seeded by schema.sql) and are
+ * cached in memory. The cache is loaded once the application is ready and
+ * can be reloaded at runtime through the admin API. Categories without a
+ * row use the legacy schedule: 3 attempts, 5s doubling up to 20s, no jitter.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RetryPolicyService {
+
+    private final RetryPolicyRepository retryPolicyRepository;
+
+    private volatile Map<ErrorCategory, RetryPolicy> policies = Collections.emptyMap();
+
+    /**
+     * Load policies after schema.sql has seeded the table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("❌ [RETRY POLICY] Failed to load retry policies - using defaults: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload all policies from the database.
+     *
+     * @return Number of policies loaded
+     */
+    public int reload() {
+        Map<ErrorCategory, RetryPolicy> loaded = new EnumMap<>(ErrorCategory.class);
+        for (RetryPolicy policy : retryPolicyRepository.findAll()) {
+            loaded.put(policy.getErrorCategory(), policy);
+        }
+        policies = loaded;
+        log.info("📋 [RETRY POLICY] Loaded {} retry policies", loaded.size());
+        return loaded.size();
+    }
+
+    /**
+     * Get the effective policy for a category
+     */
+    public RetryPolicy getPolicy(ErrorCategory errorCategory) {
+        ErrorCategory category = errorCategory != null ? errorCategory : ErrorCategory.UNKNOWN;
+        RetryPolicy policy = policies.get(category);
+        return policy != null ? policy : defaultPolicy(category);
+    }
+
+    /**
+     * Get the effective policies of all categories
+     */
+    public List<RetryPolicy> getPolicies() {
+        List<RetryPolicy> result = new ArrayList<>();
+        for (ErrorCategory category : ErrorCategory.values()) {
+            result.add(getPolicy(category));
+        }
+        return result;
+    }
+
+    /**
+     * Compute the delay before a retry.
+     *
+     * @param errorCategory Category of the failure
+     * @param retryNumber 1 for the first retry, 2 for the second, ...
+     * @return Delay in milliseconds
+     */
+    public long computeDelayMs(ErrorCategory errorCategory, int retryNumber) {
+        RetryPolicy policy = getPolicy(errorCategory);
+
+        int exponent = Math.max(0, retryNumber - 1);
+        long delay = exponent >= 62 || policy.getBaseDelayMs() > (policy.getMaxDelayMs() >> exponent)
+                ? policy.getMaxDelayMs()
+                : policy.getBaseDelayMs() << exponent;
+        delay = Math.min(delay, policy.getMaxDelayMs());
+
+        if (policy.isFullJitter()) {
+            delay = ThreadLocalRandom.current().nextLong(delay + 1);
+        }
+        return delay;
+    }
+
+    /**
+     * Create or replace the policy of a category and refresh the cache.
+     *
+     * @throws IllegalArgumentException if the policy values are invalid
+     */
+    @Transactional
+    public RetryPolicy updatePolicy(ErrorCategory errorCategory, RetryPolicy update, String adminUser) {
+        if (update.getMaxAttempts() < 0) {
+            throw new IllegalArgumentException("maxAttempts must not be negative");
+        }
+        if (update.getBaseDelayMs() <= 0) {
+            throw new IllegalArgumentException("baseDelayMs must be positive");
+        }
+        if (update.getMaxDelayMs() < update.getBaseDelayMs()) {
+            throw new IllegalArgumentException("maxDelayMs must not be less than baseDelayMs");
+        }
+
+        update.setErrorCategory(errorCategory);
+        update.setUpdatedAt(LocalDateTime.now());
+        update.setUpdatedBy(adminUser);
+        RetryPolicy saved = retryPolicyRepository.save(update);
+
+        log.info("📋 [RETRY POLICY] {} updated by {}: maxAttempts={}, baseDelay={}ms, maxDelay={}ms, fullJitter={}, retryable={}",
+                 errorCategory, adminUser, saved.getMaxAttempts(), saved.getBaseDelayMs(),
+                 saved.getMaxDelayMs(), saved.isFullJitter(), saved.isRetryable());
+
+        reload();
+        return saved;
+    }
+
+    private RetryPolicy defaultPolicy(ErrorCategory errorCategory) {
+        return RetryPolicy.builder()
+                .errorCategory(errorCategory)
+                .maxAttempts(3)
+                .baseDelayMs(5000)
+                .maxDelayMs(20000)
+                .fullJitter(false)
+                .retryable(true)
+                .build();
+    }
+}
@@ -1,34 +1,68 @@
 package com.rsu.registration.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rsu.registration.dto.RegistrationCheckpoint;
+import com.rsu.registration.dto.RegistrationStatusEvent;
 import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.jfr.RetryTransitionEvent;
 import com.rsu.registration.model.ErrorCategory;
 import com.rsu.registration.model.FailedMessage;
+import com.rsu.registration.model.RetryOutcome;
+import com.rsu.registration.model.RetryPolicy;
 import com.rsu.registration.model.RetryStatus;
 import com.rsu.registration.repository.FailedMessageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service for handling failed messages with automatic retry logic and exponential backoff.
  * 
- * Retry Schedule:
- * - Attempt 1: After 5 seconds
- * - Attempt 2: After 10 seconds (from previous attempt)
- * - Attempt 3: After 20 seconds (from previous attempt)
+ * Retry Schedule (per error category, see RetryPolicyService):
+ * - Retry n: after min(cap, baseDelay * 2^(n-1)), optionally with full jitter
+ * - Default: 5, 10 and 20 seconds
  * 
- * After 3 failed attempts, message is moved to Dead-Letter Queue (DLQ)
- * for manual intervention.
+ * After maxAttempts failed attempts, message is moved to Dead-Letter Queue (DLQ)
+ * for manual intervention. Non-retryable categories (e.g. INVALID_DATA) go
+ * straight to the DLQ.
+ * 
+ * Due retries run on a small worker pool and are throttled by the retry budget
+ * (a fraction of live traffic) and per-failure-stage concurrency limits, so a
+ * recovering downstream system is not hit by the whole backlog at once.
+ * 
+ * A dispatched message is claimed (RETRYING with claimedAt). The worker runs
+ * the pipeline outside any transaction, so a failed pipeline write cannot roll
+ * back the retry's bookkeeping and no connection is held through the downstream
+ * calls; the outcome (status, attempt row, events) is then written in its own
+ * short transaction. Claims older than
+ * app.retry.claim-timeout-ms (worker crash, restart, rollback) are released
+ * back to PENDING_RETRY at the start of the next scheduler run.
+ * 
+ * Retries re-enter the real registration flow: submission failures are
+ * re-enqueued to the outbox, processing failures resume the pipeline at the
+ * recorded failure stage using the stored checkpoint.
  * 
  * Features:
  * - Automatic retry with exponential backoff
@@ -36,6 +70,9 @@ import java.util.List;
  * - Manual retry capability
  * - User notification tracking
  * - Comprehensive error logging
+ * - Append-only retry history (retry_attempts table)
+ * - Retry status changes published as RegistrationStatusEvent and recorded
+ *   as RetryTransitionEvent for Flight Recorder
  */
 @Service
 @Slf4j
@@ -44,10 +81,51 @@ public class RetryService {
     
     private final FailedMessageRepository failedMessageRepository;
     private final ErrorLogService errorLogService;
+    private final RetryAttemptService retryAttemptService;
     private final ObjectMapper objectMapper;
+    private final RegistrationProcessingService processingService;
+    private final OutboxService outboxService;
+    private final RetryPolicyService retryPolicyService;
+    private final RetryBudgetService retryBudgetService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.retry.batch-size:100}")
+    private int retryBatchSize;
+    
+    @Value("${app.retry.executor.pool-size:8}")
+    private int retryPoolSize;
+    
+    @Value("${app.retry.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+    
+    private ThreadPoolTaskExecutor retryExecutor;
+    
+    @Value("${app.retry.scheduler-interval-ms:5000}")
+    private long schedulerIntervalMs;
     
-    // Retry delays in seconds: 5, 10, 20
-    private static final int[] RETRY_DELAYS = {5, 10, 20};
+    private volatile long lastSchedulerRun;
+    
+    /**
+     * Failure stage recorded when the submit endpoint could not enqueue the registration
+     */
+    public static final String SUBMISSION_STAGE = "REGISTRATION_SUBMISSION";
+    
+    @PostConstruct
+    public void startRetryExecutor() {
+        retryExecutor = new ThreadPoolTaskExecutor();
+        retryExecutor.setCorePoolSize(retryPoolSize);
+        retryExecutor.setMaxPoolSize(retryPoolSize);
+        retryExecutor.setThreadNamePrefix("retry-");
+        retryExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        retryExecutor.setAwaitTerminationSeconds(30);
+        retryExecutor.initialize();
+    }
+    
+    @PreDestroy
+    public void stopRetryExecutor() {
+        retryExecutor.shutdown();
+    }
     
     /**
      * Captures a failed message to the error channel for retry processing.
@@ -64,6 +142,23 @@ public class RetryService {
             String failureStage,
             ErrorCategory errorCategory,
             Exception exception) {
+        return captureFailedMessage(registrationDTO, failureStage, errorCategory, exception, null);
+    }
+    
+    /**
+     * Captures a failed message together with the checkpoint of the pipeline
+     * stages that completed before the failure.
+     * 
+     * @param checkpoint Completed stage results (null if nothing completed)
+     * @return The saved FailedMessage entity
+     */
+    @Transactional
+    public FailedMessage captureFailedMessage(
+            StudentRegistrationDTO registrationDTO,
+            String failureStage,
+            ErrorCategory errorCategory,
+            Exception exception,
+            RegistrationCheckpoint checkpoint) {
         
         log.error("❌ [ERROR CHANNEL] Capturing failed message for student: {} at stage: {}", 
                   registrationDTO.getStudentId(), failureStage);
@@ -75,8 +170,12 @@ public class RetryService {
             // Get stack trace
             String stackTrace = getStackTrace(exception);
             
-            // Calculate next retry time (5 seconds from now for first attempt)
-            LocalDateTime nextRetryAt = LocalDateTime.now().plusSeconds(RETRY_DELAYS[0]);
+            // Calculate next retry time from the category's policy
+            RetryPolicy policy = retryPolicyService.getPolicy(errorCategory);
+            boolean retryable = policy.isRetryable() && policy.getMaxAttempts() > 0;
+            LocalDateTime nextRetryAt = retryable
+                    ? LocalDateTime.now().plus(retryPolicyService.computeDelayMs(errorCategory, 1), ChronoUnit.MILLIS)
+                    : null;
             
             // Build failed message
             FailedMessage failedMessage = FailedMessage.builder()
@@ -84,22 +183,30 @@ public class RetryService {
                     .studentName(registrationDTO.getStudentName())
                     .email(registrationDTO.getEmail())
                     .originalMessage(originalMessage)
+                    .checkpoint(checkpoint != null ? objectMapper.writeValueAsString(checkpoint) : null)
                     .failureStage(failureStage)
                     .errorCategory(errorCategory)
                     .errorMessage(exception.getMessage())
                     .stackTrace(stackTrace)
                     .status(RetryStatus.PENDING_RETRY)
                     .retryAttempts(0)
-                    .maxRetryAttempts(3)
+                    .maxRetryAttempts(policy.getMaxAttempts())
                     .failedAt(LocalDateTime.now())
                     .nextRetryAt(nextRetryAt)
                     .inDeadLetterQueue(false)
                     .userNotified(false)
-                    .retryHistory(buildRetryHistoryEntry(0, "Initial failure", exception.getMessage()))
                     .build();
             
             // Save to database
             failedMessage = failedMessageRepository.save(failedMessage);
+            retryAttemptService.record(failedMessage, 0, RetryOutcome.INITIAL_FAILURE,
+                    exception.getMessage(), null);
+            
+            if (!retryable) {
+                moveToDeadLetterQueue(failedMessage, "Non-retryable error category " + errorCategory);
+            } else {
+                publishStatus(failedMessage);
+            }
             
             // Log to error log service
             errorLogService.logError(
@@ -111,8 +218,10 @@ public class RetryService {
                     stackTrace
             );
             
-            log.info("💾 [ERROR CHANNEL] Failed message saved with ID: {} - Next retry at: {}", 
-                     failedMessage.getId(), nextRetryAt.format(DateTimeFormatter.ISO_LOCAL_TIME));
+            if (retryable) {
+                log.info("💾 [ERROR CHANNEL] Failed message saved with ID: {} - Next retry at: {}", 
+                         failedMessage.getId(), nextRetryAt.format(DateTimeFormatter.ISO_LOCAL_TIME));
+            }
             
             return failedMessage;
             
@@ -124,90 +233,163 @@ public class RetryService {
     
     /**
      * Scheduled task that runs every 5 seconds to process retry queue.
-     * Checks for messages ready for retry and processes them.
+     * Checks for messages ready for retry and hands them to the retry workers.
+     * Retry attempts are bounded by maxRetryAttempts, then moved to the DLQ.
+     * 
+     * A message is dispatched only if its failure stage is below its concurrency
+     * limit and a retry token is available; the rest stay PENDING_RETRY and are
+     * picked up by a later run.
      */
-    // Temporarily disabled to prevent infinite retries
-    // @Scheduled(fixedDelay = 5000) // Run every 5 seconds
-    // @Transactional
+    @Scheduled(fixedDelayString = "${app.retry.scheduler-interval-ms:5000}")
     public void processRetryQueue() {
+        lastSchedulerRun = System.currentTimeMillis();
         LocalDateTime currentTime = LocalDateTime.now();
         
-        // Find messages ready for retry
+        releaseStaleClaims(currentTime);
+        
+        // Find messages ready for retry (oldest due first)
         List<FailedMessage> readyForRetry = failedMessageRepository
-                .findMessagesReadyForRetry(RetryStatus.PENDING_RETRY, currentTime);
+                .findMessagesReadyForRetry(RetryStatus.PENDING_RETRY, currentTime, PageRequest.of(0, retryBatchSize));
         
         if (!readyForRetry.isEmpty()) {
-            log.info("🔄 [RETRY SCHEDULER] Found {} messages ready for retry", readyForRetry.size());
+            int dispatched = 0;
             
             for (FailedMessage failedMessage : readyForRetry) {
-                processRetry(failedMessage);
+                String failureStage = failedMessage.getFailureStage();
+                if (!retryBudgetService.tryAcquireStage(failureStage)) {
+                    continue;
+                }
+                if (!retryBudgetService.tryAcquireRetry()) {
+                    retryBudgetService.releaseStage(failureStage);
+                    log.info("🪣 [RETRY SCHEDULER] Retry budget exhausted - deferring remaining retries");
+                    break;
+                }
+                
+                // Claim the message so no other run or node dispatches it too
+                FailedMessage claimed = claim(failedMessage);
+                if (claimed == null) {
+                    retryBudgetService.releaseStage(failureStage);
+                    retryBudgetService.refundRetry();
+                    continue;
+                }
+                publishStatus(claimed);
+                
+                try {
+                    retryExecutor.execute(() -> {
+                        try {
+                            processRetry(claimed);
+                        } catch (RuntimeException e) {
+                            log.error("❌ [RETRY] Could not record retry outcome for student: {} - claim will be released: {}",
+                                      claimed.getStudentId(), e.getMessage(), e);
+                        } finally {
+                            retryBudgetService.releaseStage(failureStage);
+                        }
+                    });
+                    dispatched++;
+                } catch (TaskRejectedException e) {
+                    retryBudgetService.releaseStage(failureStage);
+                    retryBudgetService.refundRetry();
+                    claimed.setStatus(RetryStatus.PENDING_RETRY);
+                    claimed.setClaimedAt(null);
+                    failedMessageRepository.save(claimed);
+                    break;
+                }
             }
+            
+            log.info("🔄 [RETRY SCHEDULER] Found {} messages ready for retry, dispatched {}", 
+                     readyForRetry.size(), dispatched);
         }
         
         // Check for messages that should move to DLQ
-        processDeadLetterQueue();
+        transactionTemplate.executeWithoutResult(status -> processDeadLetterQueue());
     }
     
     /**
-     * Processes retry for a single failed message.
+     * Atomically moves a message from PENDING_RETRY to RETRYING.
      * 
-     * @param failedMessage The message to retry
+     * @return The claimed message as stored after the claim, or null if another
+     *         scheduler run or node claimed it first
      */
-    @Transactional
-    public void processRetry(FailedMessage failedMessage) {
+    private FailedMessage claim(FailedMessage failedMessage) {
+        LocalDateTime claimedAt = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            int updated = failedMessageRepository.claim(failedMessage.getId(),
+                    RetryStatus.PENDING_RETRY, RetryStatus.RETRYING, claimedAt);
+            // Reload: the row may have changed since the batch was read
+            return updated == 1 ? failedMessageRepository.findById(failedMessage.getId()).orElse(null) : null;
+        });
+    }
+    
+    /**
+     * Puts messages whose claim is older than the claim timeout back in the queue.
+     */
+    private void releaseStaleClaims(LocalDateTime currentTime) {
+        LocalDateTime cutoff = currentTime.minus(claimTimeoutMs, ChronoUnit.MILLIS);
+        Integer released = transactionTemplate.execute(status -> failedMessageRepository
+                .releaseStaleClaims(RetryStatus.RETRYING, RetryStatus.PENDING_RETRY, cutoff));
+        if (released != null && released > 0) {
+            log.warn("⏰ [RETRY SCHEDULER] Released {} stale RETRYING claims back to PENDING_RETRY", released);
+        }
+    }
+    
+    /**
+     * Processes retry for a single failed message on a retry worker.
+     * The pipeline runs outside any transaction; the outcome is recorded in a
+     * short transaction afterwards.
+     * 
+     * @param failedMessage The claimed message to retry
+     */
+    private void processRetry(FailedMessage failedMessage) {
         int currentAttempt = failedMessage.getRetryAttempts() + 1;
+        long startTime = System.currentTimeMillis();
         
         log.info("🔄 [RETRY] Attempting retry #{} for student: {} (Failed at: {})", 
                  currentAttempt, 
                  failedMessage.getStudentId(),
                  failedMessage.getFailureStage());
         
+        failedMessage.setLastRetryAt(LocalDateTime.now());
+        boolean retrySuccess;
         try {
-            // Update status to RETRYING
-            failedMessage.setStatus(RetryStatus.RETRYING);
-            failedMessage.setLastRetryAt(LocalDateTime.now());
-            failedMessageRepository.save(failedMessage);
-            
             // Parse original message
             StudentRegistrationDTO registrationDTO = objectMapper.readValue(
                     failedMessage.getOriginalMessage(), 
                     StudentRegistrationDTO.class
             );
             
-            // TODO: Attempt to reprocess the registration
-            // This will be implemented when we integrate with the main registration flow
-            // For now, we'll simulate success/failure
-            boolean retrySuccess = attemptReprocessing(registrationDTO, failedMessage.getFailureStage());
-            
-            if (retrySuccess) {
-                // Retry succeeded!
-                handleRetrySuccess(failedMessage);
-            } else {
-                // Retry failed, schedule next attempt or move to DLQ
-                handleRetryFailure(failedMessage, currentAttempt);
-            }
-            
+            retrySuccess = attemptReprocessing(registrationDTO, failedMessage);
         } catch (Exception e) {
             log.error("❌ [RETRY] Error during retry processing: {}", e.getMessage(), e);
-            handleRetryFailure(failedMessage, currentAttempt);
+            retrySuccess = false;
         }
+        long durationMs = System.currentTimeMillis() - startTime;
+        
+        boolean succeeded = retrySuccess;
+        transactionTemplate.executeWithoutResult(status -> {
+            if (succeeded) {
+                handleRetrySuccess(failedMessage, durationMs);
+            } else {
+                // Retry failed, schedule next attempt or move to DLQ
+                handleRetryFailure(failedMessage, currentAttempt, durationMs);
+            }
+        });
     }
     
     /**
      * Handles successful retry.
      */
-    private void handleRetrySuccess(FailedMessage failedMessage) {
+    private void handleRetrySuccess(FailedMessage failedMessage, long durationMs) {
         log.info("✅ [RETRY SUCCESS] Message successfully processed for student: {}", 
                  failedMessage.getStudentId());
         
         failedMessage.setStatus(RetryStatus.RETRY_SUCCESS);
         failedMessage.setResolvedAt(LocalDateTime.now());
-        failedMessage.setRetryHistory(failedMessage.getRetryHistory() + "\n" +
-                buildRetryHistoryEntry(failedMessage.getRetryAttempts() + 1, 
-                                      "SUCCESS", 
-                                      "Message successfully processed"));
+        failedMessage.setClaimedAt(null);
         
         failedMessageRepository.save(failedMessage);
+        retryAttemptService.record(failedMessage, failedMessage.getRetryAttempts() + 1,
+                RetryOutcome.SUCCESS, "Message successfully processed", durationMs);
+        publishStatus(failedMessage, durationMs);
         
         // Log success to error log
         errorLogService.logResolution(
@@ -220,8 +402,20 @@ public class RetryService {
     /**
      * Handles failed retry attempt.
      */
-    private void handleRetryFailure(FailedMessage failedMessage, int currentAttempt) {
+    private void handleRetryFailure(FailedMessage failedMessage, int currentAttempt, long durationMs) {
         failedMessage.setRetryAttempts(currentAttempt);
+        failedMessage.setClaimedAt(null);
+        
+        // The category may have changed if the retry failed at a later stage,
+        // and policies may have been reloaded since the message was captured
+        ErrorCategory errorCategory = failedMessage.getErrorCategory();
+        RetryPolicy policy = retryPolicyService.getPolicy(errorCategory);
+        failedMessage.setMaxRetryAttempts(policy.getMaxAttempts());
+        
+        if (!policy.isRetryable()) {
+            moveToDeadLetterQueue(failedMessage, "Non-retryable error category " + errorCategory);
+            return;
+        }
         
         if (currentAttempt >= failedMessage.getMaxRetryAttempts()) {
             // Exhausted all retries, prepare for DLQ
@@ -229,30 +423,45 @@ public class RetryService {
                      failedMessage.getStudentId());
             
             failedMessage.setStatus(RetryStatus.MOVED_TO_DLQ);
-            failedMessage.setRetryHistory(failedMessage.getRetryHistory() + "\n" +
-                    buildRetryHistoryEntry(currentAttempt, 
-                                          "FAILED", 
-                                          "All retry attempts exhausted"));
+            retryAttemptService.record(failedMessage, currentAttempt, RetryOutcome.FAILED,
+                    "All retry attempts exhausted", durationMs);
             
         } else {
-            // Schedule next retry with exponential backoff
-            int delaySeconds = RETRY_DELAYS[Math.min(currentAttempt, RETRY_DELAYS.length - 1)];
-            LocalDateTime nextRetryAt = LocalDateTime.now().plusSeconds(delaySeconds);
+            // Schedule next retry with jittered exponential backoff
+            long delayMs = retryPolicyService.computeDelayMs(errorCategory, currentAttempt + 1);
+            LocalDateTime nextRetryAt = LocalDateTime.now().plus(delayMs, ChronoUnit.MILLIS);
             
-            log.info("⏰ [RETRY] Scheduling retry #{} for student: {} in {} seconds", 
+            log.info("⏰ [RETRY] Scheduling retry #{} for student: {} in {} ms", 
                      currentAttempt + 1, 
                      failedMessage.getStudentId(), 
-                     delaySeconds);
+                     delayMs);
             
             failedMessage.setStatus(RetryStatus.PENDING_RETRY);
             failedMessage.setNextRetryAt(nextRetryAt);
-            failedMessage.setRetryHistory(failedMessage.getRetryHistory() + "\n" +
-                    buildRetryHistoryEntry(currentAttempt, 
-                                          "FAILED", 
-                                          "Scheduling next retry in " + delaySeconds + " seconds"));
+            retryAttemptService.record(failedMessage, currentAttempt, RetryOutcome.FAILED,
+                    "Scheduling next retry in " + delayMs + " ms", durationMs);
         }
         
         failedMessageRepository.save(failedMessage);
+        publishStatus(failedMessage, durationMs);
+    }
+    
+    /**
+     * Moves a message straight to the Dead-Letter Queue (non-retryable failures).
+     */
+    private void moveToDeadLetterQueue(FailedMessage failedMessage, String reason) {
+        failedMessage.setInDeadLetterQueue(true);
+        failedMessage.setStatus(RetryStatus.AWAITING_MANUAL_RETRY);
+        failedMessage.setMovedToDlqAt(LocalDateTime.now());
+        failedMessage.setNextRetryAt(null);
+        
+        failedMessageRepository.save(failedMessage);
+        retryAttemptService.record(failedMessage, failedMessage.getRetryAttempts(), RetryOutcome.MOVED_TO_DLQ,
+                reason + " - moved to Dead-Letter Queue for manual intervention", null);
+        publishStatus(failedMessage);
+        
+        log.warn("💀 [DLQ] Student: {} - Stage: {} - {}", 
+                 failedMessage.getStudentId(), failedMessage.getFailureStage(), reason);
     }
     
     /**
@@ -260,8 +469,9 @@ public class RetryService {
      */
     @Transactional
     public void processDeadLetterQueue() {
+        // Exhausted messages are flagged MOVED_TO_DLQ by handleRetryFailure
         List<FailedMessage> messagesForDlq = failedMessageRepository
-                .findMessagesForDeadLetterQueue(RetryStatus.PENDING_RETRY);
+                .findMessagesForDeadLetterQueue(RetryStatus.MOVED_TO_DLQ);
         
         if (!messagesForDlq.isEmpty()) {
             log.warn("💀 [DEAD-LETTER QUEUE] Moving {} messages to DLQ", messagesForDlq.size());
@@ -270,12 +480,11 @@ public class RetryService {
                 message.setInDeadLetterQueue(true);
                 message.setStatus(RetryStatus.AWAITING_MANUAL_RETRY);
                 message.setMovedToDlqAt(LocalDateTime.now());
-                message.setRetryHistory(message.getRetryHistory() + "\n" +
-                        buildRetryHistoryEntry(message.getRetryAttempts(), 
-                                              "MOVED_TO_DLQ", 
-                                              "Message moved to Dead-Letter Queue for manual intervention"));
                 
                 failedMessageRepository.save(message);
+                retryAttemptService.record(message, message.getRetryAttempts(), RetryOutcome.MOVED_TO_DLQ,
+                        "Message moved to Dead-Letter Queue for manual intervention", null);
+                publishStatus(message);
                 
                 log.warn("💀 [DLQ] Student: {} - Stage: {} - Requires manual intervention", 
                          message.getStudentId(), message.getFailureStage());
@@ -285,13 +494,14 @@ public class RetryService {
     
     /**
      * Manually retry a failed message (admin action).
+     * Like the automatic retries, the pipeline runs outside any transaction and
+     * the outcome is recorded in a short transaction afterwards.
      * 
      * @param messageId ID of the failed message
      * @param adminUser Admin who initiated the retry
      * @param adminNotes Optional notes from admin
      * @return true if retry was successful
      */
-    @Transactional
     public boolean manualRetry(Long messageId, String adminUser, String adminNotes) {
         log.info("👤 [MANUAL RETRY] Admin '{}' initiating manual retry for message ID: {}", 
                  adminUser, messageId);
@@ -299,91 +509,159 @@ public class RetryService {
         FailedMessage failedMessage = failedMessageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Failed message not found: " + messageId));
         
+        long startTime = System.currentTimeMillis();
+        // Update metadata
+        failedMessage.setRetriedBy(adminUser);
+        failedMessage.setAdminNotes(adminNotes);
+        failedMessage.setStatus(RetryStatus.RETRYING);
+        failedMessage.setLastRetryAt(LocalDateTime.now());
+        
+        boolean success;
+        String error = null;
         try {
-            // Update metadata
-            failedMessage.setRetriedBy(adminUser);
-            failedMessage.setAdminNotes(adminNotes);
-            failedMessage.setStatus(RetryStatus.RETRYING);
-            failedMessage.setLastRetryAt(LocalDateTime.now());
-            
             // Parse and reprocess
             StudentRegistrationDTO registrationDTO = objectMapper.readValue(
                     failedMessage.getOriginalMessage(), 
                     StudentRegistrationDTO.class
             );
             
-            boolean success = attemptReprocessing(registrationDTO, failedMessage.getFailureStage());
-            
-            if (success) {
+            success = attemptReprocessing(registrationDTO, failedMessage);
+        } catch (Exception e) {
+            log.error("❌ [MANUAL RETRY ERROR] Error during manual retry: {}", e.getMessage(), e);
+            success = false;
+            error = e.getMessage();
+        }
+        long durationMs = System.currentTimeMillis() - startTime;
+        
+        boolean succeeded = success;
+        String failure = error;
+        transactionTemplate.executeWithoutResult(status -> {
+            if (succeeded) {
                 failedMessage.setStatus(RetryStatus.MANUAL_RETRY_SUCCESS);
                 failedMessage.setResolvedAt(LocalDateTime.now());
-                failedMessage.setRetryHistory(failedMessage.getRetryHistory() + "\n" +
-                        buildRetryHistoryEntry(failedMessage.getRetryAttempts() + 1, 
-                                              "MANUAL_SUCCESS", 
-                                              "Manual retry by " + adminUser + " - " + adminNotes));
+                retryAttemptService.record(failedMessage, failedMessage.getRetryAttempts() + 1,
+                        RetryOutcome.MANUAL_SUCCESS, "Manual retry by " + adminUser + " - " + adminNotes,
+                        durationMs);
                 
                 log.info("✅ [MANUAL RETRY SUCCESS] Message ID: {} processed successfully", messageId);
             } else {
                 failedMessage.setStatus(RetryStatus.FAILED);
-                failedMessage.setRetryHistory(failedMessage.getRetryHistory() + "\n" +
-                        buildRetryHistoryEntry(failedMessage.getRetryAttempts() + 1, 
-                                              "MANUAL_FAILED", 
-                                              "Manual retry by " + adminUser + " failed"));
+                retryAttemptService.record(failedMessage, failedMessage.getRetryAttempts() + 1,
+                        RetryOutcome.MANUAL_FAILED, "Manual retry by " + adminUser + " failed"
+                                + (failure != null ? ": " + failure : ""), durationMs);
                 
                 log.error("❌ [MANUAL RETRY FAILED] Message ID: {} failed after manual retry", messageId);
             }
             
             failedMessageRepository.save(failedMessage);
-            return success;
-            
-        } catch (Exception e) {
-            log.error("❌ [MANUAL RETRY ERROR] Error during manual retry: {}", e.getMessage(), e);
-            failedMessage.setStatus(RetryStatus.FAILED);
-            failedMessageRepository.save(failedMessage);
-            return false;
-        }
+            publishStatus(failedMessage, durationMs);
+        });
+        return success;
     }
     
     /**
-     * Simulates reprocessing of a failed registration.
-     * TODO: Integrate with actual registration flow
+     * Reprocesses a failed registration through the real registration flow.
+     * 
+     * - REGISTRATION_SUBMISSION: re-enqueue to the outbox for publishing
+     * - Pipeline stages: resume at the failed stage, reusing the routing result,
+     *   aggregated profile and registration ID stored in the checkpoint
+     * 
+     * On failure the failed message is updated with the new failure stage,
+     * error and checkpoint so the next attempt resumes from there.
      * 
      * @param registrationDTO The registration data
-     * @param failureStage The stage that previously failed
+     * @param failedMessage The failed message being retried
      * @return true if reprocessing succeeded
      */
-    private boolean attemptReprocessing(StudentRegistrationDTO registrationDTO, String failureStage) {
-        // TODO: Implement actual reprocessing logic based on failure stage
-        // For now, simulate success for demonstration purposes
-        // In production, this would call the appropriate service methods
+    private boolean attemptReprocessing(StudentRegistrationDTO registrationDTO, FailedMessage failedMessage) {
+        String failureStage = failedMessage.getFailureStage();
         
         log.info("🔄 [REPROCESSING] Attempting to reprocess registration for: {} at stage: {}", 
                  registrationDTO.getStudentId(), failureStage);
         
-        // Simulate processing (80% success rate for demonstration)
-        boolean success = Math.random() > 0.2;
-        
-        if (success) {
-            log.info("✅ [REPROCESSING] Successfully reprocessed registration");
-        } else {
-            log.warn("⚠️ [REPROCESSING] Reprocessing failed (simulated failure)");
+        if (SUBMISSION_STAGE.equals(failureStage)) {
+            try {
+                String messageId = outboxService.enqueue(registrationDTO).getMessageId();
+                log.info("✅ [REPROCESSING] Registration re-enqueued to outbox with message ID: {}", messageId);
+                return true;
+            } catch (Exception e) {
+                log.warn("⚠️ [REPROCESSING] Re-enqueue failed: {}", e.getMessage());
+                failedMessage.setErrorMessage(truncate(e.getMessage(), 1000));
+                return false;
+            }
         }
         
-        return success;
+        RegistrationCheckpoint checkpoint = readCheckpoint(failedMessage);
+        log.info("📍 [CHECKPOINT] Resuming student {} after completed stage: {}",
+                 registrationDTO.getStudentId(), checkpoint.getCompletedStage());
+        
+        try {
+            Long registrationId = processingService.resume(registrationDTO, checkpoint);
+            
+            log.info("✅ [REPROCESSING] Successfully reprocessed registration with ID: {}", registrationId);
+            return true;
+            
+        } catch (RegistrationProcessingException e) {
+            log.warn("⚠️ [REPROCESSING] Reprocessing failed at stage {}: {}", e.getStage(), e.getMessage());
+            
+            // Next attempt resumes where this one stopped
+            failedMessage.setFailureStage(e.getStage().name());
+            failedMessage.setErrorCategory(e.getStage().getErrorCategory());
+            failedMessage.setErrorMessage(truncate(e.getMessage(), 1000));
+            writeCheckpoint(failedMessage, e.getCheckpoint());
+            return false;
+        }
     }
     
     /**
-     * Builds a retry history entry with timestamp.
+     * Notify status stream subscribers of the failed message's new retry status
      */
-    private String buildRetryHistoryEntry(int attemptNumber, String result, String details) {
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        
-        return String.format("[%s] Attempt %d: %s - %s", 
-                           now.format(formatter), 
-                           attemptNumber, 
-                           result, 
-                           details);
+    private void publishStatus(FailedMessage failedMessage) {
+        publishStatus(failedMessage, null);
+    }
+    
+    /**
+     * Notify status stream subscribers and Flight Recorder of the new retry status
+     * 
+     * @param attemptMs Duration of the retry attempt that changed the status (null if none)
+     */
+    private void publishStatus(FailedMessage failedMessage, Long attemptMs) {
+        RetryTransitionEvent.emit(failedMessage.getStudentId(), failedMessage.getId(),
+                failedMessage.getFailureStage(), failedMessage.getStatus().name(),
+                failedMessage.getRetryAttempts(), attemptMs);
+        eventPublisher.publishEvent(RegistrationStatusEvent.retry(failedMessage));
+    }
+    
+    /**
+     * Reads the stored checkpoint, falling back to an empty one (full reprocessing)
+     */
+    private RegistrationCheckpoint readCheckpoint(FailedMessage failedMessage) {
+        if (failedMessage.getCheckpoint() == null) {
+            return new RegistrationCheckpoint();
+        }
+        try {
+            return objectMapper.readValue(failedMessage.getCheckpoint(), RegistrationCheckpoint.class);
+        } catch (Exception e) {
+            log.warn("⚠️ [REPROCESSING] Unreadable checkpoint for message {} - reprocessing all stages: {}",
+                     failedMessage.getId(), e.getMessage());
+            return new RegistrationCheckpoint();
+        }
+    }
+    
+    private void writeCheckpoint(FailedMessage failedMessage, RegistrationCheckpoint checkpoint) {
+        try {
+            failedMessage.setCheckpoint(objectMapper.writeValueAsString(checkpoint));
+        } catch (Exception e) {
+            log.warn("⚠️ [REPROCESSING] Could not store checkpoint for message {}: {}",
+                     failedMessage.getId(), e.getMessage());
+        }
+    }
+    
+    private String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
     }
     
     /**
@@ -403,6 +681,24 @@ public class RetryService {
         return stackTrace;
     }
     
+    /**
+     * Retry scheduler state: "running" if it ran within three intervals, "stalled" if
+     * it ran before but not since, "not started" if it has not run yet.
+     */
+    public Map<String, Object> getSchedulerHealth() {
+        long lastRun = lastSchedulerRun;
+        Map<String, Object> health = new LinkedHashMap<>();
+        if (lastRun == 0) {
+            health.put("status", "not started");
+        } else {
+            health.put("status", System.currentTimeMillis() - lastRun <= 3 * schedulerIntervalMs ? "running" : "stalled");
+            health.put("lastRunAt", Instant.ofEpochMilli(lastRun).toString());
+        }
+        health.put("intervalMs", schedulerIntervalMs);
+        health.put("activeRetries", retryExecutor.getActiveCount());
+        return health;
+    }
+    
     /**
      * Get all failed messages in DLQ.
      */
@@ -417,6 +713,13 @@ public class RetryService {
         return failedMessageRepository.findByStatus(status);
     }
     
+    /**
+     * Get the most recent failed message of a student.
+     */
+    public Optional<FailedMessage> getLatestMessageForStudent(String studentId) {
+        return failedMessageRepository.findFirstByStudentIdOrderByFailedAtDesc(studentId);
+    }
+    
     /**
      * Get unresolved messages.
      */
@@ -0,0 +1,11 @@
+package com.rsu.registration.service;
+
+/**
+ * Failure injected by the downstream simulator (error rate, timeout or brown-out).
+ */
+public class SimulatedDownstreamException extends RuntimeException {
+    
+    public SimulatedDownstreamException(String message) {
+        super(message);
+    }
+}
@@ -1,15 +1,24 @@
 package com.rsu.registration.service;
 
 import com.rsu.registration.dto.*;
+import com.rsu.registration.jfr.DownstreamCallEvent;
+import com.rsu.registration.model.DownstreamSystem;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * Student Profile Aggregator Service
@@ -23,6 +32,14 @@ import java.util.concurrent.TimeoutException;
  * 3. Library Services System (for all students)
  * 
  * Implements timeout handling for slow systems (30 seconds default)
+ * without blocking: callers get a CompletableFuture of the profile.
+ * 
+ * Every system call goes through its circuit breaker. A failed call, or a call
+ * rejected by an open circuit, leaves that response empty: the profile becomes
+ * PARTIAL and lists the system in skippedSystems for the backfill task.
+ * Systems still running when the aggregation timeout fires are skipped the
+ * same way, and their late responses are not reported to the listener.
+ * Slow calls can be hedged with a second attempt (see HedgingService).
  */
 @Service
 @RequiredArgsConstructor
@@ -33,19 +50,81 @@ public class StudentProfileAggregatorService {
     private final HousingSystemService housingSystem;
     private final BillingSystemService billingSystem;
     private final LibrarySystemService librarySystem;
+    private final CircuitBreakerService circuitBreakerService;
+    private final HedgingService hedgingService;
+    private final PipelineMetricsService pipelineMetrics;
+    private final LatencyHistogramService latencyHistograms;
+    private final TracingService tracingService;
+    
+    /** Reasons passed to {@link ProfilePartListener#onSkipped} */
+    public static final String SKIP_TIMEOUT = "timeout";
+    public static final String SKIP_CIRCUIT_OPEN = "circuit_open";
+    public static final String SKIP_FAILURE = "failure";
     
-    private static final long AGGREGATION_TIMEOUT_SECONDS = 30;
+    @Value("${app.aggregation.timeout-ms:30000}")
+    private long aggregationTimeoutMs;
     
     /**
-     * Aggregate student profile from all systems
+     * Aggregate student profile from all systems, blocking until it is complete
+     * or the aggregation timeout expires (used by the pipeline and the backfill task)
      * 
      * @param registration Student registration data
      * @return Aggregated student profile with all system responses
      */
     public AggregatedStudentProfile aggregateStudentProfile(StudentRegistrationDTO registration) {
+        return aggregateStudentProfileAsync(registration).join();
+    }
+    
+    /**
+     * Aggregate student profile from all systems without blocking the caller.
+     * The future completes when every system answered or the aggregation timeout
+     * expired, and never completes exceptionally (failures give a partial profile).
+     * 
+     * @param registration Student registration data
+     * @return Future of the aggregated student profile
+     */
+    public CompletableFuture<AggregatedStudentProfile> aggregateStudentProfileAsync(StudentRegistrationDTO registration) {
+        return aggregateStudentProfileAsync(registration, (system, response) -> { });
+    }
+    
+    /**
+     * Aggregate student profile from all systems, reporting each system's response
+     * to the listener as soon as it arrives (before the future completes).
+     * 
+     * @param registration Student registration data
+     * @param listener Receives each response, or null when the system was skipped
+     * @return Future of the aggregated student profile
+     */
+    public CompletableFuture<AggregatedStudentProfile> aggregateStudentProfileAsync(StudentRegistrationDTO registration,
+                                                                                    ProfilePartListener listener) {
+        return aggregate(registration, null, listener);
+    }
+    
+    /**
+     * Complete a partial profile (used by the backfill task): only the systems
+     * without a response in the previous profile are called, the responses it
+     * already has are reused, so systems that answered are not called again.
+     * 
+     * @param registration Student registration data
+     * @param previous Profile stored with the PROFILE_PARTIAL registration
+     * @return Future of the merged profile
+     */
+    public CompletableFuture<AggregatedStudentProfile> completeProfileAsync(StudentRegistrationDTO registration,
+                                                                           AggregatedStudentProfile previous) {
+        return aggregate(registration, previous, (system, response) -> { });
+    }
+    
+    private CompletableFuture<AggregatedStudentProfile> aggregate(StudentRegistrationDTO registration,
+                                                                  AggregatedStudentProfile previous,
+                                                                  ProfilePartListener listener) {
         log.info("🔄 AGGREGATOR: Starting aggregation for student: {}", registration.getStudentName());
+        ProfilePartListener parts = new OncePerSystemListener(listener);
         long startTime = System.currentTimeMillis();
         
+        // System calls started below become child spans of the aggregation span
+        TracingService.Span span = tracingService.startSpan("aggregate profile", null)
+                .tag("studentId", registration.getStudentId());
+        TracingService.Scope scope = tracingService.activate(span);
         try {
             // Determine if student is first year
             boolean isFirstYear = isFirstYearStudent(registration.getYearLevel());
@@ -54,20 +133,31 @@ public class StudentProfileAggregatorService {
                     isFirstYear ? "Academic, Housing, Library" : "Academic, Billing, Library",
                     registration.getStudentName());
             
-            // Start all system calls asynchronously
-            CompletableFuture<AcademicRecordsResponse> academicFuture = 
-                    academicRecordsSystem.processEnrollment(registration);
+            // Start all system calls asynchronously, each behind its circuit breaker
+            List<String> skippedSystems = new CopyOnWriteArrayList<>();
+            
+            // Responses already in the previous profile are reused instead of called
+            CompletableFuture<AcademicRecordsResponse> academicFuture = reuseOrCall(
+                    previous != null ? previous.getAcademicRecords() : null,
+                    () -> callSystem(DownstreamSystem.ACADEMIC_RECORDS, registration, skippedSystems, parts,
+                            () -> academicRecordsSystem.processEnrollment(registration)));
             
-            CompletableFuture<HousingResponse> housingFuture = isFirstYear ? 
-                    housingSystem.processHousingAssignment(registration) : null;
+            CompletableFuture<HousingResponse> housingFuture = isFirstYear ? reuseOrCall(
+                    previous != null ? previous.getHousing() : null,
+                    () -> callSystem(DownstreamSystem.HOUSING, registration, skippedSystems, parts,
+                            () -> housingSystem.processHousingAssignment(registration))) : null;
             
-            CompletableFuture<BillingResponse> billingFuture = !isFirstYear ? 
-                    billingSystem.processBillingSetup(registration) : null;
+            CompletableFuture<BillingResponse> billingFuture = !isFirstYear ? reuseOrCall(
+                    previous != null ? previous.getBilling() : null,
+                    () -> callSystem(DownstreamSystem.BILLING, registration, skippedSystems, parts,
+                            () -> billingSystem.processBillingSetup(registration))) : null;
             
-            CompletableFuture<LibraryResponse> libraryFuture = 
-                    librarySystem.processLibraryAccountActivation(registration);
+            CompletableFuture<LibraryResponse> libraryFuture = reuseOrCall(
+                    previous != null ? previous.getLibrary() : null,
+                    () -> callSystem(DownstreamSystem.LIBRARY, registration, skippedSystems, parts,
+                            () -> librarySystem.processLibraryAccountActivation(registration)));
             
-            // Wait for all responses with timeout
+            // Wait for all responses with timeout, without holding a thread
             CompletableFuture<Void> allFutures;
             if (isFirstYear) {
                 allFutures = CompletableFuture.allOf(academicFuture, housingFuture, libraryFuture);
@@ -75,61 +165,184 @@ public class StudentProfileAggregatorService {
                 allFutures = CompletableFuture.allOf(academicFuture, billingFuture, libraryFuture);
             }
             
-            // Apply timeout
-            allFutures.get(AGGREGATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-            
-            // Collect all responses
-            AcademicRecordsResponse academic = academicFuture.getNow(null);
-            HousingResponse housing = housingFuture != null ? housingFuture.getNow(null) : null;
-            BillingResponse billing = billingFuture != null ? billingFuture.getNow(null) : null;
-            LibraryResponse library = libraryFuture.getNow(null);
-            
-            long endTime = System.currentTimeMillis();
-            long aggregationTime = endTime - startTime;
-            
-            // Count responses
-            int responsesReceived = countResponses(academic, housing, billing, library);
-            boolean isComplete = (academic != null && (housing != null || billing != null) && library != null);
-            
-            // Build aggregated profile
-            AggregatedStudentProfile profile = AggregatedStudentProfile.builder()
-                    .studentId(registration.getStudentId())
-                    .studentName(registration.getStudentName())
-                    .program(registration.getProgram())
-                    .yearLevel(registration.getYearLevel())
-                    .academicRecords(academic)
-                    .housing(housing)
-                    .billing(billing)
-                    .library(library)
-                    .aggregationTimestamp(LocalDateTime.now())
-                    .responsesReceived(responsesReceived)
-                    .responsesExpected(3)
-                    .isComplete(isComplete)
-                    .aggregationTimeMs(aggregationTime)
-                    .aggregationStatus(determineAggregationStatus(academic, housing, billing, library))
-                    .build();
-            
-            log.info("✅ AGGREGATOR: Successfully aggregated profile for {} in {}ms", 
-                    registration.getStudentName(), aggregationTime);
-            log.info("📊 AGGREGATOR: Responses - Academic: {}, Housing/Billing: {}, Library: {}", 
-                    academic != null ? "✓" : "✗",
-                    (housing != null || billing != null) ? "✓" : "✗",
-                    library != null ? "✓" : "✗");
-            
-            return profile;
-            
-        } catch (TimeoutException e) {
-            log.error("⏱️ AGGREGATOR: Timeout after {}s for student: {}", 
-                    AGGREGATION_TIMEOUT_SECONDS, registration.getStudentName());
-            return createPartialProfile(registration, startTime, "TIMEOUT");
+            return allFutures
+                    .completeOnTimeout(null, aggregationTimeoutMs, TimeUnit.MILLISECONDS)
+                    .thenApply(ignored -> buildProfile(registration, startTime, skippedSystems, parts,
+                            academicFuture, housingFuture, billingFuture, libraryFuture))
+                    .exceptionally(e -> {
+                        log.error("❌ AGGREGATOR: Error aggregating profile for {}: {}", 
+                                registration.getStudentName(), e.getMessage(), e);
+                        return createPartialProfile(registration, startTime, "ERROR");
+                    })
+                    .thenApply(profile -> recordAggregation(profile, span));
             
         } catch (Exception e) {
             log.error("❌ AGGREGATOR: Error aggregating profile for {}: {}", 
                     registration.getStudentName(), e.getMessage(), e);
-            return createPartialProfile(registration, startTime, "ERROR");
+            return CompletableFuture.completedFuture(
+                    recordAggregation(createPartialProfile(registration, startTime, "ERROR"), span));
+        } finally {
+            scope.close();
+        }
+    }
+    
+    /**
+     * Build the profile from the responses received so far.
+     * Systems still running after a timeout count as skipped.
+     */
+    private AggregatedStudentProfile buildProfile(StudentRegistrationDTO registration,
+                                                  long startTime,
+                                                  List<String> skippedSystems,
+                                                  ProfilePartListener listener,
+                                                  CompletableFuture<AcademicRecordsResponse> academicFuture,
+                                                  CompletableFuture<HousingResponse> housingFuture,
+                                                  CompletableFuture<BillingResponse> billingFuture,
+                                                  CompletableFuture<LibraryResponse> libraryFuture) {
+        boolean timedOut = !academicFuture.isDone() || !libraryFuture.isDone() ||
+                (housingFuture != null && !housingFuture.isDone()) ||
+                (billingFuture != null && !billingFuture.isDone());
+        if (timedOut) {
+            log.error("⏱️ AGGREGATOR: Timeout after {}ms for student: {}", 
+                    aggregationTimeoutMs, registration.getStudentName());
+        }
+        
+        // Collect all responses
+        AcademicRecordsResponse academic = collect(academicFuture, DownstreamSystem.ACADEMIC_RECORDS, skippedSystems, listener);
+        HousingResponse housing = housingFuture != null ? 
+                collect(housingFuture, DownstreamSystem.HOUSING, skippedSystems, listener) : null;
+        BillingResponse billing = billingFuture != null ? 
+                collect(billingFuture, DownstreamSystem.BILLING, skippedSystems, listener) : null;
+        LibraryResponse library = collect(libraryFuture, DownstreamSystem.LIBRARY, skippedSystems, listener);
+        
+        long endTime = System.currentTimeMillis();
+        long aggregationTime = endTime - startTime;
+        
+        // Count responses
+        int responsesReceived = countResponses(academic, housing, billing, library);
+        boolean isComplete = (academic != null && (housing != null || billing != null) && library != null);
+        String aggregationStatus = timedOut && !isComplete ? 
+                "TIMEOUT" : determineAggregationStatus(academic, housing, billing, library);
+        
+        // Build aggregated profile
+        AggregatedStudentProfile profile = AggregatedStudentProfile.builder()
+                .studentId(registration.getStudentId())
+                .studentName(registration.getStudentName())
+                .program(registration.getProgram())
+                .yearLevel(registration.getYearLevel())
+                .academicRecords(academic)
+                .housing(housing)
+                .billing(billing)
+                .library(library)
+                .aggregationTimestamp(LocalDateTime.now())
+                .responsesReceived(responsesReceived)
+                .responsesExpected(3)
+                .isComplete(isComplete)
+                .aggregationTimeMs(aggregationTime)
+                .aggregationStatus(aggregationStatus)
+                .skippedSystems(skippedSystems.isEmpty() ? null : new ArrayList<>(skippedSystems))
+                .build();
+        
+        log.info("✅ AGGREGATOR: Aggregated {} profile for {} in {}ms", 
+                aggregationStatus, registration.getStudentName(), aggregationTime);
+        log.info("📊 AGGREGATOR: Responses - Academic: {}, Housing/Billing: {}, Library: {}", 
+                academic != null ? "✓" : "✗",
+                (housing != null || billing != null) ? "✓" : "✗",
+                library != null ? "✓" : "✗");
+        
+        return profile;
+    }
+    
+    /**
+     * Call one system through its circuit breaker, hedged when slower than its threshold.
+     * Each call gets a client span, active on the threads running the call and its hedge,
+     * and a {@link DownstreamCallEvent} for Flight Recorder.
+     * Failures and open circuits complete with null and add the system to skippedSystems.
+     * The listener is notified before the returned future completes.
+     */
+    private <T> CompletableFuture<T> callSystem(DownstreamSystem system,
+                                                StudentRegistrationDTO registration,
+                                                List<String> skippedSystems,
+                                                ProfilePartListener listener,
+                                                Supplier<CompletableFuture<T>> call) {
+        TracingService.Span span = tracingService.startSpan(system.getDisplayName(), TracingService.Span.CLIENT)
+                .tag("system", system.name());
+        DownstreamCallEvent event = DownstreamCallEvent.start();
+        long startNanos = System.nanoTime();
+        Supplier<CompletableFuture<T>> tracedCall =
+                () -> tracingService.inSpan(span, () -> circuitBreakerService.call(system, call));
+        return hedgingService.call(system, tracedCall).whenComplete((response, ex) -> {
+            String outcome = ex == null ? "success"
+                    : unwrap(ex) instanceof CallNotPermittedException ? "circuit_open" : "failure";
+            long nanos = System.nanoTime() - startNanos;
+            pipelineMetrics.recordDownstreamCall(system, nanos, outcome);
+            if (!"circuit_open".equals(outcome)) {
+                latencyHistograms.recordDownstreamCall(system, nanos);
+            }
+            event.finish(registration.getStudentId(), system.name(), outcome);
+            span.tag("outcome", outcome);
+            if (ex != null) {
+                span.error(unwrap(ex));
+            }
+            span.end();
+        }).handle((response, ex) -> {
+            if (ex == null) {
+                notifyListener(system, () -> listener.onPart(system, response));
+                return response;
+            }
+            Throwable cause = unwrap(ex);
+            String reason;
+            if (cause instanceof CallNotPermittedException) {
+                log.warn("⚡ AGGREGATOR: {} circuit open - skipping for {}", 
+                        system.getDisplayName(), registration.getStudentName());
+                reason = SKIP_CIRCUIT_OPEN;
+            } else {
+                log.warn("⚠️ AGGREGATOR: {} failed for {}: {}", 
+                        system.getDisplayName(), registration.getStudentName(), cause.getMessage());
+                reason = SKIP_FAILURE;
+            }
+            skippedSystems.add(system.getDisplayName());
+            notifyListener(system, () -> listener.onSkipped(system, reason));
+            return null;
+        });
+    }
+    
+    private void notifyListener(DownstreamSystem system, Runnable notification) {
+        try {
+            notification.run();
+        } catch (Exception e) {
+            log.warn("⚠️ AGGREGATOR: Listener failed for {}: {}", system.getDisplayName(), e.getMessage());
         }
     }
     
+    private static <T> CompletableFuture<T> reuseOrCall(T previousResponse, Supplier<CompletableFuture<T>> call) {
+        return previousResponse != null ? CompletableFuture.completedFuture(previousResponse) : call.get();
+    }
+    
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+    
+    private AggregatedStudentProfile recordAggregation(AggregatedStudentProfile profile, TracingService.Span span) {
+        pipelineMetrics.recordAggregation(profile.getAggregationStatus(), profile.getAggregationTimeMs());
+        latencyHistograms.recordAggregation(profile.getAggregationTimeMs());
+        span.tag("status", profile.getAggregationStatus()).end();
+        return profile;
+    }
+    
+    /**
+     * Take a response if the call finished, otherwise mark the system as skipped
+     * and report it to the listener as timed out
+     */
+    private <T> T collect(CompletableFuture<T> future, DownstreamSystem system,
+                          List<String> skippedSystems, ProfilePartListener listener) {
+        if (!future.isDone()) {
+            skippedSystems.add(system.getDisplayName());
+            notifyListener(system, () -> listener.onSkipped(system, SKIP_TIMEOUT));
+            return null;
+        }
+        return future.getNow(null);
+    }
+    
     /**
      * Determine if student is first year
      */
@@ -189,4 +402,55 @@ public class StudentProfileAggregatorService {
                 .aggregationStatus(status)
                 .build();
     }
+    
+    /**
+     * Receives the response of each system as soon as it arrives
+     */
+    @FunctionalInterface
+    public interface ProfilePartListener {
+        
+        /**
+         * @param system The system that answered
+         * @param response Its response, or null if the system failed, timed out or its circuit is open
+         */
+        void onPart(DownstreamSystem system, Object response);
+        
+        /**
+         * Called instead of {@link #onPart} when the system gave no response
+         * 
+         * @param system The system that was skipped
+         * @param reason One of SKIP_TIMEOUT, SKIP_CIRCUIT_OPEN or SKIP_FAILURE
+         */
+        default void onSkipped(DownstreamSystem system, String reason) {
+            onPart(system, null);
+        }
+    }
+    
+    /**
+     * Passes on only the first part of each system, so a response arriving
+     * after the system was skipped at the timeout is not reported as well
+     */
+    private static class OncePerSystemListener implements ProfilePartListener {
+        
+        private final ProfilePartListener delegate;
+        private final Set<DownstreamSystem> reported = ConcurrentHashMap.newKeySet();
+        
+        OncePerSystemListener(ProfilePartListener delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public void onPart(DownstreamSystem system, Object response) {
+            if (reported.add(system)) {
+                delegate.onPart(system, response);
+            }
+        }
+        
+        @Override
+        public void onSkipped(DownstreamSystem system, String reason) {
+            if (reported.add(system)) {
+                delegate.onSkipped(system, reason);
+            }
+        }
+    }
 }
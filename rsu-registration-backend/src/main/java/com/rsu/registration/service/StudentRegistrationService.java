@@ -1,5 +1,8 @@
 package com.rsu.registration.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rsu.registration.dto.AggregatedStudentProfile;
 import com.rsu.registration.dto.StudentRegistrationDTO;
 import com.rsu.registration.model.StudentRegistration;
 import com.rsu.registration.repository.StudentRegistrationRepository;
@@ -9,6 +12,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Service for handling student registration business logic
@@ -18,7 +23,11 @@ import java.time.LocalDateTime;
 @Slf4j
 public class StudentRegistrationService {
 
+    private static final String PARTIAL_STATUS = "PROFILE_PARTIAL";
+
     private final StudentRegistrationRepository registrationRepository;
+    private final DuplicateRegistrationService duplicateRegistrationService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Save student registration received from message queue
@@ -39,11 +48,58 @@ public class StudentRegistrationService {
                 .build();
 
         StudentRegistration saved = registrationRepository.save(registration);
+        duplicateRegistrationService.markRegistered(saved.getStudentId());
         log.info("Registration saved with ID: {}", saved.getId());
 
         return saved;
     }
 
+    /**
+     * Save a processed registration with its final status and profile message
+     * in one statement (INSERT ... ON CONFLICT (student_id) DO UPDATE).
+     * Replaces saveRegistration followed by updateRegistrationStatus, so readers
+     * never see the intermediate REGISTERED status.
+     * A PROFILE_PARTIAL registration also stores the profile for the backfill task.
+     *
+     * @return ID of the inserted or updated registration
+     */
+    @Transactional
+    public Long upsertRegistration(StudentRegistrationDTO registrationDTO, String status, String message,
+                                   AggregatedStudentProfile profile) {
+        log.info("Upserting registration for student: {} with status: {}", registrationDTO.getStudentId(), status);
+
+        StudentRegistration registration = toRegistration(registrationDTO, status, message);
+        if (PARTIAL_STATUS.equals(status)) {
+            registration.setPartialProfile(writeProfile(profile));
+        }
+        Long id = registrationRepository.upsert(registration);
+        duplicateRegistrationService.markRegistered(registrationDTO.getStudentId());
+        log.info("Registration upserted with ID: {}", id);
+
+        return id;
+    }
+
+    /**
+     * Batch form of {@link #upsertRegistration}: one JDBC batch for all registrations.
+     * Each registration carries its own status, message and partial profile, and a
+     * PROFILE_COMPLETE row is never downgraded.
+     *
+     * @return IDs of the inserted or existing registrations, in the order given
+     */
+    @Transactional
+    public List<Long> upsertRegistrations(List<StudentRegistration> registrations) {
+        if (registrations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        log.info("Upserting batch of {} registrations", registrations.size());
+
+        List<Long> ids = registrationRepository.upsertAll(registrations);
+        registrations.forEach(registration ->
+                duplicateRegistrationService.markRegistered(registration.getStudentId()));
+
+        return ids;
+    }
+
     /**
      * Get registration by ID
      */
@@ -78,6 +134,67 @@ public class StudentRegistrationService {
                 .orElse(null);
     }
 
+    /**
+     * Store the result of a backfill attempt of a partial profile. Ignored when the
+     * registration is no longer PROFILE_PARTIAL (e.g. completed by a retry).
+     *
+     * @return true if the registration was updated
+     */
+    @Transactional
+    public boolean updateBackfilledProfile(Long id, String status, String message, AggregatedStudentProfile profile) {
+        return registrationRepository.findById(id)
+                .filter(registration -> PARTIAL_STATUS.equals(registration.getStatus()))
+                .map(registration -> {
+                    registration.setStatus(status);
+                    registration.setMessage(message);
+                    registration.setPartialProfile(PARTIAL_STATUS.equals(status) ? writeProfile(profile) : null);
+                    registration.setBackfillAttemptedAt(LocalDateTime.now());
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Profile stored with a PROFILE_PARTIAL registration, or null if there is none
+     * (the backfill then aggregates the whole profile again)
+     */
+    public AggregatedStudentProfile readPartialProfile(StudentRegistration registration) {
+        if (registration.getPartialProfile() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(registration.getPartialProfile(), AggregatedStudentProfile.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable partial profile for student {}: {}", registration.getStudentId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String writeProfile(AggregatedStudentProfile profile) {
+        if (profile == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(profile);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not store partial profile for student {}: {}", profile.getStudentId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private StudentRegistration toRegistration(StudentRegistrationDTO registrationDTO, String status, String message) {
+        return StudentRegistration.builder()
+                .studentName(registrationDTO.getStudentName())
+                .studentId(registrationDTO.getStudentId())
+                .email(registrationDTO.getEmail())
+                .program(registrationDTO.getProgram())
+                .yearLevel(registrationDTO.getYearLevel())
+                .registrationTimestamp(LocalDateTime.now())
+                .status(status)
+                .message(message)
+                .build();
+    }
+
     /**
      * Get total registrations count
      */
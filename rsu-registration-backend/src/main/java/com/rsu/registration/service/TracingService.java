@@ -0,0 +1,394 @@
+package com.rsu.registration.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Distributed tracing for the registration pipeline.
+ *
+ * - Trace context follows the W3C Trace Context format (traceparent header
+ *   "00-{32 hex trace id}-{16 hex span id}-{flags}")
+ * - The context travels in the outbox row and the AMQP "traceparent" header, so
+ *   submit, publish, listener and downstream calls share one trace
+ * - The active span is kept per thread (and in the log MDC as traceId/spanId);
+ *   {@link #wrap(Runnable)} carries it into executor threads
+ * - Finished sampled spans are queued and flushed in Zipkin v2 JSON: one span per
+ *   line to a local file, and optionally POSTed to a Zipkin-compatible collector
+ *
+ * Context is always propagated; app.tracing.sample-rate only decides what is exported.
+ */
+@Service
+@Slf4j
+public class TracingService {
+
+    public static final String TRACEPARENT_HEADER = "traceparent";
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final ObjectMapper objectMapper;
+    private final String serviceName;
+    private final double sampleRate;
+    private final Path exportFile;
+    private final long maxFileBytes;
+    private final String collectorUrl;
+    private final BlockingQueue<Span> finished;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final AtomicLong exported = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public TracingService(ObjectMapper objectMapper,
+                          @Value("${spring.application.name:rsu-registration-backend}") String serviceName,
+                          @Value("${app.tracing.sample-rate:1.0}") double sampleRate,
+                          @Value("${app.tracing.export-file:traces/spans.jsonl}") String exportFile,
+                          @Value("${app.tracing.max-file-mb:100}") long maxFileMb,
+                          @Value("${app.tracing.collector-url:}") String collectorUrl,
+                          @Value("${app.tracing.queue-capacity:10000}") int queueCapacity) {
+        this.objectMapper = objectMapper;
+        this.serviceName = serviceName;
+        this.sampleRate = sampleRate;
+        this.exportFile = exportFile.isEmpty() ? null : Paths.get(exportFile);
+        this.maxFileBytes = maxFileMb * 1024 * 1024;
+        this.collectorUrl = collectorUrl.isEmpty() ? null : collectorUrl;
+        this.finished = new ArrayBlockingQueue<>(queueCapacity);
+
+        log.info("🧵 [TRACING] Sampling {}% of traces, exporting to {}{}", sampleRate * 100,
+                 this.exportFile != null ? this.exportFile.toAbsolutePath() : "no file",
+                 this.collectorUrl != null ? " and " + this.collectorUrl : "");
+    }
+
+    /**
+     * Start a span under the thread's active span, or a new trace if there is none
+     */
+    public Span startSpan(String name, String kind) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return newTrace(name, kind);
+        }
+        return new Span(this, name, kind, parent.traceId, randomHex(8), parent.spanId, parent.sampled);
+    }
+
+    /**
+     * Start a span under a propagated traceparent, or a new trace if it is missing or invalid
+     */
+    public Span startSpan(String name, String kind, String traceparent) {
+        if (traceparent != null) {
+            String[] parts = traceparent.trim().split("-");
+            if (isValidTraceparent(parts)) {
+                boolean sampled = (Integer.parseInt(parts[3], 16) & 1) == 1;
+                return new Span(this, name, kind, parts[1], randomHex(8), parts[2], sampled);
+            }
+            log.debug("🧵 [TRACING] Ignoring invalid traceparent: {}", traceparent);
+        }
+        return newTrace(name, kind);
+    }
+
+    /**
+     * Make a span the thread's active span until the scope is closed
+     */
+    public Scope activate(Span span) {
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        MDC.put("traceId", span.traceId);
+        MDC.put("spanId", span.spanId);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+                MDC.put("traceId", previous.traceId);
+                MDC.put("spanId", previous.spanId);
+            } else {
+                CURRENT.remove();
+                MDC.remove("traceId");
+                MDC.remove("spanId");
+            }
+        };
+    }
+
+    /**
+     * Call a supplier with a span active
+     */
+    public <T> T inSpan(Span span, Supplier<T> supplier) {
+        try (Scope ignored = activate(span)) {
+            return supplier.get();
+        }
+    }
+
+    /**
+     * Traceparent of the thread's active span, or null
+     */
+    public String currentTraceparent() {
+        Span span = CURRENT.get();
+        return span != null ? span.traceparent() : null;
+    }
+
+    /**
+     * Run a task with the span that was active when it was submitted (executor TaskDecorator)
+     */
+    public Runnable wrap(Runnable task) {
+        Span span = CURRENT.get();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = activate(span)) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * Write finished spans to the export file and the collector
+     */
+    @Scheduled(fixedDelayString = "${app.tracing.flush-interval-ms:1000}")
+    public void flush() {
+        List<Span> batch = new ArrayList<>();
+        finished.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<String> lines = new ArrayList<>(batch.size());
+        for (Span span : batch) {
+            try {
+                lines.add(objectMapper.writeValueAsString(span.toZipkin(serviceName)));
+            } catch (JsonProcessingException e) {
+                log.warn("⚠️ [TRACING] Could not serialize span {}: {}", span.name, e.getMessage());
+            }
+        }
+
+        if (exportFile != null) {
+            writeToFile(lines);
+        }
+        if (collectorUrl != null) {
+            postToCollector(lines);
+        }
+        exported.addAndGet(lines.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Exported and dropped span counts
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sampleRate", sampleRate);
+        stats.put("exportedSpans", exported.get());
+        stats.put("droppedSpans", dropped.get());
+        stats.put("queuedSpans", finished.size());
+        stats.put("exportFile", exportFile != null ? exportFile.toAbsolutePath().toString() : null);
+        stats.put("collectorUrl", collectorUrl);
+        return stats;
+    }
+
+    private Span newTrace(String name, String kind) {
+        boolean sampled = sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        return new Span(this, name, kind, randomHex(16), randomHex(8), null, sampled);
+    }
+
+    private void finish(Span span) {
+        if (span.sampled && !finished.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void writeToFile(List<String> lines) {
+        try {
+            if (exportFile.getParent() != null) {
+                Files.createDirectories(exportFile.getParent());
+            }
+            if (Files.exists(exportFile) && Files.size(exportFile) > maxFileBytes) {
+                Files.move(exportFile, exportFile.resolveSibling(exportFile.getFileName() + ".1"),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(exportFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ [TRACING] Could not write {} spans to {}: {}", lines.size(), exportFile, e.getMessage());
+        }
+    }
+
+    private void postToCollector(List<String> lines) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(collectorUrl))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.ofString("[" + String.join(",", lines) + "]"))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+            if (ex != null || response.statusCode() / 100 != 2) {
+                log.warn("⚠️ [TRACING] Collector rejected {} spans: {}", lines.size(),
+                         ex != null ? ex.getMessage() : "HTTP " + response.statusCode());
+            }
+        });
+    }
+
+    private static String randomHex(int bytes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        for (int i = 0; i < bytes; i++) {
+            hex.append(Character.forDigit(random.nextInt(16), 16)).append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * W3C traceparent: version-traceId-parentId-flags in lowercase hex. Version ff is
+     * invalid and version 00 has exactly four fields; later versions may append fields.
+     */
+    private static boolean isValidTraceparent(String[] parts) {
+        if (parts.length < 4 || !isHex(parts[0], 2) || parts[0].equals("ff")
+                || (parts[0].equals("00") && parts.length != 4)) {
+            return false;
+        }
+        return isHex(parts[1], 32) && isHex(parts[2], 16) && isHex(parts[3], 2)
+                && !parts[1].matches("0+") && !parts[2].matches("0+");
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Active span of a thread; closing it restores the previous one
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * One timed operation of a trace. Tags and end() may be called from any thread.
+     */
+    public static final class Span {
+
+        public static final String SERVER = "SERVER";
+        public static final String CLIENT = "CLIENT";
+        public static final String PRODUCER = "PRODUCER";
+        public static final String CONSUMER = "CONSUMER";
+
+        private final TracingService tracing;
+        private final String name;
+        private final String kind;
+        private final String traceId;
+        private final String spanId;
+        private final String parentId;
+        private final boolean sampled;
+        private final long startEpochMicros;
+        private final long startNanos;
+        private final Map<String, String> tags = new LinkedHashMap<>();
+        private volatile long durationMicros = -1;
+
+        private Span(TracingService tracing, String name, String kind, String traceId, String spanId,
+                     String parentId, boolean sampled) {
+            this.tracing = tracing;
+            this.name = name;
+            this.kind = kind;
+            this.traceId = traceId;
+            this.spanId = spanId;
+            this.parentId = parentId;
+            this.sampled = sampled;
+            this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+            this.startNanos = System.nanoTime();
+        }
+
+        public Span tag(String key, Object value) {
+            if (value != null) {
+                synchronized (tags) {
+                    tags.put(key, String.valueOf(value));
+                }
+            }
+            return this;
+        }
+
+        public Span error(Throwable error) {
+            return tag("error", error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName());
+        }
+
+        /**
+         * Finish the span (only the first call counts)
+         */
+        public void end() {
+            if (durationMicros >= 0) {
+                return;
+            }
+            durationMicros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+            tracing.finish(this);
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        public String traceparent() {
+            return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+        }
+
+        private Map<String, Object> toZipkin(String serviceName) {
+            Map<String, Object> span = new LinkedHashMap<>();
+            span.put("traceId", traceId);
+            span.put("id", spanId);
+            if (parentId != null) {
+                span.put("parentId", parentId);
+            }
+            span.put("name", name);
+            if (kind != null) {
+                span.put("kind", kind);
+            }
+            span.put("timestamp", startEpochMicros);
+            span.put("duration", durationMicros);
+            span.put("localEndpoint", Map.of("serviceName", serviceName));
+            synchronized (tags) {
+                if (!tags.isEmpty()) {
+                    span.put("tags", new LinkedHashMap<>(tags));
+                }
+            }
+            return span;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.rsu.registration.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe scalable Bloom filter for string keys.
+ * 
+ * A membership test never returns a false negative: {@code false} means the
+ * key was definitely never added, {@code true} means it probably was and must
+ * be confirmed against the source of truth (usually the database).
+ * 
+ * The filter starts with one stage sized for the expected insertions. When a
+ * stage is full a new stage with twice the capacity and half the false
+ * positive rate is appended, so the overall false positive rate stays below
+ * the configured target however many keys are added.
+ * 
+ * Lookups and inserts are lock-free; only adding a stage takes a lock.
+ */
+public class ScalableBloomFilter {
+    
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+    
+    private final long initialCapacity;
+    private final double falsePositiveRate;
+    private volatile List<Stage> stages;
+    
+    /**
+     * @param expectedInsertions Capacity of the first stage
+     * @param falsePositiveRate Target overall false positive rate (0 &lt; p &lt; 1)
+     */
+    public ScalableBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        this.initialCapacity = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        
+        // Stage rates form a geometric series that sums to the target rate
+        List<Stage> initial = new ArrayList<>();
+        initial.add(new Stage(expectedInsertions, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+        this.stages = initial;
+    }
+    
+    /**
+     * Returns false if the key was definitely never added.
+     */
+    public boolean mightContain(String key) {
+        long hash1 = hash(key);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Adds a key to the filter.
+     */
+    public void put(String key) {
+        long hash1 = hash(key);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        
+        List<Stage> current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(hash1, hash2)) {
+                return;
+            }
+        }
+        
+        Stage last = current.get(current.size() - 1);
+        if (last.isFull()) {
+            last = grow(last);
+        }
+        last.put(hash1, hash2);
+    }
+    
+    /**
+     * Approximate number of distinct keys added.
+     */
+    public long approximateElementCount() {
+        long count = 0;
+        for (Stage stage : stages) {
+            count += stage.count.get();
+        }
+        return count;
+    }
+    
+    /**
+     * Number of stages allocated so far.
+     */
+    public int getStageCount() {
+        return stages.size();
+    }
+    
+    /**
+     * Total memory used by the bit arrays in bytes.
+     */
+    public long getBitArrayBytes() {
+        long bytes = 0;
+        for (Stage stage : stages) {
+            bytes += stage.words.length() * 8L;
+        }
+        return bytes;
+    }
+    
+    public long getInitialCapacity() {
+        return initialCapacity;
+    }
+    
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+    
+    private synchronized Stage grow(Stage full) {
+        List<Stage> current = stages;
+        Stage last = current.get(current.size() - 1);
+        if (last != full) {
+            // Another thread already added a stage
+            return last;
+        }
+        List<Stage> grown = new ArrayList<>(current);
+        Stage next = new Stage(full.capacity * GROWTH_FACTOR, full.falsePositiveRate * TIGHTENING_RATIO);
+        grown.add(next);
+        stages = grown;
+        return next;
+    }
+    
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes followed by a finalizer mix.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+    
+    /**
+     * MurmurHash3 64-bit finalizer.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+    
+    /**
+     * A fixed-size Bloom filter using double hashing over an atomic bit array.
+     */
+    private static final class Stage {
+        
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+        
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, bits);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+        
+        boolean isFull() {
+            return count.get() >= capacity;
+        }
+        
+        boolean mightContain(long hash1, long hash2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = index(hash1, hash2, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        void put(long hash1, long hash2) {
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = index(hash1, hash2, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = words.get(word)) & mask) == 0) {
+                    if (words.compareAndSet(word, current, current | mask)) {
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+            if (changed) {
+                count.incrementAndGet();
+            }
+        }
+        
+        private long index(long hash1, long hash2, int i) {
+            return Math.floorMod(hash1 + i * hash2, bitCount);
+        }
+    }
+}
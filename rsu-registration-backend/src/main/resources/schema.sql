@@ -2,8 +2,12 @@
 -- RSU Student Registration System - Database Initialization
 -- ============================================================
 -- This script creates the necessary database objects for the
--- student registration system. It will be automatically executed
--- by Spring Boot (ddl-auto=update in application.properties)
+-- student registration system. It is executed by Spring Boot on
+-- startup after Hibernate (spring.sql.init.mode=always with
+-- spring.jpa.defer-datasource-initialization=true), so every
+-- statement must be idempotent (IF NOT EXISTS).
+-- Query plans for the indexes below are checked by
+-- db/query-plan-check.sql
 -- ============================================================
 
 -- Create student_registrations table
@@ -18,7 +22,9 @@ CREATE TABLE IF NOT EXISTS student_registrations (
     status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
     message VARCHAR(500),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    partial_profile VARCHAR(8000),
+    backfill_attempted_at TIMESTAMP
 );
 
 -- Create indexes for better query performance
@@ -41,6 +47,179 @@ CREATE TABLE IF NOT EXISTS registration_audit (
 -- Create index on audit table
 CREATE INDEX IF NOT EXISTS idx_audit_registration_id ON registration_audit(registration_id);
 
+-- Create failed_messages table (error channel / dead-letter queue)
+-- Enum columns (status, error_category) are stored as ORDINAL integers
+CREATE TABLE IF NOT EXISTS failed_messages (
+    id BIGSERIAL PRIMARY KEY,
+    student_id VARCHAR(255) NOT NULL,
+    student_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    original_message VARCHAR(2000),
+    failure_stage VARCHAR(255),
+    error_category INTEGER,
+    error_message VARCHAR(1000),
+    stack_trace VARCHAR(5000),
+    status INTEGER NOT NULL,
+    retry_attempts INTEGER NOT NULL DEFAULT 0,
+    max_retry_attempts INTEGER NOT NULL DEFAULT 3,
+    failed_at TIMESTAMP,
+    next_retry_at TIMESTAMP,
+    last_retry_at TIMESTAMP,
+    claimed_at TIMESTAMP,
+    moved_to_dlq_at TIMESTAMP,
+    resolved_at TIMESTAMP,
+    retried_by VARCHAR(255),
+    admin_notes VARCHAR(255),
+    in_dead_letter_queue BOOLEAN NOT NULL DEFAULT FALSE,
+    user_notified BOOLEAN NOT NULL DEFAULT FALSE,
+    last_notification_at TIMESTAMP,
+    checkpoint VARCHAR(8000)
+);
+
+-- Indexes designed from FailedMessageRepository queries
+-- findMessagesReadyForRetry: status = ? AND next_retry_at <= ?
+CREATE INDEX IF NOT EXISTS idx_failed_messages_retry_due ON failed_messages(status, next_retry_at);
+-- findByInDeadLetterQueueTrue / countByInDeadLetterQueueTrue: only DLQ rows are indexed
+CREATE INDEX IF NOT EXISTS idx_failed_messages_dlq ON failed_messages(moved_to_dlq_at)
+    WHERE in_dead_letter_queue = true;
+-- findByStudentId (admin lookup and registration status endpoint)
+CREATE INDEX IF NOT EXISTS idx_failed_messages_student_id ON failed_messages(student_id);
+
+-- Create retry_attempts table (append-only retry history of failed_messages)
+-- Sequence increment matches the JPA allocationSize so inserts can be batched
+CREATE SEQUENCE IF NOT EXISTS retry_attempts_seq INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS retry_attempts (
+    id BIGINT PRIMARY KEY,
+    failed_message_id BIGINT NOT NULL,
+    student_id VARCHAR(255),
+    attempt_number INTEGER NOT NULL,
+    outcome INTEGER NOT NULL,
+    details VARCHAR(1000),
+    duration_ms BIGINT,
+    node VARCHAR(255),
+    attempted_at TIMESTAMP NOT NULL
+);
+
+-- History of one failed message in chronological order
+CREATE INDEX IF NOT EXISTS idx_retry_attempts_message ON retry_attempts(failed_message_id, attempted_at);
+
+-- Migrate the legacy retry history text of failed_messages into retry_attempts.
+-- Each "[yyyy-MM-dd HH:mm:ss] Attempt n: ..." line becomes one LEGACY (ordinal 6) attempt
+-- and the column is cleared, so the migration runs once per row and is safe to re-run.
+-- The column only exists on databases created before retry_attempts; it is added empty otherwise.
+ALTER TABLE failed_messages ADD COLUMN IF NOT EXISTS retry_history VARCHAR(2000);
+WITH legacy AS (
+    UPDATE failed_messages fm SET retry_history = NULL
+    FROM failed_messages old
+    WHERE old.id = fm.id AND old.retry_history IS NOT NULL
+    RETURNING fm.id, fm.student_id, fm.failed_at, old.retry_history
+)
+INSERT INTO retry_attempts (id, failed_message_id, student_id, attempt_number, outcome, details, node, attempted_at)
+SELECT nextval('retry_attempts_seq'), legacy.id, legacy.student_id,
+       COALESCE(substring(h.line from 'Attempt ([0-9]+):')::INTEGER, (h.n - 1)::INTEGER),
+       6,
+       left(COALESCE(substring(h.line from 'Attempt [0-9]+: (.*)$'), h.line), 1000),
+       'legacy',
+       COALESCE(to_timestamp(substring(h.line from '^\[([0-9: -]+)\]'), 'YYYY-MM-DD HH24:MI:SS')::TIMESTAMP,
+                legacy.failed_at, now())
+FROM legacy
+CROSS JOIN LATERAL regexp_split_to_table(legacy.retry_history, chr(10)) WITH ORDINALITY AS h(line, n)
+WHERE h.line <> '';
+
+-- Create retry_policies table (per error category retry schedule)
+-- error_category is the ErrorCategory ORDINAL
+CREATE TABLE IF NOT EXISTS retry_policies (
+    error_category INTEGER PRIMARY KEY,
+    max_attempts INTEGER NOT NULL,
+    base_delay_ms BIGINT NOT NULL,
+    max_delay_ms BIGINT NOT NULL,
+    full_jitter BOOLEAN NOT NULL,
+    retryable BOOLEAN NOT NULL,
+    updated_at TIMESTAMP,
+    updated_by VARCHAR(255)
+);
+
+-- Default policies; existing rows (admin changes) are kept
+-- 0 SYSTEM_DOWN, 1 NETWORK_TIMEOUT, 2 INVALID_DATA, 3 DATABASE_ERROR, 4 QUEUE_ERROR,
+-- 5 TRANSLATION_ERROR, 6 ROUTING_ERROR, 7 AGGREGATION_ERROR, 8 UNKNOWN
+INSERT INTO retry_policies (error_category, max_attempts, base_delay_ms, max_delay_ms, full_jitter, retryable)
+VALUES
+    (0, 6, 10000, 300000, TRUE, TRUE),
+    (1, 4, 5000, 60000, TRUE, TRUE),
+    (2, 0, 5000, 5000, FALSE, FALSE),
+    (3, 5, 2000, 60000, TRUE, TRUE),
+    (4, 5, 5000, 120000, TRUE, TRUE),
+    (5, 0, 5000, 5000, FALSE, FALSE),
+    (6, 3, 5000, 60000, TRUE, TRUE),
+    (7, 4, 5000, 120000, TRUE, TRUE),
+    (8, 3, 5000, 20000, FALSE, TRUE)
+ON CONFLICT (error_category) DO NOTHING;
+
+-- Create processed_messages table (idempotent consumer deduplication store)
+CREATE TABLE IF NOT EXISTS processed_messages (
+    message_id VARCHAR(255) PRIMARY KEY,
+    student_id VARCHAR(255) NOT NULL,
+    processed_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- existsByMessageIdOrStudentId and TTL cleanup
+CREATE INDEX IF NOT EXISTS idx_processed_messages_student_id ON processed_messages(student_id);
+CREATE INDEX IF NOT EXISTS idx_processed_messages_expires_at ON processed_messages(expires_at);
+
+-- Create registration_outbox table (transactional outbox for submissions)
+-- status: 0 = PENDING, 1 = SENT
+CREATE TABLE IF NOT EXISTS registration_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    message_id VARCHAR(255) NOT NULL UNIQUE,
+    student_id VARCHAR(255) NOT NULL,
+    exchange VARCHAR(255) NOT NULL,
+    routing_key VARCHAR(255) NOT NULL,
+    payload VARCHAR(2000) NOT NULL,
+    status INTEGER NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    traceparent VARCHAR(55),
+    created_at TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP
+);
+
+-- Tables created before trace propagation get the traceparent column here
+ALTER TABLE registration_outbox ADD COLUMN IF NOT EXISTS traceparent VARCHAR(55);
+
+-- Relay polling (lockPendingBatch) only scans pending rows; cleanup only scans sent rows
+CREATE INDEX IF NOT EXISTS idx_registration_outbox_pending ON registration_outbox(id) WHERE status = 0;
+CREATE INDEX IF NOT EXISTS idx_registration_outbox_sent_at ON registration_outbox(sent_at) WHERE status = 1;
+
+-- Create error_logs table
+CREATE TABLE IF NOT EXISTS error_logs (
+    id BIGSERIAL PRIMARY KEY,
+    student_id VARCHAR(255),
+    student_name VARCHAR(255),
+    error_stage VARCHAR(255) NOT NULL,
+    error_category INTEGER NOT NULL,
+    error_message VARCHAR(1000) NOT NULL,
+    stack_trace VARCHAR(5000),
+    http_status_code INTEGER,
+    request_url VARCHAR(255),
+    request_method VARCHAR(255),
+    user_agent VARCHAR(255),
+    ip_address VARCHAR(255),
+    error_timestamp TIMESTAMP NOT NULL,
+    severity VARCHAR(255),
+    resolved BOOLEAN NOT NULL DEFAULT FALSE,
+    resolved_at TIMESTAMP,
+    resolved_by VARCHAR(255),
+    resolution_notes VARCHAR(1000)
+);
+
+-- Indexes designed from ErrorLogRepository queries
+-- findRecentErrors / findErrorsByTimeRange: error_timestamp >= ? ORDER BY error_timestamp DESC
+CREATE INDEX IF NOT EXISTS idx_error_logs_timestamp ON error_logs(error_timestamp DESC);
+-- findByResolvedFalseOrderByErrorTimestampDesc / countByResolvedFalse: only unresolved rows are indexed
+CREATE INDEX IF NOT EXISTS idx_error_logs_unresolved ON error_logs(error_timestamp DESC)
+    WHERE resolved = false;
+
 -- Insert sample data (optional)
 -- Uncomment below to add test data
 /*
@@ -55,4 +234,4 @@ VALUES
 -- Verify table creation
 SELECT table_name FROM information_schema.tables 
 WHERE table_schema = 'public' 
-AND table_name IN ('student_registrations', 'registration_audit');
+AND table_name IN ('student_registrations', 'registration_audit', 'failed_messages', 'retry_attempts', 'retry_policies', 'processed_messages', 'registration_outbox', 'error_logs');
@@ -0,0 +1,115 @@
+package com.rsu.registration.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result (-rf json, run with -prof gc) against the checked-in baseline.
+ *
+ * A benchmark regresses if its ops/sec dropped by more than the throughput threshold
+ * and by more than the score errors (99.9% confidence intervals) of both runs together,
+ * or its bytes allocated per op grew by more than the allocation threshold
+ * (plus a small absolute slack, so near-zero allocations do not flap).
+ * A baseline whose own score error exceeds the threshold is flagged for re-recording.
+ *
+ * Usage: BaselineCheck baseline.json jmh-result.json [throughputThreshold%] [allocationThreshold%]
+ * Exits with 1 if any benchmark regressed or is missing from the result.
+ */
+public final class BaselineCheck {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final double ALLOCATION_SLACK_BYTES = 16;
+    private static final String PACKAGE_PREFIX = BaselineCheck.class.getPackage().getName() + ".";
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <baseline.json> <jmh-result.json> "
+                    + "[throughputThreshold%] [allocationThreshold%]");
+            System.exit(2);
+        }
+        double throughputThreshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        double allocationThreshold = args.length > 3 ? Double.parseDouble(args[3]) : 10;
+
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-50s %14s %8s %14s %8s %8s %12s %12s%n",
+                "Benchmark", "base ops/s", "error", "ops/s", "error", "change", "base B/op", "B/op");
+
+        for (Map.Entry<String, Result> entry : baseline.entrySet()) {
+            String benchmark = entry.getKey();
+            String name = benchmark.replace(PACKAGE_PREFIX, "");
+            Result base = entry.getValue();
+            Result result = current.get(benchmark);
+            if (result == null) {
+                System.out.printf("%-50s MISSING from result%n", name);
+                regressions++;
+                continue;
+            }
+
+            double change = (result.opsPerSecond - base.opsPerSecond) / base.opsPerSecond * 100;
+            // A drop inside the run-to-run noise of either measurement is not a regression
+            boolean slower = change < -throughputThreshold
+                    && base.opsPerSecond - result.opsPerSecond > base.opsError + result.opsError;
+            boolean noisyBaseline = base.opsError / base.opsPerSecond * 100 > throughputThreshold;
+            boolean allocatesMore = base.bytesPerOp >= 0 && result.bytesPerOp >= 0
+                    && result.bytesPerOp > base.bytesPerOp * (1 + allocationThreshold / 100) + ALLOCATION_SLACK_BYTES;
+
+            System.out.printf("%-50s %14.0f %7.1f%% %14.0f %7.1f%% %7.1f%% %12.1f %12.1f%s%s%s%n",
+                    name, base.opsPerSecond, base.opsError / base.opsPerSecond * 100,
+                    result.opsPerSecond, result.opsError / result.opsPerSecond * 100,
+                    change, base.bytesPerOp, result.bytesPerOp,
+                    slower ? "  << SLOWER" : "", allocatesMore ? "  << ALLOCATES MORE" : "",
+                    noisyBaseline ? "  << NOISY BASELINE, re-record" : "");
+            if (slower || allocatesMore) {
+                regressions++;
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed (thresholds: -%.0f%% ops/s, +%.0f%% B/op)%n",
+                    regressions, throughputThreshold, allocationThreshold);
+            System.exit(1);
+        }
+        System.out.println("No regressions against the baseline");
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            Result result = new Result();
+            result.opsPerSecond = run.path("primaryMetric").path("score").asDouble();
+            // NaN when the run had a single measurement; count it as no error
+            double opsError = run.path("primaryMetric").path("scoreError").asDouble();
+            result.opsError = Double.isNaN(opsError) ? 0 : opsError;
+            result.bytesPerOp = -1;
+
+            Iterator<Map.Entry<String, JsonNode>> metrics = run.path("secondaryMetrics").fields();
+            while (metrics.hasNext()) {
+                Map.Entry<String, JsonNode> metric = metrics.next();
+                // Older JMH versions prefix profiler metrics with a middle dot
+                if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                    result.bytesPerOp = metric.getValue().path("score").asDouble();
+                }
+            }
+            results.put(run.path("benchmark").asText(), result);
+        }
+        return results;
+    }
+
+    private static final class Result {
+        double opsPerSecond;
+        double opsError;
+        double bytesPerOp;
+    }
+}
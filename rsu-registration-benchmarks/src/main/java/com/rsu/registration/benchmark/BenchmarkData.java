@@ -0,0 +1,79 @@
+package com.rsu.registration.benchmark;
+
+import com.rsu.registration.dto.AcademicRecordsResponse;
+import com.rsu.registration.dto.AggregatedStudentProfile;
+import com.rsu.registration.dto.BillingResponse;
+import com.rsu.registration.dto.LibraryResponse;
+import com.rsu.registration.dto.StudentRegistrationDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Representative inputs shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static StudentRegistrationDTO registration() {
+        return StudentRegistrationDTO.builder()
+                .studentName("Juan Dela Cruz")
+                .studentId("2024-00123")
+                .email("juan.delacruz@rsu.edu.ph")
+                .program("Computer Science")
+                .yearLevel("2nd Year")
+                .build();
+    }
+
+    static List<String> routedTo() {
+        return Arrays.asList("Academic Records", "Billing", "Library");
+    }
+
+    /**
+     * Profile of a continuing student (billing instead of housing), as saved by the pipeline
+     */
+    static AggregatedStudentProfile profile() {
+        return AggregatedStudentProfile.builder()
+                .studentId("2024-00123")
+                .studentName("Juan Dela Cruz")
+                .program("Computer Science")
+                .yearLevel("2nd Year")
+                .academicRecords(AcademicRecordsResponse.builder()
+                        .studentId("2024-00123")
+                        .studentName("Juan Dela Cruz")
+                        .program("Computer Science")
+                        .enrollmentStatus("ENROLLED")
+                        .academicLevel("2nd Year")
+                        .gpa(3.45)
+                        .enrollmentDate(LocalDateTime.of(2024, 8, 12, 9, 30))
+                        .advisorName("Dr. Maria Santos")
+                        .build())
+                .billing(BillingResponse.builder()
+                        .studentId("2024-00123")
+                        .totalFeeAmount(new BigDecimal("47500.00"))
+                        .tuitionFee(new BigDecimal("45000.00"))
+                        .miscellaneousFees(new BigDecimal("2500.00"))
+                        .paymentDeadline(LocalDate.of(2024, 9, 15))
+                        .accountStatus("PENDING_PAYMENT")
+                        .build())
+                .library(LibraryResponse.builder()
+                        .studentId("2024-00123")
+                        .libraryCardNumber("LIB-2024-00123")
+                        .accountStatus("ACTIVE")
+                        .maxBooksAllowed(5)
+                        .currentBooksCheckedOut(0)
+                        .build())
+                .aggregationTimestamp(LocalDateTime.of(2024, 8, 12, 9, 30, 5))
+                .responsesReceived(3)
+                .responsesExpected(3)
+                .isComplete(true)
+                .aggregationTimeMs(1450L)
+                .aggregationStatus("COMPLETE")
+                .build();
+    }
+}
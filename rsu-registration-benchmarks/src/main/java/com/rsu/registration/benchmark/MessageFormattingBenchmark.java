@@ -0,0 +1,55 @@
+package com.rsu.registration.benchmark;
+
+import com.rsu.registration.dto.AggregatedStudentProfile;
+import com.rsu.registration.dto.LibraryServicesCsvDto;
+import com.rsu.registration.service.RegistrationProcessingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * String building on the hot path:
+ * - LibraryServicesCsvDto construction (builds the CSV row)
+ * - RegistrationProcessingService.buildProfileMessage (profile summary saved with each registration)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class MessageFormattingBenchmark {
+
+    private RegistrationProcessingService processingService;
+    private List<String> routedTo;
+    private AggregatedStudentProfile profile;
+
+    @Setup
+    public void setUp() {
+        // buildProfileMessage does not touch the collaborators
+        processingService = new RegistrationProcessingService(null, null, null, null, null, null, null);
+        routedTo = BenchmarkData.routedTo();
+        profile = BenchmarkData.profile();
+    }
+
+    @Benchmark
+    public LibraryServicesCsvDto buildCsvString() {
+        return new LibraryServicesCsvDto("2024-00123", "Dela Cruz, Juan", "juan.delacruz@rsu.edu.ph",
+                "Computer Science", "2nd Year", "2024-08-12 09:30:00");
+    }
+
+    @Benchmark
+    public String buildProfileMessage() {
+        return processingService.buildProfileMessage(routedTo, profile);
+    }
+}
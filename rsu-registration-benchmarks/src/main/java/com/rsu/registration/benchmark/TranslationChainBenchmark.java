@@ -0,0 +1,65 @@
+package com.rsu.registration.benchmark;
+
+import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.dto.TranslationChainDTO;
+import com.rsu.registration.service.MessageTranslatorService;
+import com.rsu.registration.service.PipelineMetricsService;
+import com.rsu.registration.translator.impl.JsonToXmlTranslator;
+import com.rsu.registration.translator.impl.XmlToCsvTranslator;
+import com.rsu.registration.translator.impl.XmlToJsonTranslator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete translation chain as run on every submit:
+ * MessageTranslatorService.executeTranslationChain (JSON → XML → JSON & CSV)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class TranslationChainBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private MessageTranslatorService translatorService;
+    private StudentRegistrationDTO registration;
+
+    @Setup
+    public void setUp() {
+        // Only the translators and the service, wired the same way as in the application;
+        // step timers go to an in-memory registry (no queue gauges without a database)
+        context = new AnnotationConfigApplicationContext();
+        context.register(JsonToXmlTranslator.class, XmlToJsonTranslator.class, XmlToCsvTranslator.class,
+                MessageTranslatorService.class);
+        context.registerBean(PipelineMetricsService.class,
+                () -> new PipelineMetricsService(new SimpleMeterRegistry(), null));
+        context.refresh();
+        translatorService = context.getBean(MessageTranslatorService.class);
+        registration = BenchmarkData.registration();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TranslationChainDTO executeTranslationChain() {
+        return translatorService.executeTranslationChain(registration);
+    }
+}
@@ -0,0 +1,62 @@
+package com.rsu.registration.benchmark;
+
+import com.rsu.registration.dto.AcademicRecordsXmlDto;
+import com.rsu.registration.dto.BillingSystemJsonDto;
+import com.rsu.registration.dto.LibraryServicesCsvDto;
+import com.rsu.registration.dto.StudentRegistrationDTO;
+import com.rsu.registration.translator.impl.JsonToXmlTranslator;
+import com.rsu.registration.translator.impl.XmlToCsvTranslator;
+import com.rsu.registration.translator.impl.XmlToJsonTranslator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single translations of the Message Translator chain:
+ * JSON → XML (Academic Records), XML → JSON (Billing), XML → CSV (Library)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class TranslatorBenchmark {
+
+    private final JsonToXmlTranslator jsonToXmlTranslator = new JsonToXmlTranslator();
+    private final XmlToJsonTranslator xmlToJsonTranslator = new XmlToJsonTranslator();
+    private final XmlToCsvTranslator xmlToCsvTranslator = new XmlToCsvTranslator();
+
+    private StudentRegistrationDTO registration;
+    private AcademicRecordsXmlDto academicRecordsXml;
+
+    @Setup
+    public void setUp() {
+        registration = BenchmarkData.registration();
+        academicRecordsXml = jsonToXmlTranslator.translate(registration);
+    }
+
+    @Benchmark
+    public AcademicRecordsXmlDto jsonToXml() {
+        return jsonToXmlTranslator.translate(registration);
+    }
+
+    @Benchmark
+    public BillingSystemJsonDto xmlToJson() {
+        return xmlToJsonTranslator.translate(academicRecordsXml);
+    }
+
+    @Benchmark
+    public LibraryServicesCsvDto xmlToCsv() {
+        return xmlToCsvTranslator.translate(academicRecordsXml);
+    }
+}
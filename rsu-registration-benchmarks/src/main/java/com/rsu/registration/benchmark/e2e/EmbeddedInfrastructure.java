@@ -0,0 +1,91 @@
+package com.rsu.registration.benchmark.e2e;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.apache.qpid.server.SystemLauncher;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Local stand-ins for the external services of the backend:
+ * - PostgreSQL: real server binaries started from the classpath (zonky embedded-postgres)
+ * - RabbitMQ: in-JVM Qpid Broker-J speaking AMQP 0-9-1, with publisher confirms and
+ *   mandatory returns like RabbitMQ; messages are kept in memory
+ *
+ * The broker can be skipped to run against a local RabbitMQ instead.
+ */
+final class EmbeddedInfrastructure implements AutoCloseable {
+
+    private static final String QPID_CONFIG = "qpid-e2e-config.json";
+
+    private final EmbeddedPostgres postgres;
+    private final SystemLauncher broker;
+    private final int amqpPort;
+
+    private EmbeddedInfrastructure(EmbeddedPostgres postgres, SystemLauncher broker, int amqpPort) {
+        this.postgres = postgres;
+        this.broker = broker;
+        this.amqpPort = amqpPort;
+    }
+
+    /**
+     * @param startBroker false to leave AMQP to an external broker
+     */
+    static EmbeddedInfrastructure start(boolean startBroker) throws Exception {
+        System.out.println("Starting embedded PostgreSQL...");
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        if (!startBroker) {
+            return new EmbeddedInfrastructure(postgres, null, -1);
+        }
+
+        System.out.println("Starting in-JVM AMQP broker...");
+        int amqpPort = freePort();
+        Path workDir = Files.createTempDirectory("rsu-e2e-qpid");
+
+        Map<String, String> context = new HashMap<>();
+        context.put("qpid.amqp_port", String.valueOf(amqpPort));
+        context.put("qpid.work_dir", workDir.toString());
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("type", "Memory");
+        attributes.put("initialConfigurationLocation",
+                EmbeddedInfrastructure.class.getClassLoader().getResource(QPID_CONFIG).toExternalForm());
+        attributes.put("startupLoggedToSystemOut", false);
+        attributes.put("context", context);
+
+        SystemLauncher broker = new SystemLauncher();
+        try {
+            broker.startup(attributes);
+        } catch (Exception e) {
+            postgres.close();
+            throw e;
+        }
+        return new EmbeddedInfrastructure(postgres, broker, amqpPort);
+    }
+
+    String jdbcUrl() {
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    int amqpPort() {
+        return amqpPort;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (broker != null) {
+            broker.shutdown();
+        }
+        postgres.close();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
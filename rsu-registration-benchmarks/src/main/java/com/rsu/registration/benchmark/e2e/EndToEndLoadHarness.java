@@ -0,0 +1,367 @@
+package com.rsu.registration.benchmark.e2e;
+
+import com.rsu.registration.RegistrationApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end throughput harness: submit → outbox → AMQP → aggregation → database.
+ *
+ * Starts an embedded PostgreSQL, checks the query plans of the hot repository queries
+ * on it (see {@link QueryPlanCheck}), then boots the backend in this JVM against it and
+ * an in-JVM AMQP broker (see {@link EmbeddedInfrastructure}). For each configured rate:
+ * - drives POST /api/v1/registrations/submit open-loop: requests are sent on a fixed
+ *   schedule whether or not earlier ones have answered
+ * - polls student_registrations until each submitted student is saved
+ * - records the latency from the scheduled send time to PROFILE_COMPLETE (and
+ *   separately to PROFILE_PARTIAL) in HdrHistograms, so a stalled pipeline shows up as
+ *   latency instead of a lower send rate (no coordinated omission)
+ * - counts submissions shed by backpressure (429/503) separately from errors; shed
+ *   submissions are expected under overload and do not fail the run
+ *
+ * Options (all optional, as name=value or --name=value):
+ *   rates=10,25,50          registrations/sec, one step per rate
+ *   duration-s=30           length of each step
+ *   warmup-s=10             unrecorded warmup at the first rate
+ *   drain-timeout-s=60      wait for outstanding registrations after each step
+ *   poll-ms=10              database poll interval (latency resolution)
+ *   rabbitmq=host:port      use a local RabbitMQ instead of the in-JVM broker
+ *   output-dir=target/e2e   percentile distributions (.hgrm) per step
+ *   app.*=value             passed to the backend, e.g. app.queue-monitor.max-depth=100
+ *   plan-check=true         run the query plan check first (false to skip, only to run
+ *                           nothing else); a sequential scan fails the run
+ *   status-stream=10000     run the status stream load test (see {@link StatusStreamLoadTest})
+ *                           with that many subscribers instead of the rate steps
+ *   status-stream-hold-s=60 how long the subscriptions are held open
+ *   status-stream-submissions=20  submissions whose status push latency is measured
+ *
+ * Run: mvn -B -pl rsu-registration-benchmarks -am verify -Pe2e -DskipTests -De2e.args="rates=10,25"
+ */
+public final class EndToEndLoadHarness {
+
+    private static final String COMPLETE = "PROFILE_COMPLETE";
+    private static final String PARTIAL = "PROFILE_PARTIAL";
+    private static final long MAX_LATENCY_MS = TimeUnit.HOURS.toMillis(1);
+    private static final String LOAD_TEST_API_KEY = "e2e-load-test";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String submitUrl;
+    private final Connection connection;
+    private final Map<String, String> options;
+    private final String runId = Long.toString(System.currentTimeMillis() % 1_000_000, 36);
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private EndToEndLoadHarness(String submitUrl, Connection connection, Map<String, String> options) {
+        this.submitUrl = submitUrl;
+        this.connection = connection;
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String rabbitmq = options.get("rabbitmq");
+        String planCheck = options.getOrDefault("plan-check", "true");
+        boolean planCheckOnly = "only".equals(planCheck);
+
+        int exitCode;
+        try (EmbeddedInfrastructure infrastructure = EmbeddedInfrastructure.start(rabbitmq == null && !planCheckOnly)) {
+            if (!"false".equals(planCheck) && !QueryPlanCheck.run(infrastructure.jdbcUrl())) {
+                exitCode = 1;
+            } else if (planCheckOnly) {
+                exitCode = 0;
+            } else {
+                exitCode = runLoad(infrastructure, rabbitmq, options);
+            }
+        }
+        // Broker and driver threads are not all daemons
+        System.exit(exitCode);
+    }
+
+    private static int runLoad(EmbeddedInfrastructure infrastructure, String rabbitmq,
+                               Map<String, String> options) throws Exception {
+        try (ConfigurableApplicationContext application = startApplication(infrastructure, rabbitmq, options);
+             Connection connection = DriverManager.getConnection(infrastructure.jdbcUrl(), "postgres", "postgres")) {
+
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            if (options.containsKey("status-stream")) {
+                return runStatusStreamLoadTest(port, options);
+            }
+            EndToEndLoadHarness harness = new EndToEndLoadHarness(
+                    "http://localhost:" + port + "/api/v1/registrations/submit", connection, options);
+            return harness.run();
+        }
+    }
+
+    /**
+     * Runs the status stream load test in its own JVM, so the client sockets do not
+     * count against the backend's file descriptor limit or share its heap
+     */
+    private static int runStatusStreamLoadTest(int port, Map<String, String> options)
+            throws IOException, InterruptedException {
+        Process loadTest = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                StatusStreamLoadTest.class.getName(),
+                "http://localhost:" + port,
+                options.get("status-stream"),
+                options.getOrDefault("status-stream-hold-s", "60"),
+                options.getOrDefault("status-stream-submissions", "20"),
+                LOAD_TEST_API_KEY)
+                .inheritIO()
+                .start();
+        return loadTest.waitFor();
+    }
+
+    private int run() throws Exception {
+        List<Integer> rates = new ArrayList<>();
+        for (String rate : option("rates", "10,25,50").split(",")) {
+            rates.add(Integer.parseInt(rate.trim()));
+        }
+        int durationS = Integer.parseInt(option("duration-s", "30"));
+        int warmupS = Integer.parseInt(option("warmup-s", "10"));
+        File outputDir = new File(option("output-dir", "target/e2e"));
+        outputDir.mkdirs();
+
+        if (warmupS > 0) {
+            System.out.printf("Warmup: %d/s for %d s%n", rates.get(0), warmupS);
+            runStep(rates.get(0), warmupS);
+        }
+
+        List<StepResult> results = new ArrayList<>();
+        for (int rate : rates) {
+            System.out.printf("Step: %d/s for %d s%n", rate, durationS);
+            StepResult result = runStep(rate, durationS);
+            results.add(result);
+            try (PrintStream out = new PrintStream(new File(outputDir, "submit-to-complete-" + rate + "rps.hgrm"))) {
+                result.toComplete.outputPercentileDistribution(out, 1.0);
+            }
+        }
+
+        System.out.println();
+        System.out.println("Latency from scheduled submit to saved profile, in ms");
+        System.out.printf("%8s %9s %8s %8s %9s %8s %10s %8s %8s %8s %8s %8s %8s %8s%n", "rate/s", "submitted",
+                "shed", "rejected", "complete", "partial", "unfinished", "saved/s", "p50", "p90", "p99", "p99.9", "max",
+                "submit p99");
+        boolean allSaved = true;
+        for (StepResult result : results) {
+            Histogram toComplete = result.toComplete;
+            System.out.printf("%8d %9d %8d %8d %9d %8d %10d %8.1f %8d %8d %8d %8d %8d %11d%n", result.rate,
+                    result.submitted, result.shed, result.rejected, toComplete.getTotalCount(), result.toPartial.getTotalCount(),
+                    result.unfinished, result.savedPerSecond, toComplete.getValueAtPercentile(50),
+                    toComplete.getValueAtPercentile(90), toComplete.getValueAtPercentile(99),
+                    toComplete.getValueAtPercentile(99.9), toComplete.getMaxValue(),
+                    result.submitResponse.getValueAtPercentile(99));
+            allSaved &= result.unfinished == 0 && result.rejected == 0;
+        }
+        System.out.println("Percentile distributions written to " + outputDir.getAbsolutePath());
+        return allSaved ? 0 : 1;
+    }
+
+    /**
+     * Submit at a fixed rate for the given time, then wait for the outstanding registrations
+     */
+    private StepResult runStep(int rate, int durationS) throws Exception {
+        StepResult result = new StepResult(rate);
+        Map<String, Long> pending = new ConcurrentHashMap<>();
+        AtomicInteger shed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long[] lastSavedNanos = {0};
+
+        ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+        poller.scheduleWithFixedDelay(() -> {
+            long saved = poll(pending, result);
+            if (saved > 0) {
+                lastSavedNanos[0] = System.nanoTime();
+            }
+        }, 0, Long.parseLong(option("poll-ms", "10")), TimeUnit.MILLISECONDS);
+
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * durationS;
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long scheduledAt = start + i * periodNanos;
+            long wait;
+            while ((wait = scheduledAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            String studentId = "E2E-" + runId + "-" + sequence.incrementAndGet();
+            pending.put(studentId, scheduledAt);
+            httpClient.sendAsync(submitRequest(studentId, i), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> {
+                        result.submitResponse.recordValue(
+                                Math.min(MAX_LATENCY_MS, (System.nanoTime() - scheduledAt) / 1_000_000));
+                        if (ex == null && (response.statusCode() == 429 || response.statusCode() == 503)) {
+                            shed.incrementAndGet();
+                            pending.remove(studentId);
+                        } else if (ex != null || response.statusCode() / 100 != 2) {
+                            rejected.incrementAndGet();
+                            pending.remove(studentId);
+                        }
+                    });
+        }
+        result.submitted = total;
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Long.parseLong(option("drain-timeout-s", "60")));
+        while (!pending.isEmpty() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        poller.shutdown();
+        poller.awaitTermination(10, TimeUnit.SECONDS);
+
+        result.shed = shed.get();
+        result.rejected = rejected.get();
+        result.unfinished = pending.size();
+        long saved = result.toComplete.getTotalCount() + result.toPartial.getTotalCount();
+        long elapsedNanos = Math.max(1, (lastSavedNanos[0] > 0 ? lastSavedNanos[0] : System.nanoTime()) - start);
+        result.savedPerSecond = saved / (elapsedNanos / 1e9);
+        return result;
+    }
+
+    /**
+     * Record every pending registration that has been saved since the last poll
+     *
+     * @return Number of registrations found saved
+     */
+    private long poll(Map<String, Long> pending, StepResult result) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long polledAt = System.nanoTime();
+        long saved = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT student_id, status FROM student_registrations WHERE student_id = ANY (?) AND status IN (?, ?)")) {
+            statement.setArray(1, connection.createArrayOf("varchar", pending.keySet().toArray()));
+            statement.setString(2, COMPLETE);
+            statement.setString(3, PARTIAL);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    Long scheduledAt = pending.remove(rows.getString(1));
+                    if (scheduledAt == null) {
+                        continue;
+                    }
+                    long latencyMs = Math.min(MAX_LATENCY_MS, (polledAt - scheduledAt) / 1_000_000);
+                    (COMPLETE.equals(rows.getString(2)) ? result.toComplete : result.toPartial).recordValue(latencyMs);
+                    saved++;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Poll failed: " + e.getMessage());
+        }
+        return saved;
+    }
+
+    private HttpRequest submitRequest(String studentId, long index) {
+        // Mix first-year (housing) and continuing (billing) students like real traffic
+        String yearLevel = index % 4 == 0 ? "First Year" : "Second Year";
+        String body = String.format("{\"studentName\":\"Load Test %1$s\",\"studentId\":\"%1$s\","
+                + "\"email\":\"%1$s@rsu.edu.ph\",\"program\":\"Computer Science\",\"yearLevel\":\"%2$s\"}",
+                studentId, yearLevel);
+        return HttpRequest.newBuilder(URI.create(submitUrl))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static ConfigurableApplicationContext startApplication(EmbeddedInfrastructure infrastructure,
+                                                                   String rabbitmq, Map<String, String> options) {
+        String amqpHost = rabbitmq != null ? rabbitmq.split(":")[0] : "localhost";
+        String amqpPort = rabbitmq != null ? rabbitmq.split(":")[1] : String.valueOf(infrastructure.amqpPort());
+        System.out.printf("Starting backend (AMQP %s:%s)...%n", amqpHost, amqpPort);
+
+        // Command line arguments take precedence over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + infrastructure.jdbcUrl(),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.rabbitmq.host=" + amqpHost,
+                "--spring.rabbitmq.port=" + amqpPort,
+                "--spring.devtools.restart.enabled=false",
+                "--spring.main.banner-mode=off",
+                // Debug logging of every message would dominate the measurement
+                "--logging.level.root=WARN",
+                "--logging.level.com.rsu.registration=WARN",
+                "--logging.level.org.springframework.amqp=WARN",
+                "--logging.level.org.springframework.integration=WARN"));
+        // Every submission and subscription comes from this one client, so its rate limit would cap the load
+        if (!options.containsKey("app.rate-limit.enabled")) {
+            args.add("--app.rate-limit.enabled=false");
+        }
+        // Lets the status stream load test through even with the limiter enabled
+        args.add("--app.rate-limit.exempt-api-keys=" + LOAD_TEST_API_KEY);
+        options.forEach((name, value) -> {
+            if (name.startsWith("app.")) {
+                args.add("--" + name + "=" + value);
+            }
+        });
+        return new SpringApplicationBuilder(RegistrationApplication.class).run(args.toArray(new String[0]));
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                String option = token.startsWith("--") ? token.substring(2) : token;
+                if (option.contains("=")) {
+                    options.put(option.substring(0, option.indexOf('=')), option.substring(option.indexOf('=') + 1));
+                } else if (!option.isEmpty()) {
+                    throw new IllegalArgumentException("Unknown argument: " + token);
+                }
+            }
+        }
+        return options;
+    }
+
+    private static final class StepResult {
+        final int rate;
+        final Histogram toComplete = new Histogram(MAX_LATENCY_MS, 3);
+        final Histogram toPartial = new Histogram(MAX_LATENCY_MS, 3);
+        final Histogram submitResponse = new ConcurrentHistogram(MAX_LATENCY_MS, 3);
+        long submitted;
+        long shed;
+        long rejected;
+        long unfinished;
+        double savedPerSecond;
+
+        StepResult(int rate) {
+            this.rate = rate;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.rsu.registration.benchmark.e2e;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * Query plan regression check against the embedded PostgreSQL of the harness.
+ *
+ * Builds a scratch schema from the backend's schema.sql, loads the synthetic data
+ * and runs the index-plan assertions of rsu-registration-backend/db/query-plan-assertions.sql
+ * (the same file db/query-plan-check.sql runs through psql). A sequential scan or a
+ * plan that stops using its index fails the check.
+ */
+final class QueryPlanCheck {
+
+    private static final String SCHEMA_SQL = "schema.sql";
+    private static final String ASSERTIONS_SQL = "db/query-plan-assertions.sql";
+
+    private QueryPlanCheck() {
+    }
+
+    /**
+     * @return false if an assertion failed (the plan is printed)
+     */
+    static boolean run(String jdbcUrl) throws SQLException, IOException {
+        System.out.println("Checking query plans...");
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, "postgres", "postgres");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS plan_check CASCADE; CREATE SCHEMA plan_check; "
+                    + "SET search_path TO plan_check");
+            try {
+                statement.execute(resource(SCHEMA_SQL));
+                statement.execute(resource(ASSERTIONS_SQL));
+                for (SQLWarning notice = statement.getWarnings(); notice != null; notice = notice.getNextWarning()) {
+                    System.out.println("  " + notice.getMessage());
+                }
+                System.out.println("Query plan check passed: all hot repository queries use index scans");
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Query plan check FAILED: " + e.getMessage());
+                return false;
+            } finally {
+                statement.execute("RESET search_path; DROP SCHEMA IF EXISTS plan_check CASCADE");
+            }
+        }
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = QueryPlanCheck.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException(name + " not found on the classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
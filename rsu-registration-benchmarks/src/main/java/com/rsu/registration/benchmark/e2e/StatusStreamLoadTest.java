@@ -0,0 +1,236 @@
+package com.rsu.registration.benchmark.e2e;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test for the registration status stream (GET /api/v1/registrations/status/{studentId}/stream).
+ *
+ * 1. Opens N concurrent SSE subscriptions (default 10000), one per synthetic student ID
+ * 2. Holds them open for a while and checks every stream still receives heartbeats
+ * 3. Optionally submits registrations for some of the subscribed students and
+ *    measures the time until their "status" event is pushed
+ * 4. Prints the server-side subscriber counters from /api/v1/admin/stats
+ *
+ * Every subscription comes from one address, so the per-client rate limit must not
+ * apply to it: pass one of the backend's app.rate-limit.exempt-api-keys (the E2E
+ * harness configures one). Needs a raised file descriptor limit on
+ * both sides, e.g. "ulimit -n 65536".
+ *
+ * In the E2E harness (embedded PostgreSQL and broker, see {@link EndToEndLoadHarness}),
+ * which starts this class in a separate JVM:
+ *   mvn -B -pl rsu-registration-benchmarks -am verify -Pe2e -DskipTests -De2e.args="status-stream=10000"
+ *
+ * Against a running backend:
+ *   java -cp rsu-registration-benchmarks/target/classes com.rsu.registration.benchmark.e2e.StatusStreamLoadTest \
+ *       [baseUrl] [subscribers] [holdSeconds] [submissions] [apiKey]
+ *
+ * Server heap with all subscribers connected: jcmd <backend-pid> GC.heap_info
+ */
+public final class StatusStreamLoadTest {
+
+    private static final Pattern STATUS_STREAM_STATS = Pattern.compile("\"statusStream\":(\\{[^}]*\\})");
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    private StatusStreamLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int subscribers = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int holdSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int submissions = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        String apiKey = args.length > 4 ? args[4] : null;
+        boolean passed = run(baseUrl, subscribers, holdSeconds, submissions, apiKey);
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * @param apiKey Sent in the API key header of every request (null for none)
+     * @return true if every subscription connected and stayed open
+     */
+    private static boolean run(String baseUrl, int subscribers, int holdSeconds, int submissions, String apiKey)
+            throws InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis() % 100000);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        // ---- Phase 1: connect ----
+        CountDownLatch connected = new CountDownLatch(subscribers);
+        AtomicInteger failed = new AtomicInteger();
+        List<StreamSubscriber> streams = new ArrayList<>(subscribers);
+
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < subscribers; i++) {
+            String studentId = "LT" + runId + "-" + String.format("%06d", i);
+            StreamSubscriber stream = new StreamSubscriber(studentId, connected);
+            streams.add(stream);
+
+            HttpRequest request = request(baseUrl + "/api/v1/registrations/status/" + studentId + "/stream", apiKey)
+                    .header("Accept", "text/event-stream")
+                    .GET()
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(stream))
+                    .whenComplete((response, ex) -> {
+                        if (ex != null || response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                            stream.closed = true;
+                            connected.countDown();
+                        }
+                    });
+
+            // Ramp up in batches so the server's accept backlog is not overrun
+            if (i % 500 == 499) {
+                Thread.sleep(100);
+            }
+        }
+
+        boolean allConnected = connected.await(120, TimeUnit.SECONDS);
+        long connectMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+        System.out.printf("Connected %d/%d subscribers in %d ms (%d failed)%s%n",
+                subscribers - failed.get() - (int) connected.getCount(), subscribers, connectMs, failed.get(),
+                allConnected ? "" : " - timed out waiting for the rest");
+        printServerStats(client, baseUrl);
+
+        // ---- Phase 2: push latency ----
+        if (submissions > 0) {
+            int step = Math.max(1, subscribers / submissions);
+            List<StreamSubscriber> targets = new ArrayList<>();
+            for (int i = 0; i < submissions && i * step < subscribers; i++) {
+                StreamSubscriber stream = streams.get(i * step);
+                targets.add(stream);
+                stream.submittedAtNanos = System.nanoTime();
+                client.sendAsync(request(baseUrl + "/api/v1/registrations/submit", apiKey)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                                        "{\"studentName\":\"Load Test %1$s\",\"studentId\":\"%1$s\","
+                                                + "\"email\":\"%1$s@rsu.edu\",\"program\":\"BSIT\",\"yearLevel\":\"2nd Year\"}",
+                                        stream.studentId)))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (System.nanoTime() < deadline && targets.stream().anyMatch(t -> t.firstStatusAtNanos == 0)) {
+                Thread.sleep(100);
+            }
+
+            List<Long> latencies = new ArrayList<>();
+            for (StreamSubscriber target : targets) {
+                if (target.firstStatusAtNanos != 0) {
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(target.firstStatusAtNanos - target.submittedAtNanos));
+                }
+            }
+            latencies.sort(null);
+            System.out.printf("Status pushed for %d/%d submissions; submit-to-event latency ms: p50=%s p99=%s max=%s%n",
+                    latencies.size(), targets.size(), percentile(latencies, 50), percentile(latencies, 99),
+                    percentile(latencies, 100));
+        }
+
+        // ---- Phase 3: hold idle connections ----
+        System.out.printf("Holding subscriptions for %d s...%n", holdSeconds);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(holdSeconds));
+
+        long open = streams.stream().filter(s -> !s.closed).count();
+        long withHeartbeat = streams.stream().filter(s -> !s.closed && s.heartbeats.get() > 0).count();
+        System.out.printf("After %d s: %d streams open, %d received heartbeats%n", holdSeconds, open, withHeartbeat);
+        printServerStats(client, baseUrl);
+
+        streams.forEach(StreamSubscriber::cancel);
+        boolean passed = failed.get() == 0 && allConnected && open == subscribers;
+        System.out.println(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+
+    private static HttpRequest.Builder request(String url, String apiKey) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url));
+        return apiKey != null ? builder.header(API_KEY_HEADER, apiKey) : builder;
+    }
+
+    private static void printServerStats(HttpClient client, String baseUrl) {
+        try {
+            String body = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/admin/stats")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher matcher = STATUS_STREAM_STATS.matcher(body);
+            System.out.println("Server statusStream: " + (matcher.find() ? matcher.group(1) : "n/a"));
+        } catch (Exception e) {
+            System.out.println("Server statusStream: unavailable (" + e.getMessage() + ")");
+        }
+    }
+
+    private static String percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return "n/a";
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return Long.toString(sorted.get(Math.max(0, index)));
+    }
+
+    /**
+     * Counts SSE lines of one subscription without holding a thread
+     */
+    private static class StreamSubscriber implements Flow.Subscriber<String> {
+
+        final String studentId;
+        final CountDownLatch connected;
+        final AtomicInteger heartbeats = new AtomicInteger();
+        volatile Flow.Subscription subscription;
+        boolean snapshotSeen;
+        volatile boolean closed;
+        volatile long submittedAtNanos;
+        volatile long firstStatusAtNanos;
+
+        StreamSubscriber(String studentId, CountDownLatch connected) {
+            this.studentId = studentId;
+            this.connected = connected;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("event:snapshot") && !snapshotSeen) {
+                snapshotSeen = true;
+                connected.countDown();
+            } else if (line.startsWith(":")) {
+                heartbeats.incrementAndGet();
+            } else if (line.startsWith("event:status") && firstStatusAtNanos == 0 && submittedAtNanos != 0) {
+                firstStatusAtNanos = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closed = true;
+        }
+
+        @Override
+        public void onComplete() {
+            closed = true;
+        }
+
+        void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import axios from 'axios';
 import './RegistrationForm.css';
 import logo from '../images/logo.png';
@@ -23,6 +23,8 @@ function RegistrationForm() {
   const [aggregatedProfile, setAggregatedProfile] = useState(null); // Aggregated profile
   const [loadingProfile, setLoadingProfile] = useState(false);
   const [showModal, setShowModal] = useState(false); // Modal visibility
+  const statusSourceRef = useRef(null); // Open registration status stream
+  const profileSourceRef = useRef(null); // Open aggregated profile stream
   const [submittedStudentId, setSubmittedStudentId] = useState(''); // Store student ID for download
 
   const handleChange = (e) => {
@@ -72,10 +74,8 @@ function RegistrationForm() {
       // Show modal
       setShowModal(true);
 
-      // Fetch aggregated profile after a short delay (wait for systems to respond)
-      setTimeout(() => {
-        fetchAggregatedProfile(formData.studentId);
-      }, 3000); // Wait 3 seconds for aggregation to complete
+      // Stream the aggregated profile as soon as the queued registration has been saved
+      watchRegistrationStatus(formData.studentId);
 
       // Reset form
       setFormData({
@@ -103,34 +103,121 @@ function RegistrationForm() {
     }
   };
 
-  const fetchAggregatedProfile = async (studentId) => {
+  const stopWatchingStatus = () => {
+    if (statusSourceRef.current) {
+      statusSourceRef.current.close();
+      statusSourceRef.current = null;
+    }
+  };
+
+  const stopStreamingProfile = () => {
+    if (profileSourceRef.current) {
+      profileSourceRef.current.close();
+      profileSourceRef.current = null;
+    }
+  };
+
+  const watchRegistrationStatus = (studentId) => {
+    stopWatchingStatus();
     setLoadingProfile(true);
-    try {
-      console.log('Fetching aggregated profile for:', studentId);
-      
-      const response = await axios.get(`${API_URL}/profile/${studentId}`);
-      
-      console.log('Aggregated Profile Response:', response.data);
-      console.log('Profile Status:', response.data?.aggregationStatus);
-      console.log('Profile Data:', {
-        academicRecords: response.data?.academicRecords,
-        housing: response.data?.housing,
-        billing: response.data?.billing,
-        library: response.data?.library
-      });
-      
-      setAggregatedProfile(response.data);
-      
-    } catch (error) {
-      console.error('Error fetching aggregated profile:', error);
-      console.error('Error response:', error.response?.data);
+
+    // Server-Sent Events: the server pushes status changes instead of us polling /status
+    const source = new EventSource(`${API_URL}/status/${studentId}/stream`);
+    statusSourceRef.current = source;
+
+    const onSaved = () => {
+      if (statusSourceRef.current !== source) {
+        return;
+      }
+      stopWatchingStatus();
+      fetchAggregatedProfile(studentId);
+    };
+
+    source.addEventListener('snapshot', (event) => {
+      if (JSON.parse(event.data).registered) {
+        onSaved();
+      }
+    });
+    source.addEventListener('status', (event) => {
+      const update = JSON.parse(event.data);
+      console.log('Registration status update:', update);
+      if (update.registrationStatus) {
+        onSaved();
+      }
+    });
+    source.onerror = (error) => {
+      console.error('Error watching registration status:', error);
+      onSaved();
+    };
+  };
+
+  const fetchAggregatedProfile = (studentId) => {
+    stopStreamingProfile();
+    setLoadingProfile(true);
+    console.log('Streaming aggregated profile for:', studentId);
+
+    // Server-Sent Events: each system's response is shown the moment it arrives
+    const source = new EventSource(`${API_URL}/profile/${studentId}/stream`);
+    profileSourceRef.current = source;
+
+    const showPart = (field) => (event) => {
+      if (profileSourceRef.current !== source) {
+        return;
+      }
+      const data = JSON.parse(event.data);
+      console.log(`Profile part received (${event.type}):`, data);
+      setAggregatedProfile(prev => ({
+        ...prev,
+        aggregationStatus: 'PENDING',
+        [field]: data,
+        responsesReceived: (prev?.responsesReceived || 0) + 1
+      }));
+      setLoadingProfile(false);
+    };
+
+    source.addEventListener('academic', showPart('academicRecords'));
+    source.addEventListener('housing', showPart('housing'));
+    source.addEventListener('billing', showPart('billing'));
+    source.addEventListener('library', showPart('library'));
+    source.addEventListener('skipped', (event) => {
+      console.warn('System skipped:', JSON.parse(event.data));
+    });
+
+    source.addEventListener('complete', (event) => {
+      if (profileSourceRef.current !== source) {
+        return;
+      }
+      const profile = JSON.parse(event.data);
+      console.log('Aggregated Profile Response:', profile);
+      console.log('Profile Status:', profile?.aggregationStatus);
+      setAggregatedProfile(profile);
+      setLoadingProfile(false);
+      stopStreamingProfile();
+    });
+
+    source.addEventListener('failed', (event) => {
+      if (profileSourceRef.current !== source) {
+        return;
+      }
+      console.error('Error fetching aggregated profile:', JSON.parse(event.data));
+      setLoadingProfile(false);
+      stopStreamingProfile();
+    });
+
+    source.onerror = (error) => {
+      if (profileSourceRef.current !== source) {
+        return;
+      }
+      console.error('Error streaming aggregated profile:', error);
       // Don't show error to user, profile might still be aggregating
-    } finally {
       setLoadingProfile(false);
-    }
+      stopStreamingProfile();
+    };
   };
 
   const closeModal = () => {
+    stopWatchingStatus();
+    stopStreamingProfile();
     setShowModal(false);
     setMessage('');
     setMessageType('');
@@ -179,6 +266,14 @@ function RegistrationForm() {
     }
   };
 
+  // Close any open stream when the form unmounts
+  useEffect(() => {
+    return () => {
+      stopWatchingStatus();
+      stopStreamingProfile();
+    };
+  }, []);
+
   // Add escape key listener
   useEffect(() => {
     const handleEscapeKey = (e) => {